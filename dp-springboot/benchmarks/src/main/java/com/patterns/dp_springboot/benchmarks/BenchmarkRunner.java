@@ -0,0 +1,30 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar — plain JMH plus the GC profiler always on, so every run
+ * reports allocation rate (gc.alloc.rate.norm = bytes per operation) next to throughput
+ * and the SampleTime percentiles (p99).
+ *
+ * Any JMH command-line option still works, e.g. a regex to pick benchmarks:
+ *   java -jar target/benchmarks.jar SnowflakeIdGenerator -p mode=LOCK_FREE
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.encoding.PayloadCodec;
+import com.patterns.dp_springboot.strategy.encoding.PayloadCompression;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import com.patterns.dp_springboot.strategy.senders.DataSenderStrategy;
+import com.patterns.dp_springboot.strategy.senders.KafkaDataSender;
+import com.patterns.dp_springboot.strategy.senders.RedisStreamDataSender;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog;
+import com.patterns.dp_springboot.strategy.sink.StreamStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of the kafka and redis senders against the in-process stand-in brokers:
+ * appending the payload bytes (partition log / stream + id) — the payload is already
+ * encoded, see DispatchRequestReadBenchmark for the read side. Plain JSON, no compression —
+ * PayloadEncodingBenchmark covers the codecs.
+ *
+ * send() is one record per call; sendBatch() is what DispatchAccumulator hands over — 100
+ * records appended under one lock acquisition. Both are reported per record
+ * (OperationsPerInvocation), so the scores compare directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSenderBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"kafka", "redis"})
+    public String channel;
+
+    private DataSenderStrategy sender;
+    private DispatchRequest request;
+    private List<DispatchRequest> batch;
+
+    @Setup
+    public void setUp() {
+        PayloadEncoder encoder = new PayloadEncoder(new StandardEnvironment(), new SimpleMeterRegistry(),
+                PayloadCodec.JSON, PayloadCompression.NONE, 1024, 64, 1 << 20);
+        sender = channel.equals("kafka")
+                ? new KafkaDataSender(new PartitionedLog(6, 100_000, 1_000), encoder)
+                : new RedisStreamDataSender(new StreamStore(100_000, 1_000), encoder);
+        request = new DispatchRequest(channel, "orders.created",
+                RawJson.of("{\"orderId\":386699019373514752,\"customerId\":\"user-123\",\"product\":\"Laptop\",\"quantity\":1}"));
+        batch = Collections.nCopies(BATCH, request);
+    }
+
+    @Benchmark
+    public void send() {
+        sender.send(request);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object sendBatch() {
+        return sender.sendBatch(batch);
+    }
+}
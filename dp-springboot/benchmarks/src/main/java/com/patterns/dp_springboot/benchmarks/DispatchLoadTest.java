@@ -0,0 +1,119 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP load test for the "api" dispatch channel — a remote round trip per request, sent
+ * with HttpClient.sendAsync behind an async servlet request.
+ *
+ * Starts a slow sink (every POST takes --sink-delay-ms) and fires --requests dispatches at
+ * the running app with --concurrency callers in flight. Run it twice against the same app,
+ * once per threading model, and compare throughput:
+ *
+ *   java -jar target/dp-springboot-0.0.1-SNAPSHOT-exec.jar                                         (platform threads)
+ *   java -jar target/dp-springboot-0.0.1-SNAPSHOT-exec.jar --spring.threads.virtual.enabled=true   (JDK 21+)
+ *
+ *   java -cp benchmarks/target/benchmarks.jar com.patterns.dp_springboot.benchmarks.DispatchLoadTest \
+ *        --concurrency=1000 --requests=20000 --sink-delay-ms=200
+ *
+ * Neither run holds a Tomcat worker while the sink sleeps, so throughput is bounded by
+ * dispatch.http.max-connections-per-host / sink delay, not by the worker pool size.
+ */
+public class DispatchLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String app      = arg(args, "app", "http://localhost:8080");
+        int concurrency = Integer.parseInt(arg(args, "concurrency", "1000"));
+        int requests    = Integer.parseInt(arg(args, "requests", "20000"));
+        int sinkPort    = Integer.parseInt(arg(args, "sink-port", "9099"));
+        long delayMs    = Long.parseLong(arg(args, "sink-delay-ms", "200"));
+
+        HttpServer sink = startSlowSink(sinkPort, delayMs);
+        String body = "{\"channel\":\"api\",\"topic\":\"http://localhost:" + sinkPort + "/sink\",\"payload\":{\"k\":1}}";
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.min(concurrency, 64)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(app + "/api/v1/dispatch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long[] latenciesNs = new long[requests];
+        AtomicInteger next   = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            callers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        failed.incrementAndGet();
+                    }
+                    latenciesNs[i] = System.nanoTime() - t0;
+                }
+            });
+        }
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sink.stop(0);
+
+        Arrays.sort(latenciesNs);
+        System.out.printf("requests=%d concurrency=%d sink-delay=%dms failed=%d%n", requests, concurrency, delayMs, failed.get());
+        System.out.printf("throughput=%.0f req/s  p50=%.1fms  p99=%.1fms  max=%.1fms%n",
+                requests / seconds,
+                latenciesNs[requests / 2] / 1e6,
+                latenciesNs[(int) (requests * 0.99)] / 1e6,
+                latenciesNs[requests - 1] / 1e6);
+        System.exit(0);
+    }
+
+    private static HttpServer startSlowSink(int port, long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/sink", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(delayMs);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static String arg(String[] args, String name, String fallback) {
+        String prefix = "--" + name + "=";
+        for (String a : args) {
+            if (a.startsWith(prefix)) {
+                return a.substring(prefix.length());
+            }
+        }
+        return fallback;
+    }
+}
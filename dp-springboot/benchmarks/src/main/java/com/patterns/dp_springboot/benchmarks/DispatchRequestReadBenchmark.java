@@ -0,0 +1,64 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body → bytes a sender can write, for a ~1 KB order payload.
+ *
+ * mapRoundTrip is the old path: bind the payload into a Map (boxed numbers, a LinkedHashMap
+ * per object) and serialize it again for the sink. rawPassThrough reads a DispatchRequest
+ * whose payload is a RawJson — channel and topic are bound, the payload is copied as bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchRequestReadBenchmark {
+
+    private record MapRequest(String channel, String topic, Map<String, Object> payload) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectReader mapReader;
+    private ObjectReader rawReader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        mapReader = objectMapper.readerFor(MapRequest.class);
+        rawReader = objectMapper.readerFor(DispatchRequest.class);
+
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            items.append(i == 0 ? "" : ",")
+                 .append("{\"sku\":\"SKU-").append(1000 + i).append("\",\"name\":\"Item ").append(i)
+                 .append("\",\"quantity\":").append(i + 1).append(",\"unitPrice\":").append(19.99 + i)
+                 .append(",\"tags\":[\"new\",\"promo\"]}");
+        }
+        body = ("{\"channel\":\"kafka\",\"topic\":\"orders.created\",\"payload\":{"
+                + "\"orderId\":386699019373514752,\"customerId\":\"user-123\",\"currency\":\"EUR\","
+                + "\"shipping\":{\"street\":\"Main St 1\",\"city\":\"Berlin\",\"zip\":\"10115\"},"
+                + "\"items\":[" + items + "],\"total\":412.5,\"express\":false}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] mapRoundTrip() throws IOException {
+        MapRequest request = mapReader.readValue(body);
+        return objectMapper.writeValueAsBytes(request.payload());
+    }
+
+    @Benchmark
+    public byte[] rawPassThrough() throws IOException {
+        DispatchRequest request = rawReader.readValue(body);
+        return request.payload().bytes();
+    }
+}
@@ -0,0 +1,92 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.observer.bus.EventBus;
+import com.patterns.dp_springboot.observer.bus.RingBufferEventBus;
+import com.patterns.dp_springboot.observer.bus.SpringEventBus;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher-side cost of OrderService's publish call on each bus, with three no-op
+ * listeners shaped like the real ones (inventory → email, audit in parallel).
+ *
+ * SPRING runs the listeners inline on the publishing thread (type matching + reflective
+ * invoke); RING_BUFFER only claims a slot and returns — its listeners run on stage threads,
+ * so on few cores those threads compete with the publisher for CPU. Compare
+ * gc.alloc.rate.norm for the per-dispatch allocation, and rerun with -t 4 for contended
+ * publishers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final OrderPlacedEvent EVENT = new OrderPlacedEvent("order-1", "customer-1", "Laptop", 1);
+
+    @Param({"SPRING", "RING_BUFFER"})
+    public String bus;
+
+    private EventBus eventBus;
+    private AnnotationConfigApplicationContext context;
+    private RingBufferEventBus ring;
+
+    @Setup
+    public void setUp() {
+        if (bus.equals("SPRING")) {
+            context = new AnnotationConfigApplicationContext(Listeners.class);
+            eventBus = new SpringEventBus(context);
+        } else {
+            Listeners listeners = new Listeners();
+            ring = new RingBufferEventBus(1024, null, 1_000);
+            ring.subscribe("inventory", OrderPlacedEvent.class, e -> listeners.inventory((OrderPlacedEvent) e));
+            ring.subscribe("email", OrderPlacedEvent.class, e -> listeners.email((OrderPlacedEvent) e), "inventory");
+            ring.subscribe("audit", OrderPlacedEvent.class, e -> listeners.audit((OrderPlacedEvent) e));
+            ring.start();
+            eventBus = ring;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (ring != null) {
+            ring.stop();
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+        eventBus.publish(EVENT);
+    }
+
+    public static class Listeners {
+
+        long inventory;
+        long email;
+        long audit;
+
+        @EventListener
+        public void inventory(OrderPlacedEvent event) {
+            inventory += event.quantity();
+        }
+
+        @EventListener
+        public void email(OrderPlacedEvent event) {
+            email += event.quantity();
+        }
+
+        @EventListener
+        public void audit(OrderPlacedEvent event) {
+            audit += event.quantity();
+        }
+    }
+}
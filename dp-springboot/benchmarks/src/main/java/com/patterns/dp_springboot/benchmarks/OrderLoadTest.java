@@ -0,0 +1,112 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP load test for order placement — the same burst of --orders orders sent two ways
+ * against the running app:
+ *
+ *   single  POST /api/v1/orders        one request per order
+ *   batch   POST /api/v1/orders/batch  --batch-size orders per request
+ *
+ *   java -jar target/dp-springboot-0.0.1-SNAPSHOT-exec.jar --logging.level.com.patterns=WARN
+ *   java -cp benchmarks/target/benchmarks.jar com.patterns.dp_springboot.benchmarks.OrderLoadTest \
+ *        --orders=20000 --batch-size=500 --concurrency=8
+ *
+ * Prints, per mode, the number of HTTP requests, orders/s and per-request latency percentiles.
+ */
+public class OrderLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String app      = arg(args, "app", "http://localhost:8080");
+        int orders      = Integer.parseInt(arg(args, "orders", "20000"));
+        int batchSize   = Integer.parseInt(arg(args, "batch-size", "500"));
+        int concurrency = Integer.parseInt(arg(args, "concurrency", "8"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.min(concurrency, 64)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        HttpRequest single = post(app + "/api/v1/orders", order(0));
+        StringJoiner batch = new StringJoiner(",", "{\"orders\":[", "]}");
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(order(i));
+        }
+        HttpRequest batched = post(app + "/api/v1/orders/batch", batch.toString());
+
+        run("single", client, single, orders, 1, concurrency);
+        run("batch ", client, batched, (orders + batchSize - 1) / batchSize, batchSize, concurrency);
+        System.exit(0);
+    }
+
+    private static void run(String mode, HttpClient client, HttpRequest request,
+                            int requests, int ordersPerRequest, int concurrency) throws InterruptedException {
+        long[] latenciesNs = new long[requests];
+        AtomicInteger next   = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            callers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 201) {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        failed.incrementAndGet();
+                    }
+                    latenciesNs[i] = System.nanoTime() - t0;
+                }
+            });
+        }
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latenciesNs);
+        System.out.printf("%s  requests=%d orders=%d failed=%d  throughput=%.0f orders/s  p50=%.1fms  p99=%.1fms  max=%.1fms%n",
+                mode, requests, (long) requests * ordersPerRequest, failed.get(),
+                requests * (double) ordersPerRequest / seconds,
+                latenciesNs[requests / 2] / 1e6,
+                latenciesNs[(int) (requests * 0.99)] / 1e6,
+                latenciesNs[requests - 1] / 1e6);
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String order(int i) {
+        return "{\"customerId\":\"customer-" + i + "\",\"product\":\"Laptop\",\"quantity\":1}";
+    }
+
+    private static String arg(String[] args, String name, String fallback) {
+        String prefix = "--" + name + "=";
+        for (String a : args) {
+            if (a.startsWith(prefix)) {
+                return a.substring(prefix.length());
+            }
+        }
+        return fallback;
+    }
+}
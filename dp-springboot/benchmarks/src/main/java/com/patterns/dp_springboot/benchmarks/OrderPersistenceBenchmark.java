@@ -0,0 +1,86 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.DpSpringbootApplication;
+import com.patterns.dp_springboot.observer.dto.OrderBatchResponse;
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.repository.OrderRepository;
+import com.patterns.dp_springboot.observer.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Persisting {@code orders} orders through the real OrderService, JPA and H2, minus HTTP:
+ *
+ *  placeOneByOne   place() per order — one transaction and one INSERT round trip each
+ *  placeBatch      placeBatch(list)  — one transaction per 1000-order chunk, one reserved ID
+ *                                      range, batched INSERTs, events published in one pass
+ *
+ * {@code jdbcBatchSize=0} turns Hibernate JDBC batching off, isolating what batching alone
+ * is worth. One operation = all {@code orders} orders; multiply the score by {@code orders}
+ * for orders per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPersistenceBenchmark {
+
+    @Param({"0", "50"})
+    public int jdbcBatchSize;
+
+    @Param({"1000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(DpSpringbootApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                     "--spring.datasource.url=jdbc:h2:mem:order-bench;DB_CLOSE_DELAY=-1",
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.patterns=WARN");
+        orderService    = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        requests = IntStream.range(0, orders)
+                .mapToObj(i -> new OrderRequest("customer-" + i, "Laptop", 1))
+                .toList();
+    }
+
+    // Keep the table (and its index) the same size for every iteration
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        orderRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void placeOneByOne(Blackhole blackhole) {
+        for (OrderRequest request : requests) {
+            blackhole.consume(orderService.place(request));
+        }
+    }
+
+    @Benchmark
+    public OrderBatchResponse placeBatch() {
+        return orderService.placeBatch(requests);
+    }
+}
@@ -0,0 +1,71 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.encoding.ChannelEncoder;
+import com.patterns.dp_springboot.strategy.encoding.EncodedPayload;
+import com.patterns.dp_springboot.strategy.encoding.PayloadCodec;
+import com.patterns.dp_springboot.strategy.encoding.PayloadCompression;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU per message and bytes on the wire for every codec x compression pair, on an order
+ * payload with 8 line items (~1 KB of JSON) and with 128 (~16 KB).
+ *
+ * The score is the encode cost per payload (µs/op, lower is better). Setup prints the
+ * wire size of each combination ("[wire] ..." in the fork output). The threshold is 0, so
+ * every payload is compressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE", "BINARY"})
+    public PayloadCodec codec;
+
+    @Param({"NONE", "DEFLATE", "LZ4"})
+    public PayloadCompression compression;
+
+    @Param({"8", "128"})
+    public int items;
+
+    private ChannelEncoder encoder;
+    private DispatchRequest request;
+
+    @Setup
+    public void setUp() {
+        encoder = new PayloadEncoder(new StandardEnvironment(), new SimpleMeterRegistry(), codec, compression, 0, 64, 1 << 20)
+                .forChannel("bench");
+        request = new DispatchRequest("bench", "orders.created", RawJson.of(order(items)));
+        EncodedPayload sample = encoder.encode(request);
+        System.out.printf("%n[wire] codec=%s compression=%s items=%d raw=%d B wire=%d B (%.0f%%)%n",
+                codec, compression, items, request.payload().size(), sample.bytes().length,
+                100.0 * sample.bytes().length / request.payload().size());
+    }
+
+    @Benchmark
+    public EncodedPayload encode() {
+        return encoder.encode(request);
+    }
+
+    static String order(int items) {
+        StringBuilder json = new StringBuilder("{\"orderId\":386699019373514752,\"customerId\":\"user-123\",\"currency\":\"EUR\","
+                + "\"shipping\":{\"street\":\"Main St 1\",\"city\":\"Berlin\",\"zip\":\"10115\"},\"items\":[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"sku\":\"SKU-").append(1000 + i).append("\",\"name\":\"Item ").append(i)
+                .append("\",\"quantity\":").append(i % 5 + 1).append(",\"unitPrice\":").append(19 + i % 50).append(".99")
+                .append(",\"tags\":[\"new\",\"promo\"]}");
+        }
+        return json.append("],\"total\":412.5,\"express\":false}").toString();
+    }
+}
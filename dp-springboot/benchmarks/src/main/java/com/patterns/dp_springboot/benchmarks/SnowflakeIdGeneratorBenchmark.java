@@ -0,0 +1,61 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nextId() under contention — one shared generator, 1 / 4 / 16 / 64 callers.
+ *
+ * A node can hand out at most 4096 IDs per ms, so past that ceiling throughput flattens
+ * and the interesting number becomes p99: how long callers wait on the lock, the CAS
+ * retry loop or the next millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    @Param({"SYNCHRONIZED", "LOCK_FREE", "STRIPED"})
+    public SnowflakeMode mode;
+
+    @Param({"0"})
+    public long maxBorrowMs;
+
+    private SnowflakeIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SnowflakeIdGenerator(WorkerIdAssignment.fixed(1), mode, 8, maxBorrowMs);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextId_1Thread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId_4Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long nextId_16Threads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long nextId_64Threads() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,69 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.singleton.dto.SnowflakeResponse;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdCursor;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import com.patterns.dp_springboot.singleton.index.SnowflakeIdIndex;
+import com.patterns.dp_springboot.singleton.service.SnowflakeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decomposing an ID back into timestamp / worker / sequence — the log-enrichment path.
+ * IDs are generated up front so only decoding is measured. parse() is the decoded
+ * SnowflakeResponse view; decodeStatic / decodeCursor should show 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeParseBenchmark {
+
+    private static final int IDS = 4096;
+
+    private SnowflakeService service;
+    private final SnowflakeIdCursor cursor = new SnowflakeIdCursor();
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(WorkerIdAssignment.fixed(1), SnowflakeMode.SYNCHRONIZED, 8, 0);
+        service = new SnowflakeService(generator, new SnowflakeIdIndex(false, 0, 0));
+        ids     = generator.reserveRange(IDS).toArray();
+    }
+
+    @Benchmark
+    public SnowflakeResponse parse() {
+        long id = ids[next];
+        next = (next + 1) & (IDS - 1);
+        return service.parse(id);
+    }
+
+    @Benchmark
+    public void decodeStatic(Blackhole bh) {
+        long id = ids[next];
+        next = (next + 1) & (IDS - 1);
+        bh.consume(SnowflakeLayout.timestampMs(id));
+        bh.consume(SnowflakeLayout.workerId(id));
+        bh.consume(SnowflakeLayout.sequence(id));
+    }
+
+    // Whole array per invocation — divide the score by 4096 for per-ID cost
+    @Benchmark
+    public void decodeCursor(Blackhole bh) {
+        cursor.wrap(ids);
+        while (cursor.next()) {
+            bh.consume(cursor.timestampMs());
+            bh.consume(cursor.workerId());
+            bh.consume(cursor.sequence());
+        }
+    }
+}
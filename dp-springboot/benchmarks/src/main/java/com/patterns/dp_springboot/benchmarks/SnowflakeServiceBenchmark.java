@@ -0,0 +1,53 @@
+package com.patterns.dp_springboot.benchmarks;
+
+import com.patterns.dp_springboot.singleton.dto.IdStreamFormat;
+import com.patterns.dp_springboot.singleton.dto.SnowflakeResponse;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import com.patterns.dp_springboot.singleton.index.SnowflakeIdIndex;
+import com.patterns.dp_springboot.singleton.service.SnowflakeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What /api/v1/ids/batch and /api/v1/ids/stream cost per call, minus HTTP.
+ * Compare gc.alloc.rate.norm between the two to see the price of the decoded view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeServiceBenchmark {
+
+    @Param({"1", "100", "4096", "100000"})
+    public int count;
+
+    @Param({"SYNCHRONIZED", "LOCK_FREE"})
+    public SnowflakeMode mode;
+
+    private SnowflakeService service;
+
+    @Setup
+    public void setUp() {
+        service = new SnowflakeService(
+                new SnowflakeIdGenerator(WorkerIdAssignment.fixed(1), mode, 8, 0),
+                new SnowflakeIdIndex(false, 0, 0));
+    }
+
+    @Benchmark
+    public List<SnowflakeResponse> generateBatch() {
+        return service.generateBatch(count);
+    }
+
+    @Benchmark
+    public void streamBinary() throws IOException {
+        service.stream(count, IdStreamFormat.BINARY, OutputStream.nullOutputStream());
+    }
+}
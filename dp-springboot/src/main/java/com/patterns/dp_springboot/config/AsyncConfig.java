@@ -1,8 +1,55 @@
 package com.patterns.dp_springboot.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @EnableAsync
 @Configuration
-public class AsyncConfig {}
+public class AsyncConfig {
+
+    /** Flush executor for EmailListener batches. */
+    public static final String EMAIL_LISTENER_EXECUTOR = "emailListenerExecutor";
+
+    /** Flush executor for AuditListener batches. */
+    public static final String AUDIT_LISTENER_EXECUTOR = "auditListenerExecutor";
+
+    @Bean(EMAIL_LISTENER_EXECUTOR)
+    public ThreadPoolTaskExecutor emailListenerExecutor(ListenerExecutorSettings listenerExecutorSettings, MeterRegistry meterRegistry) {
+        return InstrumentedListenerExecutor.create("email", listenerExecutorSettings, meterRegistry);
+    }
+
+    @Bean(AUDIT_LISTENER_EXECUTOR)
+    public ThreadPoolTaskExecutor auditListenerExecutor(ListenerExecutorSettings listenerExecutorSettings, MeterRegistry meterRegistry) {
+        return InstrumentedListenerExecutor.create("audit", listenerExecutorSettings, meterRegistry);
+    }
+
+    // Declaring any Executor bean makes Boot back off its own applicationTaskExecutor, which
+    // MVC async (StreamingResponseBody) and unqualified @Async rely on — so declare it again,
+    // built exactly the way Boot would (virtual threads included).
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                  AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder virtualThreadBuilder,
+                                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads ? virtualThreadBuilder.build() : threadPoolBuilder.build();
+    }
+
+    @Bean
+    public ListenerExecutorSettings listenerExecutorSettings(
+            @Value("${observer.listener-executor.core-size:2}") int coreSize,
+            @Value("${observer.listener-executor.max-size:8}") int maxSize,
+            @Value("${observer.listener-executor.queue-capacity:1000}") int queueCapacity,
+            @Value("${observer.listener-executor.rejection-policy:CALLER_RUNS}") ListenerExecutorSettings.RejectionPolicy rejectionPolicy,
+            @Value("${observer.listener-executor.await-termination-ms:30000}") long awaitTerminationMs) {
+        return new ListenerExecutorSettings(coreSize, maxSize, queueCapacity, rejectionPolicy, awaitTerminationMs);
+    }
+}
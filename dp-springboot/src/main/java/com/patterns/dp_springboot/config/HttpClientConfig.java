@@ -0,0 +1,25 @@
+package com.patterns.dp_springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    // One shared JDK client: it pools keep-alive connections per host and negotiates HTTP/2
+    // (ALPN over TLS, h2c upgrade over plain HTTP), falling back to HTTP/1.1
+    @Bean
+    public HttpClient dispatchHttpClient(
+            @Value("${dispatch.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${dispatch.http.connect-timeout-ms:2000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+}
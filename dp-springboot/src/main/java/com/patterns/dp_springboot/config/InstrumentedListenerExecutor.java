@@ -0,0 +1,87 @@
+package com.patterns.dp_springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds one bounded, metered executor per async listener.
+ *
+ * One pool per listener is a bulkhead: a slow SMTP server fills the email queue, not
+ * the queue every other listener shares. It also makes the metrics per-listener for free —
+ * everything is tagged {@code listener=<name>}:
+ *
+ *  observer.listener.queue.depth   tasks waiting for a thread
+ *  observer.listener.active        tasks running right now
+ *  observer.listener.wait          time from publish to a thread picking the task up
+ *  observer.listener.execution     time the listener method itself took
+ *  observer.listener.rejected      tasks that hit a full queue (tag policy)
+ */
+@Slf4j
+public final class InstrumentedListenerExecutor {
+
+    private InstrumentedListenerExecutor() {}
+
+    public static ThreadPoolTaskExecutor create(String listener, ListenerExecutorSettings settings, MeterRegistry registry) {
+        Timer wait      = Timer.builder("observer.listener.wait").tag("listener", listener).publishPercentiles(0.5, 0.99).register(registry);
+        Timer execution = Timer.builder("observer.listener.execution").tag("listener", listener).publishPercentiles(0.5, 0.99).register(registry);
+        Counter rejected = Counter.builder("observer.listener.rejected")
+                .tag("listener", listener)
+                .tag("policy", settings.rejectionPolicy().name())
+                .register(registry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("listener-" + listener + "-");
+        executor.setCorePoolSize(settings.coreSize());
+        executor.setMaxPoolSize(settings.maxSize());
+        executor.setQueueCapacity(settings.queueCapacity());
+        executor.setRejectedExecutionHandler(rejectionHandler(listener, settings.rejectionPolicy(), rejected));
+        // Graceful drain: on shutdown stop accepting, then let queued events finish
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(settings.awaitTerminationMs());
+        executor.setTaskDecorator(task -> {
+            long enqueuedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                wait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.initialize();
+
+        Gauge.builder("observer.listener.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("listener", listener)
+                .register(registry);
+        Gauge.builder("observer.listener.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("listener", listener)
+                .register(registry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(String listener,
+                                                             ListenerExecutorSettings.RejectionPolicy policy,
+                                                             Counter rejected) {
+        return switch (policy) {
+            case CALLER_RUNS -> (task, pool) -> {
+                rejected.increment();
+                if (!pool.isShutdown()) {
+                    task.run();
+                }
+            };
+            case DROP -> (task, pool) -> {
+                rejected.increment();
+                log.warn("[{}] Listener queue full ({} waiting) — event dropped", listener, pool.getQueue().size());
+            };
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.patterns.dp_springboot.config;
+
+/**
+ * Sizing and back-pressure for a bounded listener executor.
+ *
+ * @param coreSize           threads kept alive
+ * @param maxSize            threads added only once the queue is full
+ * @param queueCapacity      tasks allowed to wait — the memory bound under an order spike
+ * @param rejectionPolicy    what happens when threads AND queue are full
+ * @param awaitTerminationMs how long shutdown waits for queued tasks to drain
+ */
+public record ListenerExecutorSettings(
+        int coreSize,
+        int maxSize,
+        int queueCapacity,
+        RejectionPolicy rejectionPolicy,
+        long awaitTerminationMs
+) {
+
+    public enum RejectionPolicy {
+
+        /** Publisher thread runs the listener itself — slows intake down, loses nothing. */
+        CALLER_RUNS,
+
+        /** Task is discarded and counted — intake never slows, side effect is lost. */
+        DROP
+    }
+}
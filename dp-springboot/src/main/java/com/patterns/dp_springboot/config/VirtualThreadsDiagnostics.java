@@ -0,0 +1,43 @@
+package com.patterns.dp_springboot.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Boot switches Tomcat, the @Async/applicationTaskExecutor and the scheduler to
+ * virtual threads when {@code spring.threads.virtual.enabled=true} — but only on JDK 21+,
+ * and silently does nothing otherwise. This makes both outcomes visible at startup.
+ *
+ * Pinning (a virtual thread blocking while it holds a monitor, so its carrier can't
+ * run anything else) is reported by the JVM itself:
+ *   -Djdk.tracePinnedThreads=short      stack trace on stdout per pinning event
+ *   JFR event jdk.VirtualThreadPinned    (enabled by default, threshold 20ms)
+ */
+@Slf4j
+@Component
+public class VirtualThreadsDiagnostics {
+
+    private final boolean enabled;
+
+    public VirtualThreadsDiagnostics(@Value("${spring.threads.virtual.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (!enabled) {
+            return;
+        }
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("[VIRTUAL THREADS] spring.threads.virtual.enabled=true is ignored on JDK {} — requests still run on platform threads. Run on JDK 21+.", feature);
+            return;
+        }
+        String tracePinned = System.getProperty("jdk.tracePinnedThreads");
+        log.info("[VIRTUAL THREADS] Tomcat, @Async and scheduled tasks run on virtual threads (JDK {}). Pinning trace: {}",
+                feature, tracePinned != null ? tracePinned : "off — add -Djdk.tracePinnedThreads=short to diagnose");
+    }
+}
@@ -1,7 +1,9 @@
 package com.patterns.dp_springboot.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -17,6 +19,72 @@ public class GlobalExceptionHandler {
         return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(com.patterns.dp_springboot.strategy.exception.DeliveryFailedException.class)
+    public ProblemDetail handleDeliveryFailed(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, ex.getMessage());
+    }
+
+    @ExceptionHandler({
+        com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException.class,
+        com.patterns.dp_springboot.strategy.exception.CircuitOpenException.class,
+        com.patterns.dp_springboot.strategy.exception.DispatcherStoppedException.class
+    })
+    public ProblemDetail handleDispatchShed(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.strategy.exception.DispatchTimeoutException.class)
+    public ProblemDetail handleDispatchTimeout(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.strategy.exception.DispatchQueueFullException.class)
+    public ResponseEntity<ProblemDetail> handleDispatchQueueFull(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.strategy.exception.TrackingIdNotFoundException.class)
+    public ProblemDetail handleTrackingIdNotFound(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.singleton.exception.InvalidTimeWindowException.class)
+    public ProblemDetail handleInvalidTimeWindow(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.singleton.exception.IdCountLimitExceededException.class)
+    public ProblemDetail handleIdCountLimitExceeded(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.singleton.exception.IdIndexDisabledException.class)
+    public ProblemDetail handleIdIndexDisabled(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.observer.exception.OrderNotFoundException.class)
+    public ProblemDetail handleOrderNotFound(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.observer.exception.InvalidIdempotencyKeyException.class)
+    public ProblemDetail handleInvalidIdempotencyKey(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.observer.exception.IdempotencyKeyInProgressException.class)
+    public ProblemDetail handleIdempotencyKeyInProgress(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(com.patterns.dp_springboot.observer.exception.IdempotencyKeyReusedException.class)
+    public ProblemDetail handleIdempotencyKeyReused(RuntimeException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleValidation(MethodArgumentNotValidException ex) {
         String detail = ex.getBindingResult().getFieldErrors().stream()
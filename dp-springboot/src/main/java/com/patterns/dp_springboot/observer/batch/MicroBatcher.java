@@ -0,0 +1,142 @@
+package com.patterns.dp_springboot.observer.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Buffers events for one listener and hands them over as a {@code List} — when the buffer
+ * reaches {@code maxBatchSize}, or {@code linger} after the first event arrived, whichever
+ * comes first.
+ *
+ * The batcher never decides WHEN an event is eligible — the listener method feeding it does.
+ * Feed it from {@code @TransactionalEventListener(AFTER_COMMIT)} and only committed orders
+ * are ever buffered; a rolled-back order never reaches {@link #add}.
+ *
+ * Handlers run on {@code flushExecutor}, never under the buffer lock, so a slow flush
+ * doesn't block publishers from buffering the next batch.
+ */
+@Slf4j
+public final class MicroBatcher<E> {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final Consumer<List<E>> handler;
+    private final Executor flushExecutor;
+    private final TaskScheduler scheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<E> buffer;
+    private ScheduledFuture<?> lingerTimer;
+
+    private final DistributionSummary batchSize;
+    private final Counter sizeFlushes;
+    private final Counter lingerFlushes;
+    private final Counter shutdownFlushes;
+
+    MicroBatcher(String name, int maxBatchSize, Duration linger, Consumer<List<E>> handler,
+                 Executor flushExecutor, TaskScheduler scheduler, MeterRegistry registry) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.handler = handler;
+        this.flushExecutor = flushExecutor;
+        this.scheduler = scheduler;
+        this.buffer = new ArrayList<>(maxBatchSize);
+
+        this.batchSize = DistributionSummary.builder("observer.listener.batch.size")
+                .tag("listener", name)
+                .register(registry);
+        this.sizeFlushes     = flushCounter(registry, "size");
+        this.lingerFlushes   = flushCounter(registry, "linger");
+        this.shutdownFlushes = flushCounter(registry, "shutdown");
+    }
+
+    private Counter flushCounter(MeterRegistry registry, String trigger) {
+        return Counter.builder("observer.listener.batch.flushes")
+                .tag("listener", name)
+                .tag("trigger", trigger)
+                .register(registry);
+    }
+
+    public void add(E event) {
+        List<E> full = null;
+        lock.lock();
+        try {
+            buffer.add(event);
+            if (buffer.size() >= maxBatchSize) {
+                full = drain();
+            } else if (buffer.size() == 1) {
+                // First event of a new batch starts the linger clock
+                lingerTimer = scheduler.schedule(this::flushOnLinger, Instant.now().plus(linger));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            sizeFlushes.increment();
+            dispatch(full);
+        }
+    }
+
+    /** Hands over whatever is buffered right now — called on shutdown so nothing is left behind. */
+    public void flush() {
+        List<E> pending = drainIfNotEmpty();
+        if (pending != null) {
+            shutdownFlushes.increment();
+            dispatch(pending);
+        }
+    }
+
+    private void flushOnLinger() {
+        List<E> pending = drainIfNotEmpty();
+        if (pending != null) {
+            lingerFlushes.increment();
+            dispatch(pending);
+        }
+    }
+
+    private List<E> drainIfNotEmpty() {
+        lock.lock();
+        try {
+            return buffer.isEmpty() ? null : drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private List<E> drain() {
+        List<E> out = buffer;
+        buffer = new ArrayList<>(maxBatchSize);
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        return out;
+    }
+
+    private void dispatch(List<E> batch) {
+        batchSize.record(batch.size());
+        flushExecutor.execute(() -> {
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                // One bad batch must not kill the flusher — same contract as a failing @EventListener
+                log.error("[{}] Batch of {} events failed", name, batch.size(), e);
+            }
+        });
+    }
+}
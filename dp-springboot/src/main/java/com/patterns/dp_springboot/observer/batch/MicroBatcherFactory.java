@@ -0,0 +1,76 @@
+package com.patterns.dp_springboot.observer.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Creates {@link MicroBatcher}s with the shared size/linger settings and flushes all of them
+ * on shutdown, so buffered events still get delivered and then drained by the listener
+ * executors' own graceful shutdown.
+ *
+ * The flush runs in a lifecycle phase just below the default one: after anything that can
+ * still feed a batcher (the ring-buffer bus drains its stages in the default phase) has
+ * stopped, and before the executors are destroyed.
+ */
+@Slf4j
+@Component
+public class MicroBatcherFactory implements SmartLifecycle {
+
+    private final TaskScheduler scheduler;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final List<MicroBatcher<?>> batchers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public MicroBatcherFactory(TaskScheduler scheduler,
+                               MeterRegistry meterRegistry,
+                               @Value("${observer.batch.max-size:100}") int maxBatchSize,
+                               @Value("${observer.batch.linger-ms:50}") long lingerMs) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("observer.batch.max-size must be >= 1, got " + maxBatchSize);
+        }
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.linger = Duration.ofMillis(lingerMs);
+    }
+
+    public <E> MicroBatcher<E> create(String listener, Executor flushExecutor, Consumer<List<E>> handler) {
+        MicroBatcher<E> batcher = new MicroBatcher<>(listener, maxBatchSize, linger, handler, flushExecutor, scheduler, meterRegistry);
+        batchers.add(batcher);
+        log.info("[BATCH] {} listener batches up to {} events, linger {} ms", listener, maxBatchSize, linger.toMillis());
+        return batcher;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        batchers.forEach(MicroBatcher::flush);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+}
@@ -0,0 +1,20 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import java.util.List;
+
+/**
+ * What {@code OrderService} publishes through. Two implementations, picked by
+ * {@code observer.bus.type}:
+ *
+ *  SPRING       {@link SpringEventBus} — plain ApplicationEventPublisher (default)
+ *  RING_BUFFER  {@link RingBufferEventBus} — preallocated ring, one thread per listener stage
+ */
+public interface EventBus {
+
+    void publish(Object event);
+
+    /** Publishes in list order. An implementation may hand the whole list over in one step. */
+    default void publishAll(List<?> events) {
+        events.forEach(this::publish);
+    }
+}
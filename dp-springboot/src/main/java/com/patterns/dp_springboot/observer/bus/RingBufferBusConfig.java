@@ -0,0 +1,34 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "observer.bus.type", havingValue = "RING_BUFFER")
+public class RingBufferBusConfig {
+
+    @Bean
+    public RingBufferEventBus ringBufferEventBus(
+            ApplicationEventPublisher eventPublisher,
+            @Value("${observer.bus.ring-size:1024}") int ringSize,
+            @Value("${observer.bus.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        return new RingBufferEventBus(ringSize, eventPublisher, shutdownTimeoutMs);
+    }
+
+    // static — EventListenerFactory beans are looked up while the bean factory is still being post-processed
+    @Bean
+    static RingBufferListenerFactory ringBufferListenerFactory(ObjectProvider<RingBufferEventBus> bus, BeanFactory beanFactory) {
+        return new RingBufferListenerFactory(bus, beanFactory);
+    }
+
+    @Bean
+    public RingBufferMetrics ringBufferMetrics(RingBufferEventBus bus, MeterRegistry meterRegistry) {
+        return new RingBufferMetrics(bus, meterRegistry);
+    }
+}
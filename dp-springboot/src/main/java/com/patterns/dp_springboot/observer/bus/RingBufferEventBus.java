@@ -0,0 +1,512 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Disruptor-style event bus — a preallocated ring of slots, one sequence per consumer stage.
+ *
+ *  publish:  claim the next sequence (one getAndIncrement), write the slot, mark it published.
+ *            No listener lookup, no per-dispatch allocation.
+ *  consume:  each stage has its own thread and walks the ring in order. A stage with no
+ *            dependencies follows the publishers; a stage with {@code after = {...}} only
+ *            sees a sequence once every stage it depends on has passed it. That barrier is
+ *            the whole dependency graph — e.g. inventory → email, audit in parallel.
+ *            If a stage fails on an event, every stage after it skips that event: no
+ *            confirmation email for an order whose inventory was not reserved.
+ *  idle:     spin, then short parks, then block until a publisher or an upstream stage
+ *            wakes the thread — an idle bus costs no CPU.
+ *
+ *  slot index = sequence & (size - 1)
+ *  published[slot] = sequence >>> log2(size)   round number, so a slot from the previous lap
+ *                                              never looks published
+ *
+ * Publishers never overtake the slowest stage: when the ring is full, {@link #publish} waits.
+ * That is the back-pressure — a stalled listener eventually slows order placement down
+ * instead of growing a queue.
+ *
+ * Transactions: inside a transaction the event enters the ring after commit, so ring stages
+ * never see a rolled-back order. That also makes every stage AFTER_COMMIT, which is a change
+ * for a listener that used to run synchronously inside the transaction.
+ *
+ * A stopped bus refuses ring events at publish time, still inside the transaction, so the
+ * order rolls back instead of committing without its events. If the bus stops between
+ * publish and commit, the committed events are logged and dropped: throwing from afterCommit
+ * would fail a request whose order is already stored.
+ *
+ * Events of a type no stage handles — or with Spring-only listeners left — still go through
+ * the {@code fallback} publisher, so opting in can be done one listener at a time.
+ */
+@Slf4j
+public class RingBufferEventBus implements EventBus, SmartLifecycle {
+
+    private static final int  PAD        = 16;      // same padding as the striped Snowflake sequencer
+    private static final int  SPIN_TRIES  = 100;
+    private static final int  PARK_TRIES  = 100;          // ~5 ms of short parks before blocking
+    private static final long PARK_NANOS  = 50_000L;
+    private static final long SLEEP_NANOS = 100_000_000L; // safety net only — wake-ups are explicit
+
+    private final int  size;
+    private final int  mask;
+    private final int  roundShift;
+    private final Object[] entries;
+    private final AtomicIntegerArray published;
+    private final AtomicIntegerArray failed;      // per slot: bit i set = stage i failed or skipped it
+    private final AtomicInteger sleepers = new AtomicInteger();
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    private final ApplicationEventPublisher fallback;
+    private final long shutdownTimeoutMs;
+
+    private final Map<String, Stage> stagesByName = new LinkedHashMap<>();
+    private final List<Class<?>> springListenerTypes = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Route> routes = new ConcurrentHashMap<>();
+
+    private volatile Stage[] stages = new Stage[0];
+    private AtomicLongArray sequences = new AtomicLongArray(PAD);
+    private volatile boolean running;
+
+    public RingBufferEventBus(int size, ApplicationEventPublisher fallback, long shutdownTimeoutMs) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("observer.bus.ring-size must be a power of two >= 2, got " + size);
+        }
+        this.size              = size;
+        this.mask              = size - 1;
+        this.roundShift        = Integer.numberOfTrailingZeros(size);
+        this.entries           = new Object[size];
+        this.published         = new AtomicIntegerArray(size);
+        this.failed            = new AtomicIntegerArray(size);
+        this.fallback          = fallback;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /** Adds a consumer stage. Only before {@link #start()} — the graph is fixed once threads run. */
+    public synchronized void subscribe(String name, Class<?> eventType, Consumer<Object> handler, String... after) {
+        if (running) {
+            throw new IllegalStateException("Cannot add stage '" + name + "' — ring buffer bus already started");
+        }
+        if (stagesByName.putIfAbsent(name, new Stage(name, eventType, handler, after)) != null) {
+            throw new IllegalStateException("Duplicate ring buffer stage '" + name + "'");
+        }
+        routes.clear();
+    }
+
+    /** Records an event type that still has a listener outside the ring — those events are forwarded to Spring too. */
+    public void registerSpringListener(Class<?> eventType) {
+        springListenerTypes.add(eventType);
+        routes.clear();
+    }
+
+    @Override
+    public void publish(Object event) {
+        Route route = routeOf(event);
+        if (route.ring()) {
+            ensureRunning();
+        }
+        if (route.spring()) {
+            fallback.publishEvent(event);
+        }
+        if (!route.ring()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (running) {
+                        append(event);
+                    } else {
+                        dropCommitted(List.of(event));
+                    }
+                }
+            });
+        } else {
+            append(event);
+        }
+    }
+
+    /**
+     * One claim for the whole list — a single getAndAdd on the cursor instead of one per
+     * event, and (inside a transaction) one after-commit callback instead of one per event.
+     */
+    @Override
+    public void publishAll(List<?> events) {
+        List<Route> eventRoutes = new ArrayList<>(events.size());
+        for (Object event : events) {
+            eventRoutes.add(routeOf(event));
+        }
+        if (eventRoutes.stream().anyMatch(Route::ring)) {
+            ensureRunning();
+        }
+        List<Object> toRing = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            if (eventRoutes.get(i).spring()) {
+                fallback.publishEvent(events.get(i));
+            }
+            if (eventRoutes.get(i).ring()) {
+                toRing.add(events.get(i));
+            }
+        }
+        if (toRing.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (running) {
+                        appendAll(toRing);
+                    } else {
+                        dropCommitted(toRing);
+                    }
+                }
+            });
+        } else {
+            appendAll(toRing);
+        }
+    }
+
+    private Route routeOf(Object event) {
+        Route route = routes.get(event.getClass());
+        if (route == null) {
+            route = routes.computeIfAbsent(event.getClass(), this::route);
+        }
+        return route;
+    }
+
+    private Route route(Class<?> eventClass) {
+        boolean ring = stagesByName.values().stream().anyMatch(s -> s.eventType.isAssignableFrom(eventClass));
+        boolean spring = !ring || springListenerTypes.stream().anyMatch(t -> t.isAssignableFrom(eventClass));
+        return new Route(ring, spring);
+    }
+
+    // Before the transaction commits, so a refused event takes its order down with it
+    private void ensureRunning() {
+        if (!running) {
+            throw new IllegalStateException("Ring buffer event bus is not running");
+        }
+    }
+
+    // The bus stopped between publish and commit — the order is stored, so the caller must not fail
+    private void dropCommitted(List<?> events) {
+        log.error("[RING] Stopped before commit — {} committed event(s) not delivered to ring stages: {}",
+                events.size(), events);
+    }
+
+    private void append(Object event) {
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - size;
+        while (wrapPoint > slowestStage()) {
+            // Ring full — wait for the slowest stage to free the slot
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        int slot = (int) sequence & mask;
+        entries[slot] = event;
+        failed.setPlain(slot, 0);       // every stage is done with the previous lap; published.set orders it
+        published.set(slot, (int) (sequence >>> roundShift));
+        wakeSleepers();
+    }
+
+    private void appendAll(List<Object> events) {
+        // At most one lap per claim, or the claim could never fit behind the slowest stage
+        for (int from = 0; from < events.size(); from += size) {
+            int  count = Math.min(size, events.size() - from);
+            long last  = cursor.addAndGet(count);
+            long first = last - count + 1;
+            while (last - size > slowestStage()) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            for (int i = 0; i < count; i++) {
+                long sequence = first + i;
+                int  slot     = (int) sequence & mask;
+                entries[slot] = events.get(from + i);
+                failed.setPlain(slot, 0);
+                published.set(slot, (int) (sequence >>> roundShift));
+            }
+            wakeSleepers();
+        }
+    }
+
+    // ── consumer side ──────────────────────────────────────────────────────────
+
+    private void consume(Stage stage) {
+        int  at   = base(stage.index);
+        long next = sequences.get(at) + 1;
+        int  idle = 0;
+        // After stop(), keep going until everything already claimed has been handled
+        while (running || next <= cursor.get()) {
+            long available = availableFor(stage, next);
+            if (available < next) {
+                idle = idle(stage, next, idle);
+                continue;
+            }
+            idle = 0;
+            for (; next <= available; next++) {
+                int slot = (int) next & mask;
+                Object event = entries[slot];
+                if (stage.eventType.isInstance(event)) {
+                    handle(stage, slot, event);
+                }
+            }
+            sequences.set(at, available);
+            wakeSleepers();
+        }
+    }
+
+    private long availableFor(Stage stage, long next) {
+        if (stage.dependencies.length == 0) {
+            long highest = next - 1;
+            long claimed = cursor.get();
+            while (highest < claimed && isPublished(highest + 1)) {
+                highest++;
+            }
+            return highest;
+        }
+        long min = Long.MAX_VALUE;
+        for (int dependency : stage.dependencies) {
+            min = Math.min(min, sequences.get(base(dependency)));
+        }
+        return min;
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == (int) (sequence >>> roundShift);
+    }
+
+    private void handle(Stage stage, int slot, Object event) {
+        // The upstream stage's sequence.set happened before we read it, so its mark is visible
+        if ((failed.get(slot) & stage.dependencyMask) != 0) {
+            stage.skipped.increment();
+            markFailed(stage, slot);
+            log.warn("[RING] Stage '{}' skipped {} — a stage it runs after failed on it", stage.name, event);
+            return;
+        }
+        try {
+            stage.handler.accept(event);
+        } catch (RuntimeException e) {
+            // Same contract as a failing @EventListener — log it, the stage moves on; its dependents skip the event
+            markFailed(stage, slot);
+            log.error("[RING] Stage '{}' failed on {}", stage.name, event, e);
+        }
+    }
+
+    private void markFailed(Stage stage, int slot) {
+        int bit = 1 << stage.index;
+        failed.getAndUpdate(slot, bits -> bits | bit);
+    }
+
+    private int idle(Stage stage, long next, int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + PARK_TRIES) {
+            LockSupport.parkNanos(PARK_NANOS);
+        } else {
+            // Announce first, then re-check — a publisher either sees us sleeping or we see its event
+            stage.sleeping = true;
+            sleepers.incrementAndGet();
+            try {
+                if (running && availableFor(stage, next) < next) {
+                    LockSupport.parkNanos(this, SLEEP_NANOS);
+                }
+            } finally {
+                stage.sleeping = false;
+                sleepers.decrementAndGet();
+            }
+        }
+        return idle + 1;
+    }
+
+    // One volatile read on the hot path while every stage is busy
+    private void wakeSleepers() {
+        if (sleepers.get() > 0) {
+            for (Stage stage : stages) {
+                if (stage.sleeping) {
+                    LockSupport.unpark(stage.thread);
+                }
+            }
+        }
+    }
+
+    private long slowestStage() {
+        long min = cursor.get();
+        for (Stage stage : stages) {
+            min = Math.min(min, sequences.get(base(stage.index)));
+        }
+        return min;
+    }
+
+    // ── lifecycle ──────────────────────────────────────────────────────────────
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (stagesByName.size() > Integer.SIZE) {
+            throw new IllegalStateException("Ring buffer bus supports at most " + Integer.SIZE + " stages");
+        }
+        stages = topologicalOrder();
+        sequences = new AtomicLongArray((stages.length + 1) * PAD);
+        for (Stage stage : stages) {
+            sequences.set(base(stage.index), cursor.get());
+        }
+        running = true;
+        for (Stage stage : stages) {
+            stage.thread = new Thread(() -> consume(stage), "ring-" + stage.name);
+            stage.thread.setDaemon(true);
+            stage.thread.start();
+        }
+        log.info("[RING] Event bus started — {} slots, stages {}", size,
+                Arrays.stream(stages).map(Stage::describe).toList());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Stage stage : stages) {
+            LockSupport.unpark(stage.thread);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Stage stage : stages) {
+            try {
+                stage.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (stage.thread.isAlive()) {
+                log.warn("[RING] Stage '{}' still draining after {} ms — {} events not handled",
+                        stage.name, shutdownTimeoutMs, cursor.get() - sequences.get(base(stage.index)));
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ── introspection (metrics) ────────────────────────────────────────────────
+
+    public int size() {
+        return size;
+    }
+
+    /** Free slots right now — 0 means publishers are waiting. */
+    public long remainingCapacity() {
+        return size - (cursor.get() - slowestStage());
+    }
+
+    public List<String> stageNames() {
+        return Arrays.stream(stages).map(s -> s.name).toList();
+    }
+
+    /** Events published but not yet handled by the given stage. */
+    public long lag(String stage) {
+        Stage s = stagesByName.get(stage);
+        return s == null || !running ? 0 : cursor.get() - sequences.get(base(s.index));
+    }
+
+    /** Events the given stage skipped because a stage it runs after failed on them. */
+    public long skipped(String stage) {
+        Stage s = stagesByName.get(stage);
+        return s == null ? 0 : s.skipped.sum();
+    }
+
+    // ── graph ──────────────────────────────────────────────────────────────────
+
+    private Stage[] topologicalOrder() {
+        List<Stage> order = new ArrayList<>();
+        Map<String, Boolean> visiting = new HashMap<>();
+        for (Stage stage : stagesByName.values()) {
+            visit(stage, visiting, order);
+        }
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).index = i;
+        }
+        for (Stage stage : order) {
+            stage.dependencies = Arrays.stream(stage.after).mapToInt(d -> stagesByName.get(d).index).toArray();
+            for (int dependency : stage.dependencies) {
+                stage.dependencyMask |= 1 << dependency;
+            }
+        }
+        return order.toArray(Stage[]::new);
+    }
+
+    private void visit(Stage stage, Map<String, Boolean> visiting, List<Stage> order) {
+        Boolean state = visiting.get(stage.name);
+        if (Boolean.FALSE.equals(state)) {
+            return;                        // already placed
+        }
+        if (Boolean.TRUE.equals(state)) {
+            throw new IllegalStateException("Ring buffer stages form a cycle through '" + stage.name + "'");
+        }
+        visiting.put(stage.name, true);
+        for (String dependency : stage.after) {
+            Stage upstream = stagesByName.get(dependency);
+            if (upstream == null) {
+                throw new IllegalStateException("Ring buffer stage '" + stage.name + "' runs after unknown stage '" + dependency + "'");
+            }
+            visit(upstream, visiting, order);
+        }
+        visiting.put(stage.name, false);
+        order.add(stage);
+    }
+
+    private static int base(int stage) {
+        return (stage + 1) * PAD;
+    }
+
+    private record Route(boolean ring, boolean spring) {}
+
+    private static final class Stage {
+
+        final String name;
+        final Class<?> eventType;
+        final Consumer<Object> handler;
+        final String[] after;
+        int index;
+        int[] dependencies;
+        int dependencyMask;
+        Thread thread;
+        volatile boolean sleeping;
+        final LongAdder skipped = new LongAdder();
+
+        Stage(String name, Class<?> eventType, Consumer<Object> handler, String[] after) {
+            this.name      = name;
+            this.eventType = eventType;
+            this.handler   = handler;
+            this.after     = after;
+        }
+
+        String describe() {
+            return after.length == 0 ? name : name + " after " + String.join(",", after);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts an existing {@code @EventListener} / {@code @TransactionalEventListener} method into
+ * the ring-buffer bus. With {@code observer.bus.type=RING_BUFFER} the method is served by
+ * its own consumer stage instead of Spring's multicaster; otherwise this annotation is inert.
+ *
+ * <pre>
+ * &#64;RingBufferListener(value = "email", after = "inventory")
+ * &#64;EventListener
+ * public void onOrderPlaced(OrderPlacedEvent event) { ... }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RingBufferListener {
+
+    /** Stage name — what other stages list in {@link #after()}. */
+    String value();
+
+    /** Stages that must have handled an event before this stage sees it. Empty = runs in parallel with the others. */
+    String[] after() default {};
+}
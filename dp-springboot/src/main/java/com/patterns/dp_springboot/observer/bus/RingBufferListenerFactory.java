@@ -0,0 +1,114 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.EventListenerFactory;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Hooks {@link RingBufferListener} into Spring's own {@code @EventListener} discovery.
+ *
+ * Spring asks every EventListenerFactory, in order, whether it handles a listener method.
+ * This one is asked first (before the transactional and default factories):
+ *  - {@code @RingBufferListener} methods become ring stages, and Spring gets back a listener
+ *    that matches nothing — so the method is never also invoked by the multicaster.
+ *  - every other method is left to Spring, and its event type is recorded so the bus keeps
+ *    forwarding those events.
+ *
+ * Stages call the bean through a MethodHandle resolved once, not reflective invoke per event.
+ */
+class RingBufferListenerFactory implements EventListenerFactory, Ordered {
+
+    private final ObjectProvider<RingBufferEventBus> bus;
+    private final BeanFactory beanFactory;
+
+    RingBufferListenerFactory(ObjectProvider<RingBufferEventBus> bus, BeanFactory beanFactory) {
+        this.bus = bus;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;   // TransactionalEventListenerFactory is 50, DefaultEventListenerFactory LOWEST_PRECEDENCE
+    }
+
+    @Override
+    public boolean supportsMethod(Method method) {
+        if (method.isAnnotationPresent(RingBufferListener.class)) {
+            return true;
+        }
+        for (Class<?> eventType : declaredEventTypes(method)) {
+            bus.getObject().registerSpringListener(eventType);
+        }
+        return false;
+    }
+
+    @Override
+    public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
+        RingBufferListener stage = method.getAnnotation(RingBufferListener.class);
+        MethodHandle handle = handleFor(beanFactory.getBean(beanName), method);
+        bus.getObject().subscribe(stage.value(), eventType(method), event -> {
+            try {
+                handle.invokeExact(event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }, stage.after());
+        return new ClaimedByRingBuffer();
+    }
+
+    private static MethodHandle handleFor(Object bean, Method method) {
+        Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+        try {
+            invocable.setAccessible(true);
+            return MethodHandles.lookup().unreflect(invocable)
+                    .bindTo(bean)
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access ring buffer listener " + method, e);
+        }
+    }
+
+    private static Class<?> eventType(Method method) {
+        Class<?>[] types = declaredEventTypes(method);
+        if (types.length != 1 || method.getParameterCount() != 1) {
+            throw new IllegalStateException("Ring buffer listener must handle exactly one event type as its only parameter: " + method);
+        }
+        return types[0];
+    }
+
+    private static Class<?>[] declaredEventTypes(Method method) {
+        EventListener listener = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+        if (listener != null && listener.classes().length > 0) {
+            return listener.classes();
+        }
+        return method.getParameterTypes();
+    }
+
+    // Registered with Spring in place of the method — supports no event type, so it is never called
+    private static final class ClaimedByRingBuffer implements GenericApplicationListener {
+
+        @Override
+        public boolean supportsEventType(ResolvableType eventType) {
+            return false;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * observer.bus.ring.remaining        free slots — 0 means publishers are blocked on the slowest stage
+ * observer.bus.ring.size             configured slot count
+ * observer.bus.ring.lag{stage}       events published but not yet handled by that stage
+ * observer.bus.ring.skipped{stage}   events that stage skipped because an upstream stage failed on them
+ */
+@RequiredArgsConstructor
+public class RingBufferMetrics {
+
+    private final RingBufferEventBus bus;
+    private final MeterRegistry registry;
+
+    // Stages are known only once Spring has discovered every listener method — bind after startup
+    @EventListener(ApplicationStartedEvent.class)
+    public void bind() {
+        Gauge.builder("observer.bus.ring.remaining", bus, RingBufferEventBus::remainingCapacity)
+                .register(registry);
+        Gauge.builder("observer.bus.ring.size", bus, RingBufferEventBus::size)
+                .register(registry);
+        for (String stage : bus.stageNames()) {
+            Gauge.builder("observer.bus.ring.lag", bus, b -> b.lag(stage))
+                    .tag("stage", stage)
+                    .register(registry);
+            FunctionCounter.builder("observer.bus.ring.skipped", bus, b -> b.skipped(stage))
+                    .tag("stage", stage)
+                    .register(registry);
+        }
+    }
+}
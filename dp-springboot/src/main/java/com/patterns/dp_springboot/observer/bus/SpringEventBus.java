@@ -0,0 +1,19 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "observer.bus.type", havingValue = "SPRING", matchIfMissing = true)
+public class SpringEventBus implements EventBus {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(Object event) {
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -1,7 +1,11 @@
 package com.patterns.dp_springboot.observer.controller;
 
+import com.patterns.dp_springboot.observer.dto.OrderBatchRequest;
+import com.patterns.dp_springboot.observer.dto.OrderBatchResponse;
 import com.patterns.dp_springboot.observer.dto.OrderRequest;
 import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.idempotency.IdempotencyIndex;
+import com.patterns.dp_springboot.observer.service.OrderQueryService;
 import com.patterns.dp_springboot.observer.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,10 +19,34 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final IdempotencyIndex idempotencyIndex;
 
+    // Served from the in-process cache (see OrderQueryService); falls through to the DB on a miss
+    @GetMapping("/{orderId}")
+    public OrderResponse get(@PathVariable String orderId) {
+        return orderQueryService.find(orderId);
+    }
+
+    // With an Idempotency-Key, retries replay the first response instead of placing a second order
     @PostMapping
-    public ResponseEntity<OrderResponse> place(@Valid @RequestBody OrderRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.place(request));
+    public ResponseEntity<OrderResponse> place(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.place(request));
+        }
+        IdempotencyIndex.Outcome outcome = idempotencyIndex.place(idempotencyKey, request, () -> orderService.place(request));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.response());
+    }
+
+    // Per-item results: 201 when every order was placed, 207 when some were rejected or failed
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponse> placeBatch(@Valid @RequestBody OrderBatchRequest request) {
+        OrderBatchResponse response = orderService.placeBatch(request.orders());
+        return ResponseEntity.status(response.allPlaced() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(response);
     }
 
     @DeleteMapping("/{orderId}")
@@ -0,0 +1,68 @@
+package com.patterns.dp_springboot.observer.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The id is a Snowflake ID assigned before the INSERT — no sequence or identity round trip,
+ * and primary keys arrive in time order, so inserts append to the end of the PK index.
+ *
+ * Persistable: with an assigned id, Spring Data can't tell new from detached and would
+ * merge() — one SELECT per entity, which also defeats JDBC batching. isNew() is true until
+ * the entity has been persisted or loaded, so save()/saveAll() go straight to persist().
+ */
+@Entity
+@Table(name = "orders")
+@Getter
+@NoArgsConstructor
+public class Order implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String customerId;
+
+    @Column(nullable = false, length = 128)
+    private String product;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private long createdAtMs;
+
+    @Transient
+    private boolean isNew = true;
+
+    public Order(long id, String customerId, String product, int quantity, String status, long createdAtMs) {
+        this.id          = id;
+        this.customerId  = customerId;
+        this.product     = product;
+        this.quantity    = quantity;
+        this.status      = status;
+        this.createdAtMs = createdAtMs;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.patterns.dp_springboot.observer.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * An outbox event the relay gave up on — a payload that no longer decodes, or one the
+ * consumers rejected {@code max-attempts} times. Moved here so the events behind it keep
+ * flowing; replay it by inserting the row back into order_outbox with attempts = 0.
+ */
+@Entity
+@Table(name = "order_outbox_dead_letter")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDeadLetter {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private long createdAtMs;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false, length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private long deadAtMs;
+}
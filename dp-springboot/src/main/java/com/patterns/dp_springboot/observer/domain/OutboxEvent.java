@@ -0,0 +1,40 @@
+package com.patterns.dp_springboot.observer.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One undelivered order event. Written in the same transaction as the order change itself,
+ * deleted by the relay once every outbox consumer has handled it.
+ *
+ * The id is a Snowflake ID — time-ordered, so {@code order by id} is publish order.
+ * {@code attempts} counts deliveries that rolled back; see OutboxRelay for what happens
+ * when it reaches {@code max-attempts}.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private long createdAtMs;
+
+    @Column(nullable = false)
+    private int attempts;
+}
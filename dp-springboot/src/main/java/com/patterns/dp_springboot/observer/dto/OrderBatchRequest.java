@@ -0,0 +1,14 @@
+package com.patterns.dp_springboot.observer.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Items are deliberately NOT @Valid here — each one is validated on its own by
+// OrderService.placeBatch, so one bad item is reported instead of failing the whole batch
+public record OrderBatchRequest(
+        @NotEmpty @Size(max = OrderBatchRequest.MAX_ORDERS) List<OrderRequest> orders
+) {
+    public static final int MAX_ORDERS = 10_000;
+}
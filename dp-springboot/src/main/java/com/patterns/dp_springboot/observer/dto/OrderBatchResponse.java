@@ -0,0 +1,14 @@
+package com.patterns.dp_springboot.observer.dto;
+
+import java.util.List;
+
+public record OrderBatchResponse(
+        int placed,
+        int rejected,
+        int failed,
+        List<OrderItemResult> results
+) {
+    public boolean allPlaced() {
+        return rejected == 0 && failed == 0;
+    }
+}
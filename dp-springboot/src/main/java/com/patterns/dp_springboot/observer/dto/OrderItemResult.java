@@ -0,0 +1,34 @@
+package com.patterns.dp_springboot.observer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one entry of a batch, at the same {@code index} as in the request.
+ *
+ *  PLACED    persisted, events published — {@code order} is set
+ *  REJECTED  failed validation, nothing written — {@code errors} says why
+ *  FAILED    valid, but its chunk's transaction rolled back — safe to resend
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderItemResult(
+        int index,
+        Status status,
+        OrderResponse order,
+        List<String> errors
+) {
+    public enum Status { PLACED, REJECTED, FAILED }
+
+    public static OrderItemResult placed(int index, OrderResponse order) {
+        return new OrderItemResult(index, Status.PLACED, order, null);
+    }
+
+    public static OrderItemResult rejected(int index, List<String> errors) {
+        return new OrderItemResult(index, Status.REJECTED, null, errors);
+    }
+
+    public static OrderItemResult failed(int index, String error) {
+        return new OrderItemResult(index, Status.FAILED, null, List.of(error));
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.observer.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with Idempotency-Key '" + key + "' is still being processed; retry later");
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.observer.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(String orderId) {
+        super("Order not found: " + orderId);
+    }
+}
@@ -0,0 +1,142 @@
+package com.patterns.dp_springboot.observer.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.exception.IdempotencyKeyInProgressException;
+import com.patterns.dp_springboot.observer.exception.IdempotencyKeyReusedException;
+import com.patterns.dp_springboot.observer.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Dedup index for {@code Idempotency-Key} on order placement.
+ *
+ * One entry per key: the request it was first used with and a future for its result. The
+ * first caller inserts the entry with putIfAbsent and places the order; everyone else
+ * with the same key finds the entry and
+ *
+ *  - future already done → replays the stored response (no new order, no new events)
+ *  - future still running → waits on it, coalescing onto the in-flight placement
+ *  - different request body → 422, the key belongs to another order
+ *
+ * A failed placement removes its entry, so the client's retry executes again. Completed
+ * entries are bounded by {@code max-keys} and expire {@code ttl-ms} after the placement
+ * finished (Caffeine). In-flight entries weigh 0, so size eviction never drops a key while
+ * its placement is running — that would let a retry place the order twice.
+ */
+@Component
+public class IdempotencyIndex {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    // Held strongly: CaffeineCacheMetrics only keeps a weak reference for its gauges
+    private final Cache<String, Entry> cache;
+    private final ConcurrentMap<String, Entry> entries;
+    private final long waitTimeoutMs;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter coalesced;
+    private final Counter mismatched;
+
+    public IdempotencyIndex(
+            @Value("${observer.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${observer.idempotency.ttl-ms:86400000}") long ttlMs,
+            @Value("${observer.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+            MeterRegistry registry) {
+        if (maxKeys <= 0 || ttlMs <= 0 || waitTimeoutMs <= 0) {
+            throw new IllegalArgumentException("observer.idempotency.max-keys, ttl-ms and wait-timeout-ms must be positive");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxKeys)
+                .weigher((String key, Entry entry) -> entry.result().isDone() ? 1 : 0)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency-keys");
+        this.entries       = cache.asMap();
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.executed   = outcome(registry, "executed");
+        this.replayed   = outcome(registry, "replayed");
+        this.coalesced  = outcome(registry, "coalesced");
+        this.mismatched = outcome(registry, "mismatched");
+    }
+
+    /**
+     * Runs {@code placement} once per key; repeats get the first result back.
+     */
+    public Outcome place(String key, OrderRequest request, Supplier<OrderResponse> placement) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        Entry mine = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.putIfAbsent(key, mine);
+        if (existing != null) {
+            return join(key, request, existing);
+        }
+
+        executed.increment();
+        try {
+            OrderResponse response = placement.get();
+            mine.result().complete(response);
+            // Re-insert so Caffeine weighs the entry again — it now counts towards max-keys
+            entries.replace(key, mine, mine);
+            return new Outcome(response, false);
+        } catch (Throwable e) {
+            // Nothing was committed — forget the key so a retry runs again. Errors too, or
+            // every request coalesced onto this one would wait out the timeout.
+            entries.remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Outcome join(String key, OrderRequest request, Entry existing) {
+        if (!existing.request().equals(request)) {
+            mismatched.increment();
+            throw new IdempotencyKeyReusedException(key);
+        }
+        (existing.result().isDone() ? replayed : coalesced).increment();
+        try {
+            return new Outcome(existing.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS), true);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException e) {
+            // The placement we coalesced onto failed — report the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("observer.idempotency.requests")
+                .description("Order placements carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** {@code replayed} is true when the response came from an earlier request with the same key. */
+    public record Outcome(OrderResponse response, boolean replayed) {}
+
+    private record Entry(OrderRequest request, CompletableFuture<OrderResponse> result) {}
+}
@@ -1,27 +1,88 @@
 package com.patterns.dp_springboot.observer.listener;
 
+import com.patterns.dp_springboot.config.AsyncConfig;
+import com.patterns.dp_springboot.observer.batch.MicroBatcher;
+import com.patterns.dp_springboot.observer.batch.MicroBatcherFactory;
+import com.patterns.dp_springboot.observer.bus.RingBufferListener;
 import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
 import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.observer.outbox.OutboxConsumer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 @Slf4j
 @Component
-public class AuditListener {
+public class AuditListener implements OutboxConsumer {
+
+    private final MicroBatcher<OrderPlacedEvent> placedBatcher;
+    private final boolean outbox;
+
+    public AuditListener(MicroBatcherFactory batchers,
+                         @Qualifier(AsyncConfig.AUDIT_LISTENER_EXECUTOR) Executor executor,
+                         @Value("${observer.outbox.enabled:false}") boolean outbox) {
+        this.placedBatcher = batchers.create("audit", executor, this::onOrdersPlaced);
+        this.outbox = outbox;
+    }
 
     // TransactionalEventListener — fires only AFTER the transaction commits.
     // Use when the side effect must not run if the order creation rolls back.
     // e.g. writing to an audit log, sending to a message broker.
+    // The event is buffered here, after commit — a rolled-back order never enters a batch.
+    // On the ring-buffer bus it is a stage parallel to inventory (the bus publishes after commit).
+    @RingBufferListener("audit")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onOrderPlaced(OrderPlacedEvent event) {
-        // Real impl: auditRepository.save(new AuditEntry(event))
-        log.info("[AUDIT] Order {} placed by customer {} — persisted to audit log", event.orderId(), event.customerId());
+        if (outbox) {
+            return;     // delivered durably by the outbox relay instead
+        }
+        placedBatcher.add(event);
+    }
+
+    void onOrdersPlaced(List<OrderPlacedEvent> events) {
+        // Real impl: auditRepository.saveAll(events.stream().map(AuditEntry::new).toList()) — one batched insert
+        log.info("[AUDIT] {} orders placed — persisted to audit log in one batch: {}",
+                events.size(), events.stream().map(OrderPlacedEvent::orderId).toList());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onOrderDeleted(OrderDeletedEvent event) {
+        if (!outbox) {
+            auditDeleted(event);
+        }
+    }
+
+    // Outbox mode — every event survived the commit as an order_outbox row; a crash before
+    // this point means the relay delivers it again after restart
+    @Override
+    public void consume(List<Object> events) {
+        // Runs of placed orders are written as one batch; a deletion flushes the run first so the
+        // audit log keeps publish order
+        List<OrderPlacedEvent> placed = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof OrderPlacedEvent p) {
+                placed.add(p);
+            } else if (event instanceof OrderDeletedEvent d) {
+                if (!placed.isEmpty()) {
+                    onOrdersPlaced(placed);
+                    placed = new ArrayList<>();
+                }
+                auditDeleted(d);
+            }
+        }
+        if (!placed.isEmpty()) {
+            onOrdersPlaced(placed);
+        }
+    }
+
+    private void auditDeleted(OrderDeletedEvent event) {
         // Real impl: auditRepository.save(new AuditEntry(event))
         log.info("[AUDIT] Order {} deleted by {} — persisted to audit log", event.orderId(), event.deletedBy());
     }
@@ -1,21 +1,61 @@
 package com.patterns.dp_springboot.observer.listener;
 
+import com.patterns.dp_springboot.config.AsyncConfig;
+import com.patterns.dp_springboot.observer.batch.MicroBatcher;
+import com.patterns.dp_springboot.observer.batch.MicroBatcherFactory;
+import com.patterns.dp_springboot.observer.bus.RingBufferListener;
 import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.observer.outbox.OutboxConsumer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 @Slf4j
 @Component
-public class EmailListener {
+public class EmailListener implements OutboxConsumer {
+
+    private final MicroBatcher<OrderPlacedEvent> batcher;
+    private final boolean outbox;
+
+    public EmailListener(MicroBatcherFactory batchers,
+                         @Qualifier(AsyncConfig.EMAIL_LISTENER_EXECUTOR) Executor executor,
+                         @Value("${observer.outbox.enabled:false}") boolean outbox) {
+        this.batcher = batchers.create("email", executor, this::onOrdersPlaced);
+        this.outbox = outbox;
+    }
 
-    // Async — runs in a separate thread from the task executor.
-    // Use when the operation is slow (SMTP call) and should not block the HTTP response.
-    @Async
+    // Async via batching — the publisher only appends to a buffer; the slow part (SMTP)
+    // runs later on the bounded email executor, one session per batch instead of per order.
+    // On the ring-buffer bus this stage runs after inventory and skips any order whose
+    // reservation threw, so no confirmation goes out for stock that was never reserved.
+    @RingBufferListener(value = "email", after = "inventory")
     @EventListener
     public void onOrderPlaced(OrderPlacedEvent event) {
-        // Real impl: mailSender.send(confirmationEmail(event))
-        log.info("[EMAIL] Sending confirmation to customer {} for order {}", event.customerId(), event.orderId());
+        if (outbox) {
+            return;     // delivered durably by the outbox relay instead
+        }
+        batcher.add(event);
+    }
+
+    @Override
+    public void consume(List<Object> events) {
+        List<OrderPlacedEvent> placed = events.stream()
+                .filter(OrderPlacedEvent.class::isInstance)
+                .map(OrderPlacedEvent.class::cast)
+                .toList();
+        if (!placed.isEmpty()) {
+            onOrdersPlaced(placed);
+        }
+    }
+
+    void onOrdersPlaced(List<OrderPlacedEvent> events) {
+        // Real impl: one SMTP connection, mailSender.send(events.stream().map(this::confirmationEmail)...)
+        log.info("[EMAIL] Sending {} confirmations in one SMTP session — orders {}",
+                events.size(), events.stream().map(OrderPlacedEvent::orderId).toList());
     }
 }
@@ -1,5 +1,6 @@
 package com.patterns.dp_springboot.observer.listener;
 
+import com.patterns.dp_springboot.observer.bus.RingBufferListener;
 import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -11,6 +12,8 @@ public class InventoryListener {
 
     // Synchronous — runs in the same thread as the publisher, within the same transaction.
     // Use when the operation must succeed or fail together with order creation.
+    // On the ring-buffer bus it is the first stage and runs after commit instead.
+    @RingBufferListener("inventory")
     @EventListener
     public void onOrderPlaced(OrderPlacedEvent event) {
         // Real impl: inventoryService.reserve(event.product(), event.quantity())
@@ -0,0 +1,44 @@
+package com.patterns.dp_springboot.observer.listener;
+
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.observer.service.OrderQueryService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Keeps the order cache in step with writes — one more listener, OrderService untouched.
+ *
+ * AFTER_COMMIT for both: a rolled-back order is never cached, and a deleted order is
+ * evicted only once the delete is visible to the read-through load. A read that loaded
+ * the row just before the delete committed can still re-cache it after the eviction;
+ * expireAfterWrite bounds how long that stale entry lives.
+ */
+@Component
+public class OrderCacheListener {
+
+    private static final String PLACED = "PLACED";
+
+    private final Cache orders;
+
+    public OrderCacheListener(CacheManager cacheManager) {
+        this.orders = Objects.requireNonNull(cacheManager.getCache(OrderQueryService.ORDERS_CACHE),
+                "cache '" + OrderQueryService.ORDERS_CACHE + "' is not configured (spring.cache.cache-names)");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        orders.put(event.orderId(), new OrderResponse(event.orderId(), event.customerId(), event.product(), event.quantity(), PLACED));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        orders.evict(event.orderId());
+    }
+}
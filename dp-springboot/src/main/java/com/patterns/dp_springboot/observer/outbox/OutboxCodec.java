@@ -0,0 +1,57 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patterns.dp_springboot.observer.domain.OutboxEvent;
+import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Event ⇄ JSON. The stored type is a short name from a fixed table, never a class name
+ * read back from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "observer.outbox.enabled", havingValue = "true")
+public class OutboxCodec {
+
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "OrderPlaced", OrderPlacedEvent.class,
+            "OrderDeleted", OrderDeletedEvent.class
+    );
+
+    private final ObjectMapper objectMapper;
+
+    public String typeOf(Object event) {
+        return TYPES.entrySet().stream()
+                .filter(e -> e.getValue() == event.getClass())
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Not an outbox event type: " + event.getClass().getName()));
+    }
+
+    public String encode(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    public Object decode(OutboxEvent row) {
+        Class<?> type = TYPES.get(row.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown outbox event type '" + row.getEventType() + "' in row " + row.getId());
+        }
+        try {
+            return objectMapper.readValue(row.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload in row " + row.getId(), e);
+        }
+    }
+}
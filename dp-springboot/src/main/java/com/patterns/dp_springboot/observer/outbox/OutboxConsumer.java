@@ -0,0 +1,16 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import java.util.List;
+
+/**
+ * A listener whose side effect must survive a crash. With {@code observer.outbox.enabled=true}
+ * it receives its events from the outbox relay instead of the in-memory publisher.
+ *
+ * Delivery is at-least-once: an exception rolls the whole relay batch back and every
+ * consumer sees it again, so handling must be idempotent (e.g. keyed by order id).
+ */
+public interface OutboxConsumer {
+
+    /** Events in publish order; skip the types this consumer doesn't handle. */
+    void consume(List<Object> events);
+}
@@ -0,0 +1,254 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import com.patterns.dp_springboot.observer.domain.OutboxEvent;
+import com.patterns.dp_springboot.observer.repository.OutboxDeadLetterRepository;
+import com.patterns.dp_springboot.observer.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox into the {@link OutboxConsumer}s.
+ *
+ * Each worker loops over one transaction per batch:
+ *
+ *  SELECT ... ORDER BY id FETCH FIRST n ROWS FOR UPDATE SKIP LOCKED   claim
+ *  consumer.consume(events) for every consumer                        deliver
+ *  DELETE WHERE id IN (...)                                           ack
+ *  COMMIT
+ *
+ * SKIP LOCKED lets several workers (on this node or others) drain the same table
+ * without coordination: each claims the oldest rows nobody else holds. A failed delivery
+ * rolls back, the locks are released and the rows are picked up again — at-least-once.
+ *
+ * Poison rows. Claiming is by id, so a row that always fails would be claimed first again
+ * and again and hold up everything behind it. After a rollback the claimed rows' attempts
+ * are incremented in a separate transaction. A row that has failed before is delivered on
+ * its own, so the rows around it go through and only the culprit keeps failing. Once it
+ * reaches {@code max-attempts} it is moved to order_outbox_dead_letter. A payload that no
+ * longer decodes is moved there straight away. Failed batches back off exponentially from
+ * {@code poll-ms}, so {@code max-attempts} also spans a short consumer outage.
+ *
+ * A full batch is followed immediately by the next one; a short batch means the table is
+ * drained, and the worker sleeps {@code observer.outbox.relay.poll-ms}.
+ *
+ * Metrics:
+ *  observer.outbox.relayed        events delivered and deleted
+ *  observer.outbox.failures       batches rolled back
+ *  observer.outbox.dead-lettered  rows moved to the dead-letter table
+ *  observer.outbox.batch.size     events per claimed batch
+ *  observer.outbox.lag            written → delivered, per event
+ *  observer.outbox.pending        rows still in the table
+ *  observer.outbox.oldest.age     age (ms) of the oldest undelivered row
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "observer.outbox.enabled", havingValue = "true")
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final long MAX_FAILURE_BACKOFF_MS = 30_000L;
+    private static final int  MAX_ERROR_LENGTH       = 1000;
+
+    private final OutboxEventRepository repository;
+    private final OutboxDeadLetterRepository deadLetters;
+    private final OutboxCodec codec;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final long pollMs;
+    private final int maxAttempts;
+
+    private final Counter relayed;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       OutboxDeadLetterRepository deadLetters,
+                       OutboxCodec codec,
+                       List<OutboxConsumer> consumers,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${observer.outbox.relay.workers:2}") int workers,
+                       @Value("${observer.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${observer.outbox.relay.poll-ms:100}") long pollMs,
+                       @Value("${observer.outbox.relay.max-attempts:10}") int maxAttempts) {
+        if (workers < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("observer.outbox.relay.workers, batch-size and max-attempts must be >= 1");
+        }
+        this.repository          = repository;
+        this.deadLetters         = deadLetters;
+        this.codec               = codec;
+        this.consumers           = consumers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers             = workers;
+        this.batchSize           = batchSize;
+        this.pollMs              = pollMs;
+        this.maxAttempts         = maxAttempts;
+
+        this.relayed    = Counter.builder("observer.outbox.relayed").register(meterRegistry);
+        this.failures   = Counter.builder("observer.outbox.failures").register(meterRegistry);
+        this.deadLettered = Counter.builder("observer.outbox.dead-lettered").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("observer.outbox.batch.size").register(meterRegistry);
+        this.lag        = Timer.builder("observer.outbox.lag").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("observer.outbox.pending", repository, OutboxEventRepository::count)
+                .register(meterRegistry);
+        Gauge.builder("observer.outbox.oldest.age", this, OutboxRelay::oldestAgeMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /** Claims, delivers and deletes one batch; returns how many events it relayed. */
+    int relayBatch() {
+        List<Long> delivering = new ArrayList<>();
+        Integer count;
+        try {
+            count = transactionTemplate.execute(status -> {
+                List<OutboxEvent> rows = repository.claimBatch(batchSize);
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                // A row that failed before goes out alone: it can't hold up, or be blamed on, the rest
+                if (rows.get(0).getAttempts() > 0) {
+                    rows = rows.subList(0, 1);
+                }
+                List<OutboxEvent> delivered = new ArrayList<>(rows.size());
+                List<Object> events = new ArrayList<>(rows.size());
+                for (OutboxEvent row : rows) {
+                    if (row.getAttempts() >= maxAttempts) {
+                        deadLetter(row, "Rejected by the outbox consumers " + row.getAttempts() + " times");
+                        continue;
+                    }
+                    Object event;
+                    try {
+                        event = codec.decode(row);
+                    } catch (RuntimeException e) {
+                        deadLetter(row, e.getMessage());
+                        continue;
+                    }
+                    events.add(event);
+                    delivered.add(row);
+                    delivering.add(row.getId());
+                }
+                if (delivered.isEmpty()) {
+                    return 0;
+                }
+                for (OutboxConsumer consumer : consumers) {
+                    consumer.consume(events);
+                }
+                repository.deleteByIds(delivering);
+
+                long now = System.currentTimeMillis();
+                for (OutboxEvent row : delivered) {
+                    lag.record(now - row.getCreatedAtMs(), TimeUnit.MILLISECONDS);
+                }
+                return delivered.size();
+            });
+        } catch (RuntimeException e) {
+            if (!delivering.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> repository.incrementAttempts(delivering));
+            }
+            throw e;
+        }
+        int relayedNow = count == null ? 0 : count;
+        if (relayedNow > 0) {
+            batchSizes.record(relayedNow);
+            relayed.increment(relayedNow);
+        }
+        return relayedNow;
+    }
+
+    // Caller's transaction — the move commits together with the rest of the batch
+    private void deadLetter(OutboxEvent row, String error) {
+        String reason = error == null ? "unknown" : error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        deadLetters.moveFromOutbox(row.getId(), reason, System.currentTimeMillis());
+        repository.deleteByIds(List.of(row.getId()));
+        deadLettered.increment();
+        log.error("[OUTBOX] Row {} ({}) moved to the dead-letter table after {} attempts: {}",
+                row.getId(), row.getEventType(), row.getAttempts(), reason);
+    }
+
+    private void work() {
+        long backoffMs = pollMs;
+        while (running) {
+            int relayedNow;
+            try {
+                relayedNow = relayBatch();
+                backoffMs = pollMs;
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("[OUTBOX] Relay batch failed — rolled back, will retry in {} ms", backoffMs, e);
+                sleep(backoffMs);
+                backoffMs = Math.min(Math.max(1, backoffMs) * 2, MAX_FAILURE_BACKOFF_MS);
+                continue;
+            }
+            if (relayedNow < batchSize) {
+                sleep(pollMs);
+            }
+        }
+    }
+
+    private double oldestAgeMs() {
+        Long oldest = repository.oldestCreatedAtMs();
+        return oldest == null ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "outbox-relay-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        log.info("[OUTBOX] Relay started — {} workers, batch {}, poll {} ms, {} consumers",
+                workers, batchSize, pollMs, consumers.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        // Workers finish the batch in hand; anything not yet claimed stays in the table for next start
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Just another synchronous listener — runs on the publishing thread, inside the
+ * transaction of OrderService.place / delete, so the outbox row commits or rolls back
+ * together with the order. OrderService doesn't know the outbox exists.
+ *
+ * Rows are buffered per transaction and written in beforeCommit as one JDBC batch, so
+ * placeBatch pays a handful of round trips per chunk instead of one INSERT per order.
+ * beforeCommit still runs inside the transaction: a failed write rolls the orders back.
+ *
+ * MANDATORY: an event published outside a transaction fails loudly instead of writing
+ * a row that isn't atomic with anything.
+ */
+@Component
+@ConditionalOnProperty(name = "observer.outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    // Plain INSERT — no entity, no persistence context, nothing for Hibernate to SELECT first
+    static final String INSERT_SQL =
+            "insert into order_outbox (id, event_type, payload, created_at_ms, attempts) values (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxCodec codec;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int jdbcBatchSize;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate,
+                        OutboxCodec codec,
+                        SnowflakeIdGenerator idGenerator,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
+        this.jdbcTemplate  = jdbcTemplate;
+        this.codec         = codec;
+        this.idGenerator   = idGenerator;
+        this.jdbcBatchSize = jdbcBatchSize > 0 ? jdbcBatchSize : 50;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        append(event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        append(event);
+    }
+
+    private void append(Object event) {
+        pendingRows().rows.add(new Object[]{
+                idGenerator.nextId(), codec.typeOf(event), codec.encode(event), System.currentTimeMillis()
+        });
+    }
+
+    // Kept on the synchronization rather than bound as a resource: synchronizations are
+    // suspended with their transaction, so a REQUIRES_NEW inside gets a buffer of its own
+    private PendingRows pendingRows() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRows pending && pending.writer() == this) {
+                return pending;
+            }
+        }
+        PendingRows pending = new PendingRows();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private final class PendingRows implements TransactionSynchronization {
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private OutboxWriter writer() {
+            return OutboxWriter.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, jdbcBatchSize, (ps, row) -> {
+                ps.setLong(1, (Long) row[0]);
+                ps.setString(2, (String) row[1]);
+                ps.setString(3, (String) row[2]);
+                ps.setLong(4, (Long) row[3]);
+            });
+            rows.clear();
+        }
+    }
+}
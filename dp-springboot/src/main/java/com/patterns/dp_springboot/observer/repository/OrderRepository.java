@@ -0,0 +1,15 @@
+package com.patterns.dp_springboot.observer.repository;
+
+import com.patterns.dp_springboot.observer.domain.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // One DELETE — deleteById() would SELECT the entity first just to remove it
+    @Modifying
+    @Query("delete from Order o where o.id = :id")
+    int deleteOrder(@Param("id") long id);
+}
@@ -0,0 +1,17 @@
+package com.patterns.dp_springboot.observer.repository;
+
+import com.patterns.dp_springboot.observer.domain.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+
+    // Copies the outbox row as-is; the caller deletes it from order_outbox in the same transaction
+    @Modifying
+    @Query(value = "insert into order_outbox_dead_letter (id, event_type, payload, created_at_ms, attempts, error, dead_at_ms) "
+                 + "select id, event_type, payload, created_at_ms, attempts, :error, :deadAtMs from order_outbox where id = :id",
+           nativeQuery = true)
+    int moveFromOutbox(@Param("id") long id, @Param("error") String error, @Param("deadAtMs") long deadAtMs);
+}
@@ -0,0 +1,32 @@
+package com.patterns.dp_springboot.observer.repository;
+
+import com.patterns.dp_springboot.observer.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rows are written by OutboxWriter with one JDBC batch per transaction, not through here
+
+    // Row locks held until the relay's transaction ends; rows another relay worker holds are
+    // skipped rather than waited on, so workers never block each other or claim the same row
+    @Query(value = "select * from order_outbox order by id fetch first :limit rows only for update skip locked",
+           nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    // Runs in its own transaction after a relay batch rolled back — the rollback undid everything else
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int incrementAttempts(@Param("ids") List<Long> ids);
+
+    @Query("select min(e.createdAtMs) from OutboxEvent e")
+    Long oldestCreatedAtMs();
+}
@@ -0,0 +1,46 @@
+package com.patterns.dp_springboot.observer.service;
+
+import com.patterns.dp_springboot.observer.domain.Order;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.exception.OrderNotFoundException;
+import com.patterns.dp_springboot.observer.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read side of orders, kept apart from OrderService so the cache proxy wraps only reads.
+ *
+ * Read-through: a miss loads from the database and caches the result. Most entries never
+ * take that path — OrderCacheListener puts every placed order into the cache as it commits,
+ * so a GET right after a POST is already a hit. "Not found" is an exception, never cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderQueryService {
+
+    public static final String ORDERS_CACHE = "orders";
+
+    private final OrderRepository orderRepository;
+
+    @Cacheable(cacheNames = ORDERS_CACHE, key = "#orderId")
+    @Transactional(readOnly = true)
+    public OrderResponse find(String orderId) {
+        return orderRepository.findById(parseId(orderId))
+                .map(OrderQueryService::toResponse)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
+    private static OrderResponse toResponse(Order order) {
+        return new OrderResponse(String.valueOf(order.getId()), order.getCustomerId(), order.getProduct(), order.getQuantity(), order.getStatus());
+    }
+
+    private static long parseId(String orderId) {
+        try {
+            return Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            throw new OrderNotFoundException(orderId);
+        }
+    }
+}
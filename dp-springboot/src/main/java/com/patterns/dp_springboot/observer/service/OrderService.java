@@ -1,37 +1,186 @@
 package com.patterns.dp_springboot.observer.service;
 
+import com.patterns.dp_springboot.observer.bus.EventBus;
+import com.patterns.dp_springboot.observer.domain.Order;
+import com.patterns.dp_springboot.observer.dto.OrderBatchResponse;
+import com.patterns.dp_springboot.observer.dto.OrderItemResult;
 import com.patterns.dp_springboot.observer.dto.OrderRequest;
 import com.patterns.dp_springboot.observer.dto.OrderResponse;
 import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
 import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
-import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
+import com.patterns.dp_springboot.observer.exception.OrderNotFoundException;
+import com.patterns.dp_springboot.observer.repository.OrderRepository;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderService {
 
-    private final ApplicationEventPublisher eventPublisher;
+    private static final String PLACED = "PLACED";
+    private static final int DEFAULT_FLUSH_INTERVAL = 50;
+
+    // SpringEventBus (default) or RingBufferEventBus — see observer.bus.type
+    private final EventBus eventBus;
+    private final OrderRepository orderRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int jdbcBatchSize;
+    private final int chunkSize;
+
+    public OrderService(EventBus eventBus,
+                        OrderRepository orderRepository,
+                        SnowflakeIdGenerator idGenerator,
+                        EntityManager entityManager,
+                        Validator validator,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+                        @Value("${observer.orders.batch-chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("observer.orders.batch-chunk-size must be >= 1, got " + chunkSize);
+        }
+        this.eventBus            = eventBus;
+        this.orderRepository     = orderRepository;
+        this.idGenerator         = idGenerator;
+        this.entityManager       = entityManager;
+        this.validator           = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // batch_size <= 0 turns JDBC batching off; still flush/clear periodically to bound memory
+        this.jdbcBatchSize       = jdbcBatchSize > 0 ? jdbcBatchSize : DEFAULT_FLUSH_INTERVAL;
+        this.chunkSize           = chunkSize;
+    }
 
     @Transactional
     public OrderResponse place(OrderRequest request) {
-        String orderId = UUID.randomUUID().toString();
-
-        // Real impl: orderRepository.save(order)
+        // Snowflake instead of UUID — no DB round trip for the key, and keys are time-ordered
+        Order order = newOrder(idGenerator.nextId(), request);
+        orderRepository.save(order);
 
         // Publish once — all listeners react independently, no coupling between them
-        eventPublisher.publishEvent(new OrderPlacedEvent(orderId, request.customerId(), request.product(), request.quantity()));
+        OrderResponse response = toResponse(order);
+        eventBus.publish(placedEvent(order));
+        return response;
+    }
 
-        return new OrderResponse(orderId, request.customerId(), request.product(), request.quantity(), "PLACED");
+    /**
+     * Bulk placement for bursty upstreams — one call instead of one per order.
+     *
+     *  1. every item is validated on its own; invalid ones are REJECTED, the rest go on
+     *  2. valid items are persisted in chunks of {@code observer.orders.batch-chunk-size},
+     *     one transaction per chunk — a failing chunk rolls back only its own items (FAILED)
+     *  3. per chunk: one reserved Snowflake range, batched INSERTs, then all its events
+     *     published in a single pass — still inside the chunk's transaction, so synchronous
+     *     listeners, the outbox and AFTER_COMMIT listeners behave exactly as for place()
+     *
+     * Results come back in request order, one per item.
+     */
+    public OrderBatchResponse placeBatch(List<OrderRequest> requests) {
+        OrderItemResult[] results = new OrderItemResult[requests.size()];
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = OrderItemResult.rejected(i, errors);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                List<OrderResponse> placed = transactionTemplate.execute(status -> placeChunk(chunk, requests));
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = OrderItemResult.placed(chunk.get(i), placed.get(i));
+                }
+            } catch (RuntimeException e) {
+                log.warn("[ORDERS] Batch chunk of {} orders rolled back: {}", chunk.size(), e.getMessage());
+                for (int index : chunk) {
+                    results[index] = OrderItemResult.failed(index, "Chunk rolled back: " + e.getMessage());
+                }
+            }
+        }
+
+        int placed = 0;
+        int rejected = 0;
+        for (OrderItemResult result : results) {
+            switch (result.status()) {
+                case PLACED -> placed++;
+                case REJECTED -> rejected++;
+                case FAILED -> { }
+            }
+        }
+        return new OrderBatchResponse(placed, rejected, results.length - placed - rejected, Arrays.asList(results));
     }
 
     @Transactional
     public void delete(String orderId, String deletedBy) {
-        // Real impl: orderRepository.deleteById(orderId)
-        eventPublisher.publishEvent(new OrderDeletedEvent(orderId, deletedBy));
+        if (orderRepository.deleteOrder(parseId(orderId)) == 0) {
+            throw new OrderNotFoundException(orderId);
+        }
+        eventBus.publish(new OrderDeletedEvent(orderId, deletedBy));
+    }
+
+    // Runs inside the chunk's transaction
+    private List<OrderResponse> placeChunk(List<Integer> indexes, List<OrderRequest> requests) {
+        long[] ids = idGenerator.reserveRange(indexes.size()).toArray();
+        List<OrderResponse> responses = new ArrayList<>(indexes.size());
+        List<OrderPlacedEvent> events = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            Order order = newOrder(ids[i], requests.get(indexes.get(i)));
+            orderRepository.save(order);
+            responses.add(toResponse(order));
+            events.add(placedEvent(order));
+            // One batched INSERT per flush; clearing keeps the persistence context small
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        eventBus.publishAll(events);
+        return responses;
+    }
+
+    private List<String> validate(OrderRequest request) {
+        if (request == null) {
+            return List.of("order must not be null");
+        }
+        return validator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private Order newOrder(long id, OrderRequest request) {
+        return new Order(id, request.customerId(), request.product(), request.quantity(), PLACED, System.currentTimeMillis());
+    }
+
+    private static OrderPlacedEvent placedEvent(Order order) {
+        return new OrderPlacedEvent(String.valueOf(order.getId()), order.getCustomerId(), order.getProduct(), order.getQuantity());
+    }
+
+    private static OrderResponse toResponse(Order order) {
+        return new OrderResponse(String.valueOf(order.getId()), order.getCustomerId(), order.getProduct(), order.getQuantity(), order.getStatus());
+    }
+
+    private static long parseId(String orderId) {
+        try {
+            return Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            throw new OrderNotFoundException(orderId);
+        }
     }
 }
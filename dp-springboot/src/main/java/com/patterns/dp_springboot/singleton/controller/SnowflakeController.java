@@ -1,19 +1,33 @@
 package com.patterns.dp_springboot.singleton.controller;
 
+import com.patterns.dp_springboot.singleton.dto.IdStreamFormat;
 import com.patterns.dp_springboot.singleton.dto.SnowflakeResponse;
+import com.patterns.dp_springboot.singleton.exception.IdCountLimitExceededException;
 import com.patterns.dp_springboot.singleton.service.SnowflakeService;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.constraints.Positive;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/ids")
-@RequiredArgsConstructor
 public class SnowflakeController {
 
     private final SnowflakeService snowflakeService;
+    private final int maxBatchCount;
+    private final int maxStreamCount;
+
+    public SnowflakeController(SnowflakeService snowflakeService,
+                               @Value("${snowflake.batch.max-count:10000}") int maxBatchCount,
+                               @Value("${snowflake.stream.max-count:10000000}") int maxStreamCount) {
+        this.snowflakeService = snowflakeService;
+        this.maxBatchCount    = maxBatchCount;
+        this.maxStreamCount   = maxStreamCount;
+    }
 
     @GetMapping
     public ResponseEntity<SnowflakeResponse> generate() {
@@ -22,6 +36,26 @@ public class SnowflakeController {
 
     @GetMapping("/batch")
     public ResponseEntity<List<SnowflakeResponse>> batch(@RequestParam(defaultValue = "5") int count) {
+        checkLimit("batch", count, maxBatchCount);
         return ResponseEntity.ok(snowflakeService.generateBatch(count));
     }
+
+    // Raw IDs for bulk callers — use /batch only when you need the decoded view
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(defaultValue = "1000") @Positive int count,
+            @RequestParam(defaultValue = "BINARY") IdStreamFormat format) {
+        checkLimit("stream", count, maxStreamCount);
+        MediaType type = format == IdStreamFormat.BINARY ? MediaType.APPLICATION_OCTET_STREAM : MediaType.TEXT_PLAIN;
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(out -> snowflakeService.stream(count, format, out));
+    }
+
+    // Bounds the generator time and response size one request can take
+    private static void checkLimit(String endpoint, int count, int max) {
+        if (count > max) {
+            throw new IdCountLimitExceededException(endpoint, count, max);
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package com.patterns.dp_springboot.singleton.controller;
+
+import com.patterns.dp_springboot.singleton.dto.IdWindowResponse;
+import com.patterns.dp_springboot.singleton.service.SnowflakeService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/ids/index")
+@RequiredArgsConstructor
+public class SnowflakeIndexController {
+
+    private final SnowflakeService snowflakeService;
+
+    // IDs this node handed out to workerId between from and to (epoch ms, inclusive)
+    @GetMapping
+    public ResponseEntity<IdWindowResponse> find(
+            @RequestParam long from,
+            @RequestParam long to,
+            @RequestParam @Min(0) @Max(1023) long workerId,
+            @RequestParam(defaultValue = "1000") @Positive @Max(100_000) int limit) {
+        return ResponseEntity.ok(snowflakeService.findIds(from, to, workerId, limit));
+    }
+}
@@ -0,0 +1,30 @@
+package com.patterns.dp_springboot.singleton.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per claimed Snowflake worker-id. The primary key IS the worker-id, so the
+ * database guarantees two nodes can never hold the same one at the same time.
+ */
+@Entity
+@Table(name = "snowflake_worker_lease")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerLease {
+
+    @Id
+    private Integer workerId;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private long expiresAtMs;
+}
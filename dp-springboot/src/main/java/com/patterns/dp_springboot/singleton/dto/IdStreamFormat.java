@@ -0,0 +1,11 @@
+package com.patterns.dp_springboot.singleton.dto;
+
+/** Wire format for {@code GET /api/v1/ids/stream}. */
+public enum IdStreamFormat {
+
+    /** 8 bytes per ID, big-endian — {@code DataInputStream.readLong()} on the other side. */
+    BINARY,
+
+    /** One decimal ID per line, '\n' terminated. */
+    TEXT
+}
@@ -0,0 +1,10 @@
+package com.patterns.dp_springboot.singleton.dto;
+
+public record IdWindowResponse(
+        long    fromMs,
+        long    toMs,
+        long    workerId,
+        int     count,
+        boolean truncated,
+        long[]  ids
+) {}
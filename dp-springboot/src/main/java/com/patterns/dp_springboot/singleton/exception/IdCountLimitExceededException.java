@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.singleton.exception;
+
+public class IdCountLimitExceededException extends RuntimeException {
+
+    public IdCountLimitExceededException(String endpoint, int count, int max) {
+        super("count=" + count + " exceeds the " + endpoint + " limit of " + max);
+    }
+}
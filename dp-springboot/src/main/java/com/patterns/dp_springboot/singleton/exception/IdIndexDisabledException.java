@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.singleton.exception;
+
+public class IdIndexDisabledException extends RuntimeException {
+
+    public IdIndexDisabledException() {
+        super("ID index is disabled — set snowflake.index.enabled=true");
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.singleton.exception;
+
+public class InvalidTimeWindowException extends RuntimeException {
+
+    public InvalidTimeWindowException(long fromMs, long toMs) {
+        super("Invalid time window: from=" + fromMs + " is after to=" + toMs);
+    }
+}
@@ -0,0 +1,73 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How far the generator's logical clock may run ahead of the wall clock.
+ *
+ * The logical clock is the lastTimestamp stamped into the most recent ID. It gets
+ * ahead of the wall clock in two ways:
+ *  - NTP steps the wall clock backwards
+ *  - the 4096 sequence for a ms runs out and the next ms is "borrowed" early
+ *
+ * Both are tolerated while the lead stays within {@code maxBorrowMs}. Beyond that the
+ * generator refuses, exactly like the strict default ({@code maxBorrowMs = 0}).
+ *
+ * Counters are only touched when the logical clock is actually ahead, so the normal
+ * path pays nothing for them.
+ */
+final class ClockDriftPolicy {
+
+    private final long maxBorrowMs;
+
+    private final LongAdder  borrowed = new LongAdder();
+    private final LongAdder  ahead    = new LongAdder();
+    private final AtomicLong maxLead  = new AtomicLong();
+
+    ClockDriftPolicy(long maxBorrowMs) {
+        if (maxBorrowMs < 0) {
+            throw new IllegalArgumentException("maxBorrowMs must not be negative");
+        }
+        this.maxBorrowMs = maxBorrowMs;
+    }
+
+    /** Wall clock is {@code lead} ms behind the logical clock — allowed, or refuse? */
+    void tolerate(long lead) {
+        if (lead > maxBorrowMs) {
+            throw SnowflakeIdGenerator.clockMovedBackwards(lead);
+        }
+        if (lead > maxLead.get()) {
+            maxLead.accumulateAndGet(lead, Math::max);
+        }
+    }
+
+    /** Sequence exhausted {@code lead} ms ahead of the wall clock — may the next ms be taken now? */
+    boolean canBorrow(long lead) {
+        return lead + 1 <= maxBorrowMs;
+    }
+
+    void recordBorrow() {
+        borrowed.increment();
+    }
+
+    void recordAhead(int ids) {
+        ahead.add(ids);
+    }
+
+    long maxBorrowMs() {
+        return maxBorrowMs;
+    }
+
+    long borrowedMillis() {
+        return borrowed.sum();
+    }
+
+    long idsAhead() {
+        return ahead.sum();
+    }
+
+    long maxLeadMs() {
+        return maxLead.get();
+    }
+}
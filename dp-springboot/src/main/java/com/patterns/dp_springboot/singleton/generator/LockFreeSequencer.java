@@ -0,0 +1,130 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.EPOCH;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.MAX_SEQUENCE;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.SEQUENCE_BITS;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.TIMESTAMP_SHIFT;
+
+/**
+ * Lock-free Snowflake — lastTimestamp and sequence live in ONE word so a single
+ * compare-and-set advances both atomically:
+ *
+ *  state = [ 41 bits (lastTimestamp - EPOCH) | 12 bits sequence ]
+ *
+ * A losing CAS just re-reads the clock and retries; no thread ever blocks another.
+ */
+final class LockFreeSequencer implements SnowflakeSequencer {
+
+    private final long workerBits;
+    private final ClockDriftPolicy clock;
+    private final AtomicLong state     = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    LockFreeSequencer(long workerBits, ClockDriftPolicy clock) {
+        this.workerBits = workerBits;
+        this.clock      = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTs  = current >>> SEQUENCE_BITS;
+            long now     = System.currentTimeMillis() - EPOCH;
+
+            long next;
+            if (now > lastTs) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                long lead = lastTs - now;
+                clock.tolerate(lead);
+
+                if ((current & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                    next = current + 1;
+                } else {
+                    // Sequence exhausted for this ms — borrow the next one, or wait it out and race again
+                    exhausted.incrementAndGet();
+                    if (!clock.canBorrow(lead)) {
+                        SnowflakeIdGenerator.waitNextMillis(lastTs + EPOCH);
+                        continue;
+                    }
+                    next = (lastTs + 1) << SEQUENCE_BITS;
+                }
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long ts = next >>> SEQUENCE_BITS;
+                if (ts > now) {
+                    if (ts > lastTs) {
+                        clock.recordBorrow();
+                    }
+                    clock.recordAhead(1);
+                }
+                return (ts << TIMESTAMP_SHIFT)
+                        | workerBits
+                        | (next & MAX_SEQUENCE);
+            }
+        }
+    }
+
+    @Override
+    public SnowflakeIdRange reserveRange(int count) {
+        SnowflakeIdRange.Builder range = new SnowflakeIdRange.Builder(count);
+        int remaining = count;
+        while (remaining > 0) {
+            long current = state.get();
+            long lastTs  = current >>> SEQUENCE_BITS;
+            long now     = System.currentTimeMillis() - EPOCH;
+
+            long ts;
+            long first;
+            if (now > lastTs) {
+                ts    = now;
+                first = 0L;
+            } else {
+                long lead = lastTs - now;
+                clock.tolerate(lead);
+
+                if ((current & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                    ts    = lastTs;
+                    first = (current & MAX_SEQUENCE) + 1;
+                } else {
+                    exhausted.incrementAndGet();
+                    if (!clock.canBorrow(lead)) {
+                        SnowflakeIdGenerator.waitNextMillis(lastTs + EPOCH);
+                        continue;
+                    }
+                    ts    = lastTs + 1;
+                    first = 0L;
+                }
+            }
+
+            // One CAS claims the rest of this ms (or as much as is still needed)
+            int  take = (int) Math.min(remaining, MAX_SEQUENCE + 1 - first);
+            long next = (ts << SEQUENCE_BITS) | (first + take - 1);
+            if (state.compareAndSet(current, next)) {
+                range.add((ts << TIMESTAMP_SHIFT) | workerBits | first, take);
+                if (ts > now) {
+                    if (ts > lastTs) {
+                        clock.recordBorrow();
+                    }
+                    clock.recordAhead(take);
+                }
+                remaining -= take;
+            }
+        }
+        return range.build();
+    }
+
+    @Override
+    public long lastTimestamp() {
+        return (state.get() >>> SEQUENCE_BITS) + EPOCH;
+    }
+
+    @Override
+    public long[] exhaustionCounts() {
+        return new long[] { exhausted.get() };
+    }
+}
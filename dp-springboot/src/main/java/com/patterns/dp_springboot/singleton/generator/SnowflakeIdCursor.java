@@ -0,0 +1,67 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/**
+ * Flyweight over a {@code long[]} of IDs — one cursor object, reused for any number of
+ * arrays, exposes the decoded parts of the current ID without allocating per ID.
+ *
+ *  SnowflakeIdCursor cursor = new SnowflakeIdCursor();
+ *  cursor.wrap(ids);
+ *  while (cursor.next()) {
+ *      log(cursor.timestampMs(), cursor.workerId(), cursor.sequence());
+ *  }
+ *
+ * Not thread-safe — keep one per thread.
+ */
+public final class SnowflakeIdCursor {
+
+    private long[] ids = new long[0];
+    private int from;
+    private int to;
+    private int index;
+
+    public SnowflakeIdCursor wrap(long[] ids) {
+        return wrap(ids, 0, ids.length);
+    }
+
+    /** Points the cursor at {@code ids[from, to)} and rewinds it before the first element. */
+    public SnowflakeIdCursor wrap(long[] ids, int from, int to) {
+        if (from < 0 || to > ids.length || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds for length " + ids.length);
+        }
+        this.ids   = ids;
+        this.from  = from;
+        this.to    = to;
+        this.index = from - 1;
+        return this;
+    }
+
+    /** Advances to the next ID; false once the range is exhausted. */
+    public boolean next() {
+        return ++index < to;
+    }
+
+    /** Jumps to {@code ids[from + offset]}. */
+    public SnowflakeIdCursor moveTo(int offset) {
+        if (offset < 0 || from + offset >= to) {
+            throw new IndexOutOfBoundsException("offset " + offset + " out of range for size " + (to - from));
+        }
+        this.index = from + offset;
+        return this;
+    }
+
+    public long id() {
+        return ids[index];
+    }
+
+    public long timestampMs() {
+        return SnowflakeLayout.timestampMs(ids[index]);
+    }
+
+    public long workerId() {
+        return SnowflakeLayout.workerId(ids[index]);
+    }
+
+    public long sequence() {
+        return SnowflakeLayout.sequence(ids[index]);
+    }
+}
@@ -3,10 +3,15 @@ package com.patterns.dp_springboot.singleton.generator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.locks.LockSupport;
+
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.MAX_WORKER;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.WORKER_SHIFT;
+
 /**
  * Singleton Snowflake ID Generator.
  *
- * 64-bit ID layout:
+ * 64-bit ID layout (see {@link SnowflakeLayout}):
  *  [ 1 bit sign | 41 bits timestamp | 10 bits workerId | 12 bits sequence ]
  *
  * State that MUST be shared across all callers:
@@ -14,58 +19,123 @@ import org.springframework.stereotype.Component;
  *  - sequence:      prevents duplicate IDs within the same millisecond
  *
  * Two instances = independent lastTimestamp + sequence = duplicate IDs.
+ *
+ * How that state is guarded is chosen by {@code snowflake.mode} — see {@link SnowflakeMode}.
+ * How far it may run ahead of the wall clock is {@code snowflake.clock.max-borrow-ms} —
+ * see {@link ClockDriftPolicy}.
  */
 @Component
 public class SnowflakeIdGenerator {
 
-    private static final long EPOCH          = 1700000000000L; // 2023-11-15 as custom epoch
-    private static final long WORKER_BITS    = 10L;
-    private static final long SEQUENCE_BITS  = 12L;
-
-    private static final long MAX_WORKER     = ~(-1L << WORKER_BITS);   // 1023
-    private static final long MAX_SEQUENCE   = ~(-1L << SEQUENCE_BITS); // 4095
-
-    private static final long WORKER_SHIFT    = SEQUENCE_BITS;                   // 12
-    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS;     // 22
+    private static final int  SPIN_LIMIT = 64;
+    private static final long PARK_NANOS = 50_000L; // 50µs — ~20 checks per ms
 
+    private final WorkerIdAssignment assignment;
     private final long workerId;
-    private long lastTimestamp = -1L;
-    private long sequence      = 0L;
+    private final SnowflakeMode mode;
+    private final ClockDriftPolicy clock;
+    private final SnowflakeSequencer sequencer;
 
-    public SnowflakeIdGenerator(@Value("${snowflake.worker-id:1}") long workerId) {
+    public SnowflakeIdGenerator(
+            WorkerIdAssignment assignment,
+            @Value("${snowflake.mode:SYNCHRONIZED}") SnowflakeMode mode,
+            @Value("${snowflake.stripes:8}") int stripes,
+            @Value("${snowflake.clock.max-borrow-ms:0}") long maxBorrowMs) {
+        long workerId = assignment.workerId();
         if (workerId < 0 || workerId > MAX_WORKER) {
             throw new IllegalArgumentException("workerId must be between 0 and " + MAX_WORKER);
         }
-        this.workerId = workerId;
+        this.assignment = assignment;
+        this.workerId   = workerId;
+        this.mode       = mode;
+        this.clock      = new ClockDriftPolicy(maxBorrowMs);
+        this.sequencer  = switch (mode) {
+            case SYNCHRONIZED -> new SynchronizedSequencer(workerId << WORKER_SHIFT, clock);
+            case LOCK_FREE    -> new LockFreeSequencer(workerId << WORKER_SHIFT, clock);
+            case STRIPED      -> new StripedSequencer(workerId << WORKER_SHIFT, stripes, clock);
+        };
     }
 
-    public synchronized long nextId() {
-        long now = System.currentTimeMillis();
+    public long nextId() {
+        ensureAssigned();
+        return sequencer.nextId();
+    }
 
-        if (now < lastTimestamp) {
-            throw new IllegalStateException(
-                    "Clock moved backwards by " + (lastTimestamp - now) + "ms. Refusing to generate id.");
+    /**
+     * Claims {@code count} IDs with one lock acquisition (or one CAS per ms in LOCK_FREE mode)
+     * instead of one per ID. Spans into following milliseconds when the current one runs out.
+     */
+    public SnowflakeIdRange reserveRange(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
         }
+        ensureAssigned();
+        return sequencer.reserveRange(count);
+    }
 
-        if (now == lastTimestamp) {
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            if (sequence == 0) {
-                now = waitNextMillis(lastTimestamp);
-            }
-        } else {
-            sequence = 0L;
-        }
+    public long workerId() {
+        return workerId;
+    }
+
+    public SnowflakeMode mode() {
+        return mode;
+    }
+
+    public int stripes() {
+        return sequencer.stripes();
+    }
 
-        lastTimestamp = now;
+    /** Per-stripe count of sequence exhaustions (callers that had to wait for, or borrow, the next ms). */
+    public long[] exhaustionCounts() {
+        return sequencer.exhaustionCounts();
+    }
+
+    /** How far IDs may be stamped ahead of the wall clock — 0 means strict. */
+    public long maxBorrowMs() {
+        return clock.maxBorrowMs();
+    }
+
+    /** Milliseconds taken ahead of the wall clock because a sequence ran out. */
+    public long borrowedMillis() {
+        return clock.borrowedMillis();
+    }
+
+    /** IDs stamped with a timestamp ahead of the wall clock (borrowed ms or clock step-back). */
+    public long idsAheadOfClock() {
+        return clock.idsAhead();
+    }
 
-        return ((now - EPOCH)  << TIMESTAMP_SHIFT)
-                | (workerId    << WORKER_SHIFT)
-                | sequence;
+    /** Largest lead of the logical clock over the wall clock seen so far. */
+    public long maxObservedLeadMs() {
+        return clock.maxLeadMs();
     }
 
-    private long waitNextMillis(long lastTs) {
+    /** Current lead of the logical clock over the wall clock, 0 when in step. */
+    public long currentLeadMs() {
+        return Math.max(0L, sequencer.lastTimestamp() - System.currentTimeMillis());
+    }
+
+    // A lost lease means another node may own this worker-id now — never hand out another ID
+    private void ensureAssigned() {
+        if (!assignment.isActive()) {
+            throw new IllegalStateException("Worker-id " + workerId + " is no longer assigned to this node. Refusing to generate id.");
+        }
+    }
+
+    static IllegalStateException clockMovedBackwards(long driftMs) {
+        return new IllegalStateException(
+                "Clock moved backwards by " + driftMs + "ms. Refusing to generate id.");
+    }
+
+    // Spin politely for a moment, then park — never burn a full core waiting for the clock
+    static long waitNextMillis(long lastTs) {
         long now = System.currentTimeMillis();
-        while (now <= lastTs) {
+        for (int spins = 0; now <= lastTs; spins++) {
+            if (spins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
             now = System.currentTimeMillis();
         }
         return now;
@@ -0,0 +1,120 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A block of IDs claimed in one go by {@link SnowflakeIdGenerator#reserveRange(int)}.
+ *
+ * Within one millisecond the IDs of a single worker are consecutive longs — only the
+ * sequence bits change. So the block is stored as runs of (firstId, length) instead of
+ * one long per ID: 4096 IDs inside one ms cost two array slots, not 4096.
+ */
+public final class SnowflakeIdRange {
+
+    private final long[] firstIds;
+    private final int[]  lengths;
+    private final int    runs;
+    private final int    size;
+
+    private SnowflakeIdRange(long[] firstIds, int[] lengths, int runs, int size) {
+        this.firstIds = firstIds;
+        this.lengths  = lengths;
+        this.runs     = runs;
+        this.size     = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Number of contiguous runs — at most one per millisecond the block spans. */
+    public int runs() {
+        return runs;
+    }
+
+    public long firstId(int run) {
+        return firstIds[checkRun(run)];
+    }
+
+    public int runLength(int run) {
+        return lengths[checkRun(run)];
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range for size " + size);
+        }
+        for (int r = 0; r < runs; r++) {
+            if (index < lengths[r]) {
+                return firstIds[r] + index;
+            }
+            index -= lengths[r];
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int r = 0; r < runs; r++) {
+            long first = firstIds[r];
+            for (int i = 0; i < lengths[r]; i++) {
+                action.accept(first + i);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] ids = new long[size];
+        int pos = 0;
+        for (int r = 0; r < runs; r++) {
+            long first = firstIds[r];
+            for (int i = 0; i < lengths[r]; i++) {
+                ids[pos++] = first + i;
+            }
+        }
+        return ids;
+    }
+
+    private int checkRun(int run) {
+        if (run < 0 || run >= runs) {
+            throw new IndexOutOfBoundsException("run " + run + " out of range for " + runs + " runs");
+        }
+        return run;
+    }
+
+    @Override
+    public String toString() {
+        return "SnowflakeIdRange[size=" + size + ", runs=" + runs + "]";
+    }
+
+    /** Collects runs inside a sequencer's critical section. */
+    static final class Builder {
+
+        private long[] firstIds;
+        private int[]  lengths;
+        private int    runs;
+        private int    size;
+
+        Builder(int count) {
+            // First run may be a partial ms; every later one is a full 4096-sequence ms
+            int expectedRuns = (int) (count / (SnowflakeLayout.MAX_SEQUENCE + 1)) + 2;
+            this.firstIds = new long[expectedRuns];
+            this.lengths  = new int[expectedRuns];
+        }
+
+        void add(long firstId, int length) {
+            if (runs == firstIds.length) {
+                firstIds = Arrays.copyOf(firstIds, runs * 2);
+                lengths  = Arrays.copyOf(lengths, runs * 2);
+            }
+            firstIds[runs] = firstId;
+            lengths[runs]  = length;
+            runs++;
+            size += length;
+        }
+
+        SnowflakeIdRange build() {
+            return new SnowflakeIdRange(firstIds, lengths, runs, size);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/**
+ * The 64-bit Snowflake layout — the ONE place its bit widths, shifts and masks live.
+ * {@link SnowflakeIdGenerator} encodes with these; everything else decodes with them.
+ *
+ *  [ 1 bit sign | 41 bits timestamp | 10 bits workerId | 12 bits sequence ]
+ *
+ * The decoders are static, branch-free shifts and masks on a primitive long — no
+ * objects, so decoding millions of IDs per second puts nothing on the heap.
+ * For walking a {@code long[]} of IDs see {@link SnowflakeIdCursor}.
+ */
+public final class SnowflakeLayout {
+
+    public static final long EPOCH         = 1700000000000L; // 2023-11-15 as custom epoch
+    public static final long WORKER_BITS   = 10L;
+    public static final long SEQUENCE_BITS = 12L;
+
+    public static final long MAX_WORKER    = ~(-1L << WORKER_BITS);   // 1023
+    public static final long MAX_SEQUENCE  = ~(-1L << SEQUENCE_BITS); // 4095
+
+    public static final long WORKER_SHIFT    = SEQUENCE_BITS;                // 12
+    public static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS;  // 22
+
+    private SnowflakeLayout() {}
+
+    /** Wall-clock epoch millis the ID was stamped with. */
+    public static long timestampMs(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    public static long workerId(long id) {
+        return (id >>> WORKER_SHIFT) & MAX_WORKER;
+    }
+
+    public static long sequence(long id) {
+        return id & MAX_SEQUENCE;
+    }
+
+    /** Smallest possible ID stamped at {@code epochMs} — handy as a range bound. */
+    public static long minIdAt(long epochMs) {
+        return (epochMs - EPOCH) << TIMESTAMP_SHIFT;
+    }
+}
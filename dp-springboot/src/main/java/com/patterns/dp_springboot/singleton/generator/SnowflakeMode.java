@@ -0,0 +1,20 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/**
+ * How {@link SnowflakeIdGenerator} guards its shared lastTimestamp + sequence state.
+ * Selected via {@code snowflake.mode} so both can be compared under the same load.
+ */
+public enum SnowflakeMode {
+
+    /** One lock around lastTimestamp + sequence — simple, serializes every caller. */
+    SYNCHRONIZED,
+
+    /** lastTimestamp + sequence packed into one AtomicLong, advanced with compare-and-set. */
+    LOCK_FREE,
+
+    /**
+     * Sequence space split into {@code snowflake.stripes} slices, each with its own CAS'd
+     * state word on its own cache line. Threads are pinned to a stripe on first use.
+     */
+    STRIPED
+}
@@ -0,0 +1,24 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/**
+ * Owns the lastTimestamp + sequence state behind {@link SnowflakeIdGenerator}.
+ * One implementation per {@link SnowflakeMode}; the generator picks one at startup.
+ */
+interface SnowflakeSequencer {
+
+    long nextId();
+
+    /** Claims {@code count} IDs in one critical section, waiting into following ms as needed. */
+    SnowflakeIdRange reserveRange(int count);
+
+    /** Wall-clock ms of the most recently issued ID — may be ahead of now while borrowing. */
+    long lastTimestamp();
+
+    /** Independent sequence spaces handed out concurrently — 1 unless STRIPED. */
+    default int stripes() {
+        return 1;
+    }
+
+    /** Per stripe: how often a caller found the ms's sequence space used up and had to wait or borrow. */
+    long[] exhaustionCounts();
+}
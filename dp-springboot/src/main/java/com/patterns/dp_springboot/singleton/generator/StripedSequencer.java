@@ -0,0 +1,185 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.EPOCH;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.MAX_SEQUENCE;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.SEQUENCE_BITS;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.TIMESTAMP_SHIFT;
+
+/**
+ * Striped Snowflake — the 12-bit sequence field is split into a stripe index and a
+ * per-stripe counter:
+ *
+ *  sequence = [ log2(stripes) bits stripe | remaining bits local sequence ]
+ *
+ * Each stripe owns a disjoint slice of the sequence space, so stripes never need to
+ * agree on anything — IDs stay unique within the node without a shared write.
+ * Each stripe's state word sits PAD longs away from its neighbours so two stripes
+ * never share a cache line.
+ *
+ * Threads are assigned round-robin on first use and keep their stripe. With no more
+ * threads than stripes, every thread has a private state word; beyond that, threads
+ * share a stripe's CAS exactly like {@link LockFreeSequencer}.
+ *
+ * Trade-off: each stripe gets 4096 / stripes IDs per ms, and IDs within one ms are
+ * ordered per stripe rather than globally.
+ */
+final class StripedSequencer implements SnowflakeSequencer {
+
+    static final int MAX_STRIPES = 256;
+
+    private static final int PAD       = 16; // 16 longs = 128 bytes, covers adjacent-line prefetch
+    private static final int STATE     = 0;
+    private static final int EXHAUSTED = 1;
+
+    private final long workerBits;
+    private final ClockDriftPolicy clock;
+    private final int  stripes;
+    private final long localBits;
+    private final long maxLocal;
+
+    private final AtomicLongArray slots;
+    private final AtomicInteger   nextStripe = new AtomicInteger();
+    private final ThreadLocal<Integer> stripeOfThread;
+
+    StripedSequencer(long workerBits, int stripes, ClockDriftPolicy clock) {
+        if (stripes < 1 || stripes > MAX_STRIPES || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two between 1 and " + MAX_STRIPES);
+        }
+        this.workerBits = workerBits;
+        this.clock      = clock;
+        this.stripes    = stripes;
+        this.localBits  = SEQUENCE_BITS - Integer.numberOfTrailingZeros(stripes);
+        this.maxLocal   = ~(-1L << localBits);
+        // One extra leading block so stripe 0 is not next to the array header
+        this.slots          = new AtomicLongArray((stripes + 1) * PAD);
+        this.stripeOfThread = ThreadLocal.withInitial(() -> nextStripe.getAndIncrement() & (stripes - 1));
+    }
+
+    @Override
+    public long nextId() {
+        int  stripe     = stripeOfThread.get();
+        int  at         = base(stripe);
+        long stripeBits = (long) stripe << localBits;
+
+        while (true) {
+            long current = slots.get(at + STATE);
+            long lastTs  = current >>> SEQUENCE_BITS;
+            long now     = System.currentTimeMillis() - EPOCH;
+
+            long next;
+            if (now > lastTs) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                long lead = lastTs - now;
+                clock.tolerate(lead);
+
+                if ((current & MAX_SEQUENCE) < maxLocal) {
+                    next = current + 1;
+                } else {
+                    slots.incrementAndGet(at + EXHAUSTED);
+                    if (!clock.canBorrow(lead)) {
+                        SnowflakeIdGenerator.waitNextMillis(lastTs + EPOCH);
+                        continue;
+                    }
+                    next = (lastTs + 1) << SEQUENCE_BITS;
+                }
+            }
+
+            if (slots.compareAndSet(at + STATE, current, next)) {
+                long ts = next >>> SEQUENCE_BITS;
+                if (ts > now) {
+                    if (ts > lastTs) {
+                        clock.recordBorrow();
+                    }
+                    clock.recordAhead(1);
+                }
+                return (ts << TIMESTAMP_SHIFT)
+                        | workerBits
+                        | stripeBits
+                        | (next & MAX_SEQUENCE);
+            }
+        }
+    }
+
+    @Override
+    public SnowflakeIdRange reserveRange(int count) {
+        int  stripe     = stripeOfThread.get();
+        int  at         = base(stripe);
+        long stripeBits = (long) stripe << localBits;
+
+        SnowflakeIdRange.Builder range = new SnowflakeIdRange.Builder(count);
+        int remaining = count;
+        while (remaining > 0) {
+            long current = slots.get(at + STATE);
+            long lastTs  = current >>> SEQUENCE_BITS;
+            long now     = System.currentTimeMillis() - EPOCH;
+
+            long ts;
+            long first;
+            if (now > lastTs) {
+                ts    = now;
+                first = 0L;
+            } else {
+                long lead = lastTs - now;
+                clock.tolerate(lead);
+
+                if ((current & MAX_SEQUENCE) < maxLocal) {
+                    ts    = lastTs;
+                    first = (current & MAX_SEQUENCE) + 1;
+                } else {
+                    slots.incrementAndGet(at + EXHAUSTED);
+                    if (!clock.canBorrow(lead)) {
+                        SnowflakeIdGenerator.waitNextMillis(lastTs + EPOCH);
+                        continue;
+                    }
+                    ts    = lastTs + 1;
+                    first = 0L;
+                }
+            }
+
+            int  take = (int) Math.min(remaining, maxLocal + 1 - first);
+            long next = (ts << SEQUENCE_BITS) | (first + take - 1);
+            if (slots.compareAndSet(at + STATE, current, next)) {
+                range.add((ts << TIMESTAMP_SHIFT) | workerBits | stripeBits | first, take);
+                if (ts > now) {
+                    if (ts > lastTs) {
+                        clock.recordBorrow();
+                    }
+                    clock.recordAhead(take);
+                }
+                remaining -= take;
+            }
+        }
+        return range.build();
+    }
+
+    @Override
+    public long lastTimestamp() {
+        long latest = 0L;
+        for (int s = 0; s < stripes; s++) {
+            latest = Math.max(latest, slots.get(base(s) + STATE) >>> SEQUENCE_BITS);
+        }
+        return latest + EPOCH;
+    }
+
+    @Override
+    public int stripes() {
+        return stripes;
+    }
+
+    @Override
+    public long[] exhaustionCounts() {
+        long[] counts = new long[stripes];
+        for (int s = 0; s < stripes; s++) {
+            counts[s] = slots.get(base(s) + EXHAUSTED);
+        }
+        return counts;
+    }
+
+    private static int base(int stripe) {
+        return (stripe + 1) * PAD;
+    }
+}
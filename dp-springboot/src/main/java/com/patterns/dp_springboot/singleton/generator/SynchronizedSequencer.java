@@ -0,0 +1,145 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.EPOCH;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.MAX_SEQUENCE;
+import static com.patterns.dp_springboot.singleton.generator.SnowflakeLayout.TIMESTAMP_SHIFT;
+
+/**
+ * Classic Snowflake — every caller takes the same lock.
+ *
+ * A ReentrantLock rather than {@code synchronized}: a caller may park inside the
+ * critical section waiting for the next millisecond, and a virtual thread parked while
+ * holding a monitor pins its carrier thread (JDK 21). Holding a j.u.c. lock does not.
+ */
+final class SynchronizedSequencer implements SnowflakeSequencer {
+
+    private final long workerBits;
+    private final ClockDriftPolicy clock;
+    private long lastTimestamp = -1L;
+    private long sequence      = 0L;
+    private volatile long exhausted;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    SynchronizedSequencer(long workerBits, ClockDriftPolicy clock) {
+        this.workerBits = workerBits;
+        this.clock      = clock;
+    }
+
+    @Override
+    public long nextId() {
+        lock.lock();
+        try {
+            return nextIdLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SnowflakeIdRange reserveRange(int count) {
+        lock.lock();
+        try {
+            return reserveRangeLocked(count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long nextIdLocked() {
+        long now = System.currentTimeMillis();
+
+        while (true) {
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                sequence      = 0L;
+                break;
+            }
+
+            long lead = lastTimestamp - now;
+            clock.tolerate(lead);
+
+            if (sequence < MAX_SEQUENCE) {
+                sequence++;
+                break;
+            }
+
+            exhausted++;
+            if (clock.canBorrow(lead)) {
+                clock.recordBorrow();
+                lastTimestamp++;
+                sequence = 0L;
+                break;
+            }
+            now = SnowflakeIdGenerator.waitNextMillis(lastTimestamp);
+        }
+
+        if (lastTimestamp > now) {
+            clock.recordAhead(1);
+        }
+
+        return ((lastTimestamp - EPOCH) << TIMESTAMP_SHIFT)
+                | workerBits
+                | sequence;
+    }
+
+    private SnowflakeIdRange reserveRangeLocked(int count) {
+        long now = System.currentTimeMillis();
+
+        SnowflakeIdRange.Builder range = new SnowflakeIdRange.Builder(count);
+        int remaining = count;
+        while (remaining > 0) {
+            long ts;
+            long first;
+            if (now > lastTimestamp) {
+                ts    = now;
+                first = 0L;
+            } else {
+                long lead = lastTimestamp - now;
+                clock.tolerate(lead);
+
+                if (sequence < MAX_SEQUENCE) {
+                    ts    = lastTimestamp;
+                    first = sequence + 1;
+                } else {
+                    exhausted++;
+                    if (!clock.canBorrow(lead)) {
+                        now = SnowflakeIdGenerator.waitNextMillis(lastTimestamp);
+                        continue;
+                    }
+                    clock.recordBorrow();
+                    ts    = lastTimestamp + 1;
+                    first = 0L;
+                }
+            }
+
+            int take = (int) Math.min(remaining, MAX_SEQUENCE + 1 - first);
+            range.add(((ts - EPOCH) << TIMESTAMP_SHIFT) | workerBits | first, take);
+            if (ts > now) {
+                clock.recordAhead(take);
+            }
+
+            lastTimestamp = ts;
+            sequence      = first + take - 1;
+            remaining    -= take;
+        }
+        return range.build();
+    }
+
+    @Override
+    public long lastTimestamp() {
+        lock.lock();
+        try {
+            return lastTimestamp;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long[] exhaustionCounts() {
+        return new long[] { exhausted };
+    }
+}
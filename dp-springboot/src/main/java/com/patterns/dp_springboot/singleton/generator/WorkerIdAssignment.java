@@ -0,0 +1,30 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/**
+ * Where {@link SnowflakeIdGenerator} gets its worker-id from, and whether it may still use it.
+ *
+ * Fixed config ({@code snowflake.worker-id}) is always active. A lease-backed assignment
+ * turns inactive the moment the lease is lost — generation must stop, because another
+ * node may already be using the same worker-id.
+ */
+public interface WorkerIdAssignment {
+
+    long workerId();
+
+    /** Checked before every ID is handed out — must be a cheap field read. */
+    boolean isActive();
+
+    static WorkerIdAssignment fixed(long workerId) {
+        return new WorkerIdAssignment() {
+            @Override
+            public long workerId() {
+                return workerId;
+            }
+
+            @Override
+            public boolean isActive() {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,239 @@
+package com.patterns.dp_springboot.singleton.index;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdRange;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory, time-ordered index over the IDs this node has handed out.
+ *
+ * Snowflake IDs are k-sorted by time: within one millisecond, sorting IDs also groups
+ * them by worker, then by sequence. So each ms gets one bucket holding a sorted
+ * {@code long[]}, and "worker w during [t1, t2]" is
+ *
+ *  for each bucket ms in [t1, t2]:
+ *      binary search [ms | w | seq 0, ms | w | seq 4095] in the bucket's array
+ *
+ * No boxing, no per-ID nodes. Memory is bounded two ways: oldest buckets are dropped
+ * once {@code max-ids} is exceeded, and a sweep drops buckets older than {@code retention-ms}.
+ */
+@Component
+public class SnowflakeIdIndex {
+
+    private final boolean enabled;
+    private final long maxIds;
+    private final long retentionMs;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong size    = new AtomicLong();
+    private final LongAdder  evicted = new LongAdder();
+
+    public SnowflakeIdIndex(
+            @Value("${snowflake.index.enabled:false}") boolean enabled,
+            @Value("${snowflake.index.max-ids:1000000}") long maxIds,
+            @Value("${snowflake.index.retention-ms:60000}") long retentionMs) {
+        if (enabled && (maxIds <= 0 || retentionMs <= 0)) {
+            throw new IllegalArgumentException("snowflake.index.max-ids and retention-ms must be positive");
+        }
+        this.enabled     = enabled;
+        this.maxIds      = maxIds;
+        this.retentionMs = retentionMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(long id) {
+        if (!enabled) {
+            return;
+        }
+        int added = bucketFor(SnowflakeLayout.timestampMs(id)).add(id);
+        grow(added);
+    }
+
+    // A reserved range is already grouped per ms — one bucket lookup per run, not per ID
+    public void add(SnowflakeIdRange range) {
+        if (!enabled) {
+            return;
+        }
+        int added = 0;
+        for (int r = 0; r < range.runs(); r++) {
+            long first = range.firstId(r);
+            added += bucketFor(SnowflakeLayout.timestampMs(first)).addRun(first, range.runLength(r));
+        }
+        grow(added);
+    }
+
+    /**
+     * IDs of {@code workerId} stamped within [fromMs, toMs], ascending, at most {@code limit}.
+     */
+    public long[] query(long fromMs, long toMs, long workerId, int limit) {
+        ConcurrentNavigableMap<Long, Bucket> window = buckets.subMap(fromMs, true, toMs, true);
+        long workerBits = workerId << SnowflakeLayout.WORKER_SHIFT;
+
+        Collector out = new Collector(limit);
+        for (Map.Entry<Long, Bucket> entry : window.entrySet()) {
+            long lo = SnowflakeLayout.minIdAt(entry.getKey()) | workerBits;
+            long hi = lo | SnowflakeLayout.MAX_SEQUENCE;
+            entry.getValue().collect(lo, hi, out);
+            if (out.isFull()) {
+                break;
+            }
+        }
+        return out.toArray();
+    }
+
+    @Scheduled(fixedDelayString = "${snowflake.index.sweep-ms:1000}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        Map.Entry<Long, Bucket> oldest;
+        while ((oldest = buckets.firstEntry()) != null && oldest.getKey() < cutoff) {
+            evict(oldest.getKey());
+        }
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    public long evictedIds() {
+        return evicted.sum();
+    }
+
+    private Bucket bucketFor(long ms) {
+        Bucket bucket = buckets.get(ms);
+        return bucket != null ? bucket : buckets.computeIfAbsent(ms, k -> new Bucket());
+    }
+
+    private void grow(int added) {
+        if (size.addAndGet(added) > maxIds) {
+            // Over capacity — drop whole buckets from the old end until we fit again
+            Map.Entry<Long, Bucket> oldest;
+            while (size.get() > maxIds && (oldest = buckets.firstEntry()) != null) {
+                evict(oldest.getKey());
+            }
+        }
+    }
+
+    private void evict(long ms) {
+        Bucket bucket = buckets.remove(ms);
+        if (bucket != null) {
+            int dropped = bucket.close();
+            size.addAndGet(-dropped);
+            evicted.add(dropped);
+        }
+    }
+
+    /**
+     * One millisecond of IDs, kept sorted. IDs from one generator arrive almost in order,
+     * so insertion from the tail is usually a plain append. Each ms has its own bucket and
+     * lock, so writers only contend while they stamp the same millisecond.
+     */
+    private static final class Bucket {
+
+        private long[] ids = new long[16];
+        private int size;
+        private boolean closed;
+
+        synchronized int add(long id) {
+            if (closed) {
+                return 0;
+            }
+            ensureCapacity(size + 1);
+            int i = size;
+            while (i > 0 && ids[i - 1] > id) {
+                ids[i] = ids[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            size++;
+            return 1;
+        }
+
+        synchronized int addRun(long first, int length) {
+            if (closed) {
+                return 0;
+            }
+            ensureCapacity(size + length);
+            // Merge from the tail: a run that lands after everything (the usual case) is a plain
+            // append, and one that another stripe interleaved into this ms costs a single pass
+            int i = size - 1;
+            int k = size + length - 1;
+            for (int j = length - 1; j >= 0; j--) {
+                long id = first + j;
+                while (i >= 0 && ids[i] > id) {
+                    ids[k--] = ids[i--];
+                }
+                ids[k--] = id;
+            }
+            size += length;
+            return length;
+        }
+
+        synchronized void collect(long lo, long hi, Collector out) {
+            int i = Arrays.binarySearch(ids, 0, size, lo);
+            if (i < 0) {
+                i = -(i + 1);
+            }
+            while (i < size && ids[i] <= hi && !out.isFull()) {
+                out.add(ids[i++]);
+            }
+        }
+
+        synchronized int close() {
+            closed = true;
+            return size;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(needed, ids.length * 2));
+            }
+        }
+    }
+
+    /** Growable primitive result buffer that stops at the caller's limit. */
+    private static final class Collector {
+
+        private final int limit;
+        private long[] ids;
+        private int count;
+
+        Collector(int limit) {
+            this.limit = limit;
+            this.ids   = new long[Math.min(limit, 1024)];
+        }
+
+        boolean isFull() {
+            return count == limit;
+        }
+
+        void add(long id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, (int) Math.min((long) limit, ids.length * 2L));
+            }
+            ids[count++] = id;
+        }
+
+        long[] toArray() {
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        }
+    }
+}
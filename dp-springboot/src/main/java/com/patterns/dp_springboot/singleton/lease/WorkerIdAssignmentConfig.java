@@ -0,0 +1,18 @@
+package com.patterns.dp_springboot.singleton.lease;
+
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WorkerIdAssignmentConfig {
+
+    // Leasing off → the hand-assigned snowflake.worker-id, as before
+    @Bean
+    @ConditionalOnProperty(name = "snowflake.lease.enabled", havingValue = "false", matchIfMissing = true)
+    public WorkerIdAssignment fixedWorkerId(@Value("${snowflake.worker-id:1}") long workerId) {
+        return WorkerIdAssignment.fixed(workerId);
+    }
+}
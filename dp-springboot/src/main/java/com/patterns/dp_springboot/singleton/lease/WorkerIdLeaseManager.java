@@ -0,0 +1,191 @@
+package com.patterns.dp_springboot.singleton.lease;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import com.patterns.dp_springboot.singleton.repository.WorkerLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims a free worker-id from the lease table on startup and keeps it alive with a heartbeat.
+ *
+ *  startup   → INSERT a free id (PK conflict = someone else won, try the next one),
+ *              else take over a row whose lease has expired
+ *  heartbeat → UPDATE expires_at WHERE owner = me AND not yet expired; 0 rows = lease lost
+ *  shutdown  → DELETE WHERE owner = me, so the id is free immediately
+ *
+ * The database is only touched at startup, on the heartbeat and at shutdown. The
+ * generator's hot path reads a volatile flag and the local deadline, so a heartbeat that
+ * never runs (stalled thread, long GC) stops generation on its own, a safety margin before
+ * another node could take the id over. The heartbeat has its own thread — a busy shared
+ * scheduler must not be able to delay it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "snowflake.lease.enabled", havingValue = "true")
+public class WorkerIdLeaseManager implements WorkerIdAssignment {
+
+    private final WorkerLeaseRepository repository;
+    private final long ttlMs;
+    private final long heartbeatMs;
+    private final long safetyMarginMs;
+    private final String owner;
+    private final ScheduledExecutorService heartbeat;
+
+    private int workerId = -1;
+    private volatile boolean active;
+    private volatile long leaseDeadline;
+
+    public WorkerIdLeaseManager(
+            WorkerLeaseRepository repository,
+            @Value("${snowflake.lease.ttl-ms:30000}") long ttlMs,
+            @Value("${snowflake.lease.heartbeat-ms:10000}") long heartbeatMs,
+            @Value("${snowflake.lease.safety-margin-ms:5000}") long safetyMarginMs) {
+        if (heartbeatMs <= 0 || ttlMs < 2 * heartbeatMs) {
+            throw new IllegalArgumentException("snowflake.lease.ttl-ms must be at least twice snowflake.lease.heartbeat-ms");
+        }
+        if (safetyMarginMs < 0 || heartbeatMs + safetyMarginMs >= ttlMs) {
+            throw new IllegalArgumentException(
+                    "snowflake.lease.safety-margin-ms must be >= 0 and leave room for one heartbeat inside snowflake.lease.ttl-ms");
+        }
+        this.repository     = repository;
+        this.ttlMs          = ttlMs;
+        this.heartbeatMs    = heartbeatMs;
+        this.safetyMarginMs = safetyMarginMs;
+        this.owner          = hostName() + "/" + UUID.randomUUID();
+        this.heartbeat      = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snowflake-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void claim() {
+        long now = System.currentTimeMillis();
+        int maxWorker = (int) SnowflakeLayout.MAX_WORKER;
+
+        // Random starting point so nodes booting together don't all fight over id 0
+        Set<Integer> claimed = new HashSet<>(repository.findClaimedWorkerIds());
+        int start = ThreadLocalRandom.current().nextInt(maxWorker + 1);
+        for (int i = 0; i <= maxWorker; i++) {
+            int candidate = (start + i) % (maxWorker + 1);
+            if (!claimed.contains(candidate) && tryInsert(candidate, now + ttlMs)) {
+                granted(candidate, now);
+                startHeartbeat();
+                return;
+            }
+        }
+
+        List<Integer> expired = repository.findExpiredWorkerIds(now);
+        for (int candidate : expired) {
+            if (repository.takeOverExpired(candidate, owner, now + ttlMs, now) == 1) {
+                granted(candidate, now);
+                startHeartbeat();
+                return;
+            }
+        }
+
+        throw new IllegalStateException("No free Snowflake worker-id — all " + (maxWorker + 1) + " are leased");
+    }
+
+    private void startHeartbeat() {
+        heartbeat.scheduleWithFixedDelay(this::renew, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    void renew() {
+        if (!active) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Too late to extend: past this point another node may already hold the id
+        if (now >= leaseDeadline - safetyMarginMs) {
+            lose("lease expired locally before it could be renewed (" + (now - leaseDeadline + safetyMarginMs) + "ms late)");
+            return;
+        }
+        try {
+            if (repository.renew(workerId, owner, now + ttlMs, now) == 1) {
+                leaseDeadline = now + ttlMs;
+                return;
+            }
+            lose("lease row was taken over, removed or already expired");
+        } catch (RuntimeException ex) {
+            // Can't reach the DB — keep going only while the last renewal still covers us
+            if (now + heartbeatMs >= leaseDeadline - safetyMarginMs) {
+                lose("renewal failed and lease expires before the next heartbeat: " + ex.getMessage());
+            } else {
+                log.warn("[LEASE] Renewal of worker-id {} failed, retrying next heartbeat: {}", workerId, ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void release() {
+        heartbeat.shutdownNow();
+        if (workerId < 0) {
+            return;
+        }
+        active = false;
+        try {
+            repository.release(workerId, owner);
+            log.info("[LEASE] Released worker-id {}", workerId);
+        } catch (DataAccessException ex) {
+            log.warn("[LEASE] Could not release worker-id {} — it will expire in {}ms", workerId, ttlMs);
+        }
+    }
+
+    @Override
+    public long workerId() {
+        return workerId;
+    }
+
+    @Override
+    public boolean isActive() {
+        return active && System.currentTimeMillis() < leaseDeadline - safetyMarginMs;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    private boolean tryInsert(int candidate, long expiresAtMs) {
+        try {
+            return repository.insert(candidate, owner, expiresAtMs) == 1;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    private void granted(int id, long now) {
+        this.workerId      = id;
+        this.leaseDeadline = now + ttlMs;
+        this.active        = true;
+        log.info("[LEASE] Claimed worker-id {} as {} (ttl={}ms, heartbeat={}ms, safety margin={}ms)",
+                id, owner, ttlMs, heartbeatMs, safetyMarginMs);
+    }
+
+    private void lose(String reason) {
+        active = false;
+        log.error("[LEASE] Lost worker-id {} — ID generation stopped: {}", workerId, reason);
+    }
+
+    private static String hostName() {
+        String host = System.getenv("HOSTNAME");
+        return host != null ? host : "local";
+    }
+}
@@ -0,0 +1,69 @@
+package com.patterns.dp_springboot.singleton.metrics;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.index.SnowflakeIdIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes generator internals to /actuator/metrics.
+ * Reads are taken at scrape time only — nothing is added to the nextId() hot path.
+ */
+@Component
+@RequiredArgsConstructor
+public class SnowflakeMetrics implements MeterBinder {
+
+    private final SnowflakeIdGenerator generator;
+    private final SnowflakeIdIndex index;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("snowflake.stripes", generator, SnowflakeIdGenerator::stripes)
+                .description("Independent sequence stripes handing out IDs")
+                .tag("mode", generator.mode().name())
+                .register(registry);
+
+        for (int stripe = 0; stripe < generator.stripes(); stripe++) {
+            int s = stripe;
+            FunctionCounter.builder("snowflake.sequence.exhausted", generator, g -> g.exhaustionCounts()[s])
+                    .description("Times a caller used up the stripe's sequence space for the current ms and had to wait")
+                    .tag("stripe", String.valueOf(s))
+                    .register(registry);
+        }
+
+        Gauge.builder("snowflake.clock.max-borrow", generator, SnowflakeIdGenerator::maxBorrowMs)
+                .description("Configured bound on how far IDs may be stamped ahead of the wall clock")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("snowflake.clock.lead", generator, SnowflakeIdGenerator::currentLeadMs)
+                .description("Current lead of the generator's logical clock over the wall clock")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("snowflake.clock.lead.max", generator, SnowflakeIdGenerator::maxObservedLeadMs)
+                .description("Largest lead over the wall clock seen so far (clock step-back or borrowing)")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("snowflake.clock.borrowed", generator, SnowflakeIdGenerator::borrowedMillis)
+                .description("Milliseconds taken ahead of the wall clock because the sequence ran out")
+                .register(registry);
+        FunctionCounter.builder("snowflake.clock.ahead", generator, SnowflakeIdGenerator::idsAheadOfClock)
+                .description("IDs stamped with a timestamp ahead of the wall clock")
+                .register(registry);
+
+        if (index.isEnabled()) {
+            Gauge.builder("snowflake.index.size", index, SnowflakeIdIndex::size)
+                    .description("IDs currently held by the time-ordered ID index")
+                    .register(registry);
+            Gauge.builder("snowflake.index.buckets", index, SnowflakeIdIndex::bucketCount)
+                    .description("Millisecond buckets currently held by the ID index")
+                    .register(registry);
+            FunctionCounter.builder("snowflake.index.evicted", index, SnowflakeIdIndex::evictedIds)
+                    .description("IDs dropped from the index by size or age eviction")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.patterns.dp_springboot.singleton.repository;
+
+import com.patterns.dp_springboot.singleton.domain.WorkerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Every write is a single conditional statement — the row count says whether this node won.
+ * No read-modify-write, so no locking beyond what the statement itself takes.
+ */
+public interface WorkerLeaseRepository extends JpaRepository<WorkerLease, Integer> {
+
+    @Query("select l.workerId from WorkerLease l")
+    List<Integer> findClaimedWorkerIds();
+
+    @Query("select l.workerId from WorkerLease l where l.expiresAtMs < :now")
+    List<Integer> findExpiredWorkerIds(@Param("now") long now);
+
+    // Plain INSERT — a duplicate key means another node got there first
+    @Transactional
+    @Modifying
+    @Query("insert into WorkerLease (workerId, owner, expiresAtMs) values (:workerId, :owner, :expiresAtMs)")
+    int insert(@Param("workerId") int workerId, @Param("owner") String owner, @Param("expiresAtMs") long expiresAtMs);
+
+    @Transactional
+    @Modifying
+    @Query("update WorkerLease l set l.owner = :owner, l.expiresAtMs = :expiresAtMs " +
+           "where l.workerId = :workerId and l.expiresAtMs < :now")
+    int takeOverExpired(@Param("workerId") int workerId, @Param("owner") String owner,
+                        @Param("expiresAtMs") long expiresAtMs, @Param("now") long now);
+
+    @Transactional
+    @Modifying
+    // An expired row is up for takeover, so it is not renewed even when the owner still matches
+    @Query("update WorkerLease l set l.expiresAtMs = :expiresAtMs " +
+           "where l.workerId = :workerId and l.owner = :owner and l.expiresAtMs >= :now")
+    int renew(@Param("workerId") int workerId, @Param("owner") String owner,
+              @Param("expiresAtMs") long expiresAtMs, @Param("now") long now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from WorkerLease l where l.workerId = :workerId and l.owner = :owner")
+    int release(@Param("workerId") int workerId, @Param("owner") String owner);
+}
@@ -1,44 +1,130 @@
 package com.patterns.dp_springboot.singleton.service;
 
+import com.patterns.dp_springboot.singleton.dto.IdStreamFormat;
+import com.patterns.dp_springboot.singleton.dto.IdWindowResponse;
 import com.patterns.dp_springboot.singleton.dto.SnowflakeResponse;
+import com.patterns.dp_springboot.singleton.exception.IdIndexDisabledException;
+import com.patterns.dp_springboot.singleton.exception.InvalidTimeWindowException;
 import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdRange;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.index.SnowflakeIdIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.function.LongConsumer;
 
 @Service
 @RequiredArgsConstructor
 public class SnowflakeService {
 
-    private static final long EPOCH           = 1700000000000L;
-    private static final long SEQUENCE_BITS   = 12L;
-    private static final long WORKER_BITS     = 10L;
-    private static final long SEQUENCE_MASK   = ~(-1L << SEQUENCE_BITS);
-    private static final long WORKER_MASK     = ~(-1L << WORKER_BITS);
-    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS;
-    private static final long WORKER_SHIFT    = SEQUENCE_BITS;
+    private static final int STREAM_CHUNK = 4096; // one full ms of sequence per reservation
 
     private final SnowflakeIdGenerator generator;
+    private final SnowflakeIdIndex index;
 
     public SnowflakeResponse generate() {
-        return parse(generator.nextId());
+        long id = generator.nextId();
+        index.add(id);
+        return parse(id);
     }
 
+    // One reservation for the whole batch — one lock + clock read per ms, not per ID
     public List<SnowflakeResponse> generateBatch(int count) {
-        return IntStream.range(0, count)
-                .mapToObj(i -> parse(generator.nextId()))
+        if (count <= 0) {
+            return List.of();
+        }
+        SnowflakeIdRange range = generator.reserveRange(count);
+        index.add(range);
+        return Arrays.stream(range.toArray())
+                .mapToObj(this::parse)
                 .toList();
     }
 
-    // Decompose the 64-bit ID back into its parts — useful for debugging
-    private SnowflakeResponse parse(long id) {
-        long timestampMs = (id >> TIMESTAMP_SHIFT) + EPOCH;
-        long workerId    = (id >> WORKER_SHIFT) & WORKER_MASK;
-        long sequence    = id & SEQUENCE_MASK;
+    /**
+     * Writes {@code count} raw IDs straight to {@code out} — no per-ID objects, no JSON.
+     * IDs are reserved and flushed in chunks so memory stays flat however large count is.
+     */
+    public void stream(int count, IdStreamFormat format, OutputStream out) throws IOException {
+        IdChunkWriter writer = new IdChunkWriter(format);
+        int remaining = count;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, STREAM_CHUNK);
+            writer.reset();
+            SnowflakeIdRange range = generator.reserveRange(chunk);
+            index.add(range);
+            range.forEach(writer);
+            out.write(writer.buffer, 0, writer.position);
+            remaining -= chunk;
+        }
+        out.flush();
+    }
+
+    public IdWindowResponse findIds(long fromMs, long toMs, long workerId, int limit) {
+        if (fromMs > toMs) {
+            throw new InvalidTimeWindowException(fromMs, toMs);
+        }
+        if (!index.isEnabled()) {
+            throw new IdIndexDisabledException();
+        }
+        // Ask for one more than the limit — its presence is what tells us the window was cut short
+        long[] ids = index.query(fromMs, toMs, workerId, limit + 1);
+        boolean truncated = ids.length > limit;
+        if (truncated) {
+            ids = Arrays.copyOf(ids, limit);
+        }
+        return new IdWindowResponse(fromMs, toMs, workerId, ids.length, truncated, ids);
+    }
+
+    // Decoded view for humans — allocates a record + ISO string; use SnowflakeLayout on hot paths
+    public SnowflakeResponse parse(long id) {
+        long timestampMs = SnowflakeLayout.timestampMs(id);
         String readable  = Instant.ofEpochMilli(timestampMs).toString();
-        return new SnowflakeResponse(id, workerId, sequence, timestampMs, readable);
+        return new SnowflakeResponse(id, SnowflakeLayout.workerId(id), SnowflakeLayout.sequence(id), timestampMs, readable);
+    }
+
+    // Encodes one chunk into a reused byte[] — the only allocation per stream is this object
+    private static final class IdChunkWriter implements LongConsumer {
+
+        private static final int MAX_TEXT_BYTES = 20; // 19 digits + '\n'
+
+        private final IdStreamFormat format;
+        private final byte[] buffer;
+        private int position;
+
+        IdChunkWriter(IdStreamFormat format) {
+            this.format = format;
+            this.buffer = new byte[STREAM_CHUNK * (format == IdStreamFormat.BINARY ? Long.BYTES : MAX_TEXT_BYTES)];
+        }
+
+        void reset() {
+            position = 0;
+        }
+
+        @Override
+        public void accept(long id) {
+            if (format == IdStreamFormat.BINARY) {
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    buffer[position++] = (byte) (id >>> shift);
+                }
+            } else {
+                int digits = 1;
+                for (long v = id; v >= 10; v /= 10) {
+                    digits++;
+                }
+                int end = position + digits;
+                for (int i = end - 1; i >= position; i--) {
+                    buffer[i] = (byte) ('0' + id % 10);
+                    id /= 10;
+                }
+                buffer[end] = '\n';
+                position = end + 1;
+            }
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.patterns.dp_springboot.strategy.batch;
+
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.exception.DispatcherStoppedException;
+import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
+import com.patterns.dp_springboot.strategy.resilience.DispatchResilience;
+import com.patterns.dp_springboot.strategy.senders.DataSenderStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Groups dispatches for the batching channels by channel + topic and hands each group to
+ * {@link com.patterns.dp_springboot.strategy.senders.DataSenderStrategy#sendBatch} when it
+ * reaches {@code max-size} requests, {@code max-bytes} of payload, or {@code linger-ms}
+ * after its first request — whichever comes first.
+ *
+ * Every {@link #add} gets its own future, completed with the outcome of the batch it
+ * went out in. Batches are sent on {@code flushExecutor}, never under a buffer lock, and
+ * whatever is still buffered is flushed on shutdown.
+ *
+ * At shutdown the shared executor and scheduler are shut down on ContextClosedEvent, before
+ * any lifecycle stop runs — while DispatchQueue is still draining into this accumulator.
+ * A flush or linger timer they reject is therefore sent on the calling thread, and the final
+ * flush in {@link #stop} always is. Once stopped, {@link #add} fails with
+ * DispatcherStoppedException instead of buffering requests nothing would send.
+ */
+@Slf4j
+@Component
+public class DispatchAccumulator implements SmartLifecycle {
+
+    private final DataSenderRegistry registry;
+    private final DispatchResilience resilience;
+    private final Executor flushExecutor;
+    private final TaskScheduler scheduler;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> channels;
+    private final int maxSize;
+    private final long maxBytes;
+    private final Duration linger;
+
+    private final Map<Key, Buffer> buffers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public DispatchAccumulator(DataSenderRegistry registry,
+                               DispatchResilience resilience,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor flushExecutor,
+                               TaskScheduler scheduler,
+                               MeterRegistry meterRegistry,
+                               @Value("${dispatch.batch.channels:kafka,redis}") Set<String> channels,
+                               @Value("${dispatch.batch.max-size:500}") int maxSize,
+                               @Value("${dispatch.batch.max-bytes:1048576}") long maxBytes,
+                               @Value("${dispatch.batch.linger-ms:5}") long lingerMs) {
+        if (maxSize < 1 || maxBytes < 1 || lingerMs < 0) {
+            throw new IllegalArgumentException("dispatch.batch.max-size and max-bytes must be >= 1, linger-ms >= 0");
+        }
+        this.registry      = registry;
+        this.resilience    = resilience;
+        this.flushExecutor = flushExecutor;
+        this.scheduler     = scheduler;
+        this.meterRegistry = meterRegistry;
+        this.channels      = Set.copyOf(channels);
+        this.maxSize       = maxSize;
+        this.maxBytes      = maxBytes;
+        this.linger        = Duration.ofMillis(lingerMs);
+    }
+
+    public boolean batches(String channel) {
+        return channels.contains(channel);
+    }
+
+    /** Buffers the request; the future completes once its batch has been sent. */
+    public CompletableFuture<Void> add(DispatchRequest request) {
+        registry.resolve(request.channel());
+        return buffers.computeIfAbsent(new Key(request.channel(), request.topic()), Buffer::new)
+                .add(request, request.payload().size());
+    }
+
+    @Override
+    public void start() {
+        log.info("[DISPATCH BATCH] channels={} max-size={} max-bytes={} linger={} ms", channels, maxSize, maxBytes, linger.toMillis());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        // Buffers check running under their lock, so an add either lands before this flush or is refused
+        running = false;
+        buffers.values().forEach(b -> b.flush("shutdown", true));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Below the default phase: stops after DispatchQueue has drained into it. The shared executors
+    // are already shut down by then, which is why the final flush runs on the stopping thread
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    private record Key(String channel, String topic) {}
+
+    private record Batch(List<DispatchRequest> requests, List<CompletableFuture<Void>> futures, long bytes) {}
+
+    private final class Buffer {
+
+        private final Key key;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<DispatchRequest> requests = new ArrayList<>();
+        private List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private long bytes;
+        private ScheduledFuture<?> lingerTimer;
+
+        private final DistributionSummary batchSize;
+        private final DistributionSummary batchBytes;
+
+        Buffer(Key key) {
+            this.key = key;
+            this.batchSize = DistributionSummary.builder("dispatch.batch.size")
+                    .tag("channel", key.channel())
+                    .register(meterRegistry);
+            this.batchBytes = DistributionSummary.builder("dispatch.batch.bytes")
+                    .baseUnit("bytes")
+                    .tag("channel", key.channel())
+                    .register(meterRegistry);
+        }
+
+        CompletableFuture<Void> add(DispatchRequest request, int size) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Batch full = null;
+            String trigger = null;
+            lock.lock();
+            try {
+                if (!running) {
+                    return CompletableFuture.failedFuture(new DispatcherStoppedException("dispatch accumulator"));
+                }
+                requests.add(request);
+                futures.add(future);
+                bytes += size;
+                if (requests.size() >= maxSize) {
+                    trigger = "size";
+                } else if (bytes >= maxBytes) {
+                    trigger = "bytes";
+                } else if (requests.size() == 1) {
+                    // First request of a new batch starts the linger clock — unless the scheduler is
+                    // already shut down, in which case nothing would ever flush it: send it now
+                    try {
+                        lingerTimer = scheduler.schedule(() -> flush("linger", false), Instant.now().plus(linger));
+                    } catch (RejectedExecutionException e) {
+                        trigger = "linger";
+                    }
+                }
+                if (trigger != null) {
+                    full = drain();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (full != null) {
+                send(full, trigger, false);
+            }
+            return future;
+        }
+
+        void flush(String trigger, boolean inline) {
+            Batch pending;
+            lock.lock();
+            try {
+                pending = requests.isEmpty() ? null : drain();
+            } finally {
+                lock.unlock();
+            }
+            if (pending != null) {
+                send(pending, trigger, inline);
+            }
+        }
+
+        // Caller holds the lock
+        private Batch drain() {
+            Batch out = new Batch(requests, futures, bytes);
+            requests = new ArrayList<>();
+            futures  = new ArrayList<>();
+            bytes    = 0;
+            if (lingerTimer != null) {
+                lingerTimer.cancel(false);
+                lingerTimer = null;
+            }
+            return out;
+        }
+
+        private void send(Batch batch, String trigger, boolean inline) {
+            batchSize.record(batch.requests().size());
+            batchBytes.record(batch.bytes());
+            Counter.builder("dispatch.batch.flushes")
+                    .tag("channel", key.channel())
+                    .tag("trigger", trigger)
+                    .register(meterRegistry)
+                    .increment();
+            Runnable sendBatch = () -> {
+                // The whole batch is one call for the channel's limiter and breaker
+                DataSenderStrategy sender = registry.resolve(key.channel());
+                resilience.execute(sender.isolationKey(batch.requests().get(0)), () -> sender.sendBatch(batch.requests()))
+                        .whenComplete((v, error) -> {
+                            if (error != null) {
+                                log.warn("[DISPATCH BATCH] {} batch of {} to '{}' failed: {}", key.channel(), batch.requests().size(), key.topic(), error.getMessage());
+                                batch.futures().forEach(f -> f.completeExceptionally(error));
+                            } else {
+                                batch.futures().forEach(f -> f.complete(null));
+                            }
+                        });
+            };
+            if (inline) {
+                sendBatch.run();
+                return;
+            }
+            try {
+                flushExecutor.execute(sendBatch);
+            } catch (RejectedExecutionException e) {
+                // Executor already shut down (context closing) — a dropped batch would strand its callers
+                sendBatch.run();
+            }
+        }
+    }
+}
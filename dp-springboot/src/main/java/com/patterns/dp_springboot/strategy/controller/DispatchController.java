@@ -1,7 +1,11 @@
 package com.patterns.dp_springboot.strategy.controller;
 
+import com.patterns.dp_springboot.strategy.dto.DispatchAccepted;
+import com.patterns.dp_springboot.strategy.dto.DispatchBatchRequest;
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
 import com.patterns.dp_springboot.strategy.dto.DispatchResult;
+import com.patterns.dp_springboot.strategy.dto.DispatchStatus;
+import com.patterns.dp_springboot.strategy.queue.DispatchQueue;
 import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
 import com.patterns.dp_springboot.strategy.service.DispatchService;
 import jakarta.validation.Valid;
@@ -9,7 +13,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/dispatch")
@@ -18,10 +24,32 @@ public class DispatchController {
 
     private final DispatchService dispatchService;
     private final DataSenderRegistry registry;
+    private final DispatchQueue dispatchQueue;
 
+    // Async servlet request: the Tomcat thread is released while the send is in flight
     @PostMapping
-    public ResponseEntity<DispatchResult> dispatch(@Valid @RequestBody DispatchRequest request) {
-        return ResponseEntity.ok(dispatchService.dispatch(request));
+    public CompletableFuture<ResponseEntity<DispatchResult>> dispatch(@Valid @RequestBody DispatchRequest request) {
+        return dispatchService.dispatchAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    // All requests in flight at once; one result per request, failures reported per item
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<DispatchResult>>> dispatchAll(@Valid @RequestBody DispatchBatchRequest request) {
+        return dispatchService.dispatchAll(request.requests()).thenApply(ResponseEntity::ok);
+    }
+
+    // Fire-and-forget: 202 once queued, 429 when the channel's queue is full; poll the Location for the outcome
+    @PostMapping("/queue")
+    public ResponseEntity<DispatchAccepted> enqueue(@Valid @RequestBody DispatchRequest request) {
+        DispatchAccepted accepted = dispatchQueue.enqueue(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/dispatch/status/" + accepted.trackingId()))
+                .body(accepted);
+    }
+
+    @GetMapping("/status/{trackingId}")
+    public ResponseEntity<DispatchStatus> status(@PathVariable String trackingId) {
+        return ResponseEntity.ok(dispatchQueue.status(trackingId));
     }
 
     @GetMapping("/channels")
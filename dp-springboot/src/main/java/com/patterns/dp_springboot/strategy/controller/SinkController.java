@@ -0,0 +1,83 @@
+package com.patterns.dp_springboot.strategy.controller;
+
+import com.patterns.dp_springboot.strategy.dto.SinkRecord;
+import com.patterns.dp_springboot.strategy.dto.SinkSnapshot;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import com.patterns.dp_springboot.strategy.senders.RedisStreamDataSender;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog;
+import com.patterns.dp_springboot.strategy.sink.StreamStore;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read side of the in-process stand-in brokers — lets a load test check what actually landed
+@RestController
+@RequestMapping("/api/v1/dispatch/sinks")
+@RequiredArgsConstructor
+public class SinkController {
+
+    private final PartitionedLog partitionedLog;
+    private final StreamStore streamStore;
+
+    @GetMapping
+    public ResponseEntity<SinkSnapshot> snapshot() {
+        return ResponseEntity.ok(new SinkSnapshot(partitionedLog.stats(), streamStore.stats()));
+    }
+
+    @GetMapping("/kafka/{topic}/{partition}")
+    public ResponseEntity<List<SinkRecord>> fetch(@PathVariable String topic,
+                                                  @PathVariable int partition,
+                                                  @RequestParam(defaultValue = "0") long offset,
+                                                  @RequestParam(defaultValue = "100") @Positive @Max(10_000) int max) {
+        return ResponseEntity.ok(partitionedLog.read(topic, partition, offset, max).stream()
+                .map(r -> record(String.valueOf(r.offset()), r.headers(), r.value()))
+                .toList());
+    }
+
+    // XGROUP CREATE (from the start, if missing) + XREADGROUP >; ack=true also XACKs what was read.
+    // Reading never creates the stream — an unknown one just returns nothing
+    @PostMapping("/redis/{stream}/groups/{group}/read")
+    public ResponseEntity<List<SinkRecord>> readGroup(@PathVariable String stream,
+                                                      @PathVariable String group,
+                                                      @RequestParam(defaultValue = "consumer-1") String consumer,
+                                                      @RequestParam(defaultValue = "100") @Positive @Max(10_000) int count,
+                                                      @RequestParam(defaultValue = "false") boolean ack) {
+        streamStore.createGroup(stream, group, true);
+        List<StreamStore.StreamEntry> entries = streamStore.readGroup(stream, group, consumer, count);
+        if (ack) {
+            streamStore.ack(stream, group, entries.stream().map(StreamStore.StreamEntry::id).toList());
+        }
+        return ResponseEntity.ok(entries.stream()
+                .map(SinkController::record)
+                .toList());
+    }
+
+    @PostMapping("/redis/{stream}/groups/{group}/ack")
+    public ResponseEntity<Integer> ack(@PathVariable String stream,
+                                       @PathVariable String group,
+                                       @RequestBody List<String> ids) {
+        return ResponseEntity.ok(streamStore.ack(stream, group, ids));
+    }
+
+    private static SinkRecord record(String position, Map<String, String> headers, byte[] value) {
+        return new SinkRecord(position, headers, value.length, PayloadEncoder.decodeToString(value, headers));
+    }
+
+    // Stream entry fields other than the payload are its encoding headers
+    private static SinkRecord record(StreamStore.StreamEntry entry) {
+        Map<String, String> headers = new HashMap<>();
+        entry.fields().forEach((name, value) -> {
+            if (!name.equals(RedisStreamDataSender.PAYLOAD_FIELD)) {
+                headers.put(name, new String(value, StandardCharsets.UTF_8));
+            }
+        });
+        return record(entry.id(), headers, entry.fields().get(RedisStreamDataSender.PAYLOAD_FIELD));
+    }
+}
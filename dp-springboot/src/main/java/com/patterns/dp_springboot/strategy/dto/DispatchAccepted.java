@@ -0,0 +1,6 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+public record DispatchAccepted(
+        String trackingId,
+        DispatchState state
+) {}
@@ -0,0 +1,13 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record DispatchBatchRequest(
+        @NotEmpty @Size(max = DispatchBatchRequest.MAX_REQUESTS) List<@Valid DispatchRequest> requests
+) {
+    public static final int MAX_REQUESTS = 1_000;
+}
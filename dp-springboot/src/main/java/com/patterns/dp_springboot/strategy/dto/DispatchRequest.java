@@ -3,10 +3,9 @@ package com.patterns.dp_springboot.strategy.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.util.Map;
-
+// Only channel and topic are routing data; payload stays the caller's JSON bytes end to end
 public record DispatchRequest(
         @NotBlank String channel,
         @NotBlank String topic,
-        @NotNull  Map<String, Object> payload
+        @NotNull  RawJson payload
 ) {}
@@ -0,0 +1,9 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+/** Lifecycle of a queued dispatch: QUEUED → IN_FLIGHT → DELIVERED | FAILED. */
+public enum DispatchState {
+    QUEUED,
+    IN_FLIGHT,
+    DELIVERED,
+    FAILED
+}
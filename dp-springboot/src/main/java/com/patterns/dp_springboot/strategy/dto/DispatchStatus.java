@@ -0,0 +1,27 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DispatchStatus(
+        String trackingId,
+        String channel,
+        String topic,
+        DispatchState state,
+        String message,
+        long acceptedAtMs,
+        Long completedAtMs
+) {
+    public DispatchStatus inFlight() {
+        return new DispatchStatus(trackingId, channel, topic, DispatchState.IN_FLIGHT, null, acceptedAtMs, null);
+    }
+
+    // Shed by the channel's concurrency limit — back in line, not failed
+    public DispatchStatus requeued() {
+        return new DispatchStatus(trackingId, channel, topic, DispatchState.QUEUED, null, acceptedAtMs, null);
+    }
+
+    public DispatchStatus completed(DispatchState state, String message) {
+        return new DispatchStatus(trackingId, channel, topic, state, message, acceptedAtMs, System.currentTimeMillis());
+    }
+}
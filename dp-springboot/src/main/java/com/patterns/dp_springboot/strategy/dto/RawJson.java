@@ -0,0 +1,124 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A JSON object carried as its UTF-8 bytes — never bound to a Map.
+ *
+ * Reading copies the object's tokens straight into a byte buffer: field names, strings and
+ * numbers go through as the parser's char slices, so nothing is boxed and numbers keep
+ * their original text (no double rounding, no BigDecimal). Senders write {@link #bytes()}
+ * as-is. Writing a RawJson back out emits it unchanged as a raw value.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+
+    private final byte[] bytes;
+
+    private RawJson(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /** Wraps bytes the caller guarantees are one UTF-8 JSON object; the array is not copied. */
+    public static RawJson of(byte[] json) {
+        return new RawJson(json);
+    }
+
+    public static RawJson of(String json) {
+        return new RawJson(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The encoded object — shared, not copied; callers must not modify it. */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RawJson other && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static final class Deserializer extends StdDeserializer<RawJson> {
+
+        // Thread-safe; only creates the generator that writes the copy
+        private static final JsonFactory JSON = new JsonFactory();
+
+        Deserializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public RawJson deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                return ctxt.reportInputMismatch(this, "payload must be a JSON object, got %s", p.currentToken());
+            }
+            ByteArrayBuilder out = new ByteArrayBuilder();
+            try (JsonGenerator g = JSON.createGenerator(out)) {
+                copyObject(p, g);
+            }
+            return new RawJson(out.toByteArray());
+        }
+
+        // Like JsonGenerator.copyCurrentStructure, but numbers are copied as text instead of
+        // being decoded and re-encoded; the parser is left on the object's END_OBJECT
+        private static void copyObject(JsonParser p, JsonGenerator g) throws IOException {
+            int depth = 0;
+            JsonToken t = p.currentToken();
+            do {
+                switch (t) {
+                    case START_OBJECT -> { g.writeStartObject(); depth++; }
+                    case START_ARRAY  -> { g.writeStartArray();  depth++; }
+                    case END_OBJECT   -> { g.writeEndObject();   depth--; }
+                    case END_ARRAY    -> { g.writeEndArray();    depth--; }
+                    case FIELD_NAME   -> g.writeFieldName(p.currentName());
+                    case VALUE_STRING -> g.writeString(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT ->
+                            g.writeNumber(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    default -> g.copyCurrentEvent(p);
+                }
+            } while (depth > 0 && (t = p.nextToken()) != null);
+        }
+    }
+
+    static final class Serializer extends StdSerializer<RawJson> {
+
+        Serializer() {
+            super(RawJson.class);
+        }
+
+        // Off the dispatch path (responses, test clients) — the String round trip is acceptable there
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeRawValue(value.toString());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import java.util.Map;
+
+// position = Kafka offset or Redis stream entry id; headers / wireBytes = the encoding and size as stored;
+// payload = the stored bytes decoded back to JSON
+public record SinkRecord(
+        String position,
+        Map<String, String> headers,
+        int wireBytes,
+        String payload
+) {}
@@ -0,0 +1,11 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog;
+import com.patterns.dp_springboot.strategy.sink.StreamStore;
+
+import java.util.List;
+
+public record SinkSnapshot(
+        List<PartitionedLog.TopicStats> kafka,
+        List<StreamStore.StreamStats> redis
+) {}
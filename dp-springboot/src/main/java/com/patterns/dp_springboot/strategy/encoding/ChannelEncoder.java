@@ -0,0 +1,108 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Encodes payloads for one channel — obtained once per sender from
+ * {@link PayloadEncoder#forChannel}.
+ *
+ * Uncompressed JSON is the caller's bytes, untouched. Anything else is built in pooled
+ * scratch buffers and copied out once, at its final size. Compression is only kept when it
+ * actually makes the payload smaller.
+ */
+public final class ChannelEncoder {
+
+    private final String channel;
+    private final ChannelEncoding settings;
+    private final EncodeScratchPool pool;
+    private final DistributionSummary rawBytes;
+    private final DistributionSummary wireBytes;
+    private final Counter compressed;
+    private final Counter belowThreshold;
+    private final Counter noGain;
+
+    ChannelEncoder(String channel, ChannelEncoding settings, EncodeScratchPool pool, MeterRegistry meterRegistry) {
+        this.channel        = channel;
+        this.settings       = settings;
+        this.pool           = pool;
+        this.rawBytes       = DistributionSummary.builder("dispatch.encoding.raw.bytes")
+                .description("Payload size as received (JSON)")
+                .baseUnit("bytes").tag("channel", channel).register(meterRegistry);
+        this.wireBytes      = DistributionSummary.builder("dispatch.encoding.wire.bytes")
+                .description("Payload size as sent, after codec and compression")
+                .baseUnit("bytes").tag("channel", channel).register(meterRegistry);
+        this.compressed     = compression(meterRegistry, "compressed");
+        this.belowThreshold = compression(meterRegistry, "below_threshold");
+        this.noGain         = compression(meterRegistry, "no_gain");
+    }
+
+    public ChannelEncoding settings() {
+        return settings;
+    }
+
+    public EncodedPayload encode(DispatchRequest request) {
+        byte[] json = request.payload().bytes();
+        rawBytes.record(json.length);
+        PayloadCodec codec = settings.codec();
+        PayloadCompression compression = settings.compression();
+
+        if (codec == PayloadCodec.JSON && (compression == PayloadCompression.NONE || json.length < settings.compressionThresholdBytes())) {
+            if (compression != PayloadCompression.NONE) {
+                belowThreshold.increment();
+            }
+            wireBytes.record(json.length);
+            return new EncodedPayload(json, codec, PayloadCompression.NONE);
+        }
+
+        EncodeScratch scratch = pool.acquire();
+        try {
+            byte[] src = json;
+            int length = json.length;
+            if (codec != PayloadCodec.JSON) {
+                codec.encode(json, json.length, scratch.encoded);
+                src    = scratch.encoded.array();
+                length = scratch.encoded.size();
+            }
+
+            PayloadCompression applied = PayloadCompression.NONE;
+            if (compression != PayloadCompression.NONE) {
+                if (length < settings.compressionThresholdBytes()) {
+                    belowThreshold.increment();
+                } else {
+                    compression.compress(src, length, scratch);
+                    if (scratch.compressed.size() < length) {
+                        src     = scratch.compressed.array();
+                        length  = scratch.compressed.size();
+                        applied = compression;
+                        compressed.increment();
+                    } else {
+                        noGain.increment();
+                    }
+                }
+            }
+
+            byte[] wire = src == json ? json : Arrays.copyOf(src, length);
+            wireBytes.record(wire.length);
+            return new EncodedPayload(wire, codec, applied);
+        } catch (IOException | RuntimeException e) {
+            throw new DeliveryFailedException(channel, request.topic(), e);
+        } finally {
+            pool.release(scratch);
+        }
+    }
+
+    private Counter compression(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("dispatch.encoding.compression")
+                .description("Compression decisions per payload")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
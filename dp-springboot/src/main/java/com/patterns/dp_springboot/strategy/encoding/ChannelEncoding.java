@@ -0,0 +1,15 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+/**
+ * Encoding settings of one dispatch channel — {@code dispatch.encoding.<channel>.*}, each
+ * falling back to {@code dispatch.encoding.default.*}.
+ *
+ * @param codec                     wire format of the payload
+ * @param compression               applied to encoded payloads of at least the threshold
+ * @param compressionThresholdBytes smaller payloads are sent uncompressed — the header and CPU outweigh the saving
+ */
+public record ChannelEncoding(
+        PayloadCodec codec,
+        PayloadCompression compression,
+        int compressionThresholdBytes
+) {}
@@ -0,0 +1,58 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte array that codecs write into and compressors fill directly — a
+ * ByteArrayOutputStream without the locking, with access to the backing array so the
+ * result is copied exactly once.
+ */
+final class EncodeBuffer extends OutputStream {
+
+    private byte[] buf;
+    private int size;
+
+    EncodeBuffer(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buf[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, buf, size, len);
+        size += len;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+        }
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    int capacity() {
+        return buf.length;
+    }
+
+    void reset() {
+        size = 0;
+    }
+}
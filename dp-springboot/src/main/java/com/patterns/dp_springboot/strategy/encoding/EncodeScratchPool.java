@@ -0,0 +1,44 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded free list of {@link EncodeScratch}. A miss allocates a new one, so encoding never
+ * waits on the pool. Scratch that grew past {@code maxRetainedBytes} (one unusually large
+ * payload) is dropped on release instead of pinning that memory for good.
+ *
+ * A shared queue rather than a ThreadLocal: with virtual threads every request is a new
+ * thread, and a per-thread buffer would never be reused.
+ */
+final class EncodeScratchPool {
+
+    private final ArrayBlockingQueue<EncodeScratch> free;
+    private final int initialCapacity;
+    private final int maxRetainedBytes;
+
+    EncodeScratchPool(int size, int initialCapacity, int maxRetainedBytes) {
+        if (size < 1 || initialCapacity < 1 || maxRetainedBytes < 2 * initialCapacity) {
+            throw new IllegalArgumentException("dispatch.encoding.buffer-pool.size must be >= 1 and max-retained-bytes >= "
+                    + 2 * initialCapacity);
+        }
+        this.free             = new ArrayBlockingQueue<>(size);
+        this.initialCapacity  = initialCapacity;
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    EncodeScratch acquire() {
+        EncodeScratch scratch = free.poll();
+        return scratch != null ? scratch : new EncodeScratch(initialCapacity);
+    }
+
+    void release(EncodeScratch scratch) {
+        scratch.reset();
+        if (scratch.retainedBytes() > maxRetainedBytes || !free.offer(scratch)) {
+            scratch.close();
+        }
+    }
+
+    int idle() {
+        return free.size();
+    }
+}
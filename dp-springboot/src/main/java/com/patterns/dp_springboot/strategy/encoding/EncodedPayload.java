@@ -0,0 +1,24 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import java.util.Map;
+
+/**
+ * A payload as it goes on the wire, plus what a consumer needs to read it back. Plain JSON
+ * carries no headers, so consumers of unencoded channels see exactly what they saw before.
+ */
+public record EncodedPayload(
+        byte[] bytes,
+        PayloadCodec codec,
+        PayloadCompression compression
+) {
+    public static final String CONTENT_TYPE     = "content-type";
+    public static final String CONTENT_ENCODING = "content-encoding";
+
+    /** Record headers / stream fields describing the encoding — empty for uncompressed JSON. */
+    public Map<String, String> headers() {
+        if (compression == PayloadCompression.NONE) {
+            return codec == PayloadCodec.JSON ? Map.of() : Map.of(CONTENT_TYPE, codec.contentType());
+        }
+        return Map.of(CONTENT_TYPE, codec.contentType(), CONTENT_ENCODING, compression.contentEncoding());
+    }
+}
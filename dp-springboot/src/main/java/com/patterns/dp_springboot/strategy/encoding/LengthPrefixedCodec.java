@@ -0,0 +1,207 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@link PayloadCodec#BINARY} wire format: the JSON token stream with every string
+ * length-prefixed instead of quoted and escaped, and integers as varints.
+ *
+ *  0x01 {   0x02 }   0x03 [   0x04 ]
+ *  0x05 varint(n) n bytes UTF-8       field name
+ *  0x06 varint(n) n bytes UTF-8       string
+ *  0x07 zigzag varint                 integer that fits a long
+ *  0x08 varint(n) n bytes ASCII       any other number, as its JSON text — exact, never rounded
+ *  0x09 true   0x0A false   0x0B null
+ *
+ * No separators, quotes or escapes, so a reader skips a value by its length without
+ * looking at its bytes. Field names are not deduplicated — pair it with compression, or use
+ * SMILE, when the same names repeat across an array.
+ */
+final class LengthPrefixedCodec {
+
+    static final int TAG_START_OBJECT = 0x01;
+    static final int TAG_END_OBJECT   = 0x02;
+    static final int TAG_START_ARRAY  = 0x03;
+    static final int TAG_END_ARRAY    = 0x04;
+    static final int TAG_FIELD_NAME   = 0x05;
+    static final int TAG_STRING       = 0x06;
+    static final int TAG_INT          = 0x07;
+    static final int TAG_NUMBER_TEXT  = 0x08;
+    static final int TAG_TRUE         = 0x09;
+    static final int TAG_FALSE        = 0x0A;
+    static final int TAG_NULL         = 0x0B;
+
+    private LengthPrefixedCodec() {
+    }
+
+    /** Writes the value the parser is about to read (one JSON document). */
+    static void write(JsonParser p, OutputStream out) throws IOException {
+        if (p.nextToken() == null) {
+            throw new IOException("Empty payload");
+        }
+        int depth = 0;
+        do {
+            JsonToken t = p.currentToken();
+            switch (t) {
+                case START_OBJECT -> { out.write(TAG_START_OBJECT); depth++; }
+                case START_ARRAY  -> { out.write(TAG_START_ARRAY);  depth++; }
+                case END_OBJECT   -> { out.write(TAG_END_OBJECT);   depth--; }
+                case END_ARRAY    -> { out.write(TAG_END_ARRAY);    depth--; }
+                case FIELD_NAME   -> writeString(out, TAG_FIELD_NAME, p.currentName());
+                case VALUE_STRING -> writeChars(out, TAG_STRING, p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                case VALUE_NUMBER_INT -> {
+                    if (p.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                        writeChars(out, TAG_NUMBER_TEXT, p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    } else {
+                        out.write(TAG_INT);
+                        long v = p.getLongValue();
+                        writeVarint(out, (v << 1) ^ (v >> 63));
+                    }
+                }
+                case VALUE_NUMBER_FLOAT -> writeChars(out, TAG_NUMBER_TEXT, p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                case VALUE_TRUE  -> out.write(TAG_TRUE);
+                case VALUE_FALSE -> out.write(TAG_FALSE);
+                case VALUE_NULL  -> out.write(TAG_NULL);
+                default -> throw new IOException("Unsupported JSON token " + t);
+            }
+        } while (depth > 0 && p.nextToken() != null);
+    }
+
+    /** Replays an encoded document into the generator. */
+    static void read(byte[] in, JsonGenerator g) throws IOException {
+        Reader r = new Reader(in);
+        int depth = 0;
+        do {
+            if (r.pos >= in.length) {
+                throw new IOException("Truncated binary payload at byte " + r.pos);
+            }
+            int tag = in[r.pos++];
+            switch (tag) {
+                case TAG_START_OBJECT -> { g.writeStartObject(); depth++; }
+                case TAG_START_ARRAY  -> { g.writeStartArray();  depth++; }
+                case TAG_END_OBJECT   -> { g.writeEndObject();   depth--; }
+                case TAG_END_ARRAY    -> { g.writeEndArray();    depth--; }
+                case TAG_FIELD_NAME   -> g.writeFieldName(r.string());
+                case TAG_STRING       -> {
+                    int length = r.length();
+                    g.writeUTF8String(in, r.pos, length);
+                    r.pos += length;
+                }
+                case TAG_INT          -> {
+                    long zigzag = r.varint();
+                    g.writeNumber((zigzag >>> 1) ^ -(zigzag & 1));
+                }
+                case TAG_NUMBER_TEXT  -> g.writeNumber(r.string());
+                case TAG_TRUE         -> g.writeBoolean(true);
+                case TAG_FALSE        -> g.writeBoolean(false);
+                case TAG_NULL         -> g.writeNull();
+                default -> throw new IOException("Unknown binary payload tag 0x" + Integer.toHexString(tag & 0xFF) + " at byte " + (r.pos - 1));
+            }
+        } while (depth > 0);
+    }
+
+    private static void writeString(OutputStream out, int tag, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.write(tag);
+        writeVarint(out, utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    // Straight from the parser's char buffer: one pass for the length, one to encode
+    private static void writeChars(OutputStream out, int tag, char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        int utf8Length = 0;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;                       // unpaired — '?', as String.getBytes does
+            } else {
+                utf8Length += 3;
+            }
+        }
+        out.write(tag);
+        writeVarint(out, utf8Length);
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                out.write(c);
+            } else if (c < 0x800) {
+                out.write(0xC0 | (c >> 6));
+                out.write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                int cp = Character.toCodePoint(c, chars[++i]);
+                out.write(0xF0 | (cp >> 18));
+                out.write(0x80 | ((cp >> 12) & 0x3F));
+                out.write(0x80 | ((cp >> 6) & 0x3F));
+                out.write(0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.write('?');
+            } else {
+                out.write(0xE0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3F));
+                out.write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static void writeVarint(OutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static final class Reader {
+
+        final byte[] in;
+        int pos;
+
+        Reader(byte[] in) {
+            this.in = in;
+        }
+
+        long varint() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= in.length) {
+                    throw new IOException("Truncated varint at byte " + pos);
+                }
+                byte b = in[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed varint ending at byte " + pos);
+        }
+
+        int length() throws IOException {
+            long length = varint();
+            if (length > in.length - pos) {
+                throw new IOException("Length " + length + " at byte " + pos + " runs past the payload");
+            }
+            return (int) length;
+        }
+
+        String string() throws IOException {
+            int length = length();
+            String s = new String(in, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Wire format of a dispatch payload. Payloads arrive as JSON bytes (RawJson); the binary
+ * codecs transcode them token by token — parser straight into generator, no tree or Map
+ * in between.
+ *
+ * Floating-point numbers stay exact. A literal with up to 15 significant digits is written
+ * as a double, because it survives the round trip. Anything longer is written as a
+ * decimal. A consumer decoding CBOR or Smile therefore gets the values the caller sent.
+ * BINARY never converts them at all.
+ */
+public enum PayloadCodec {
+
+    /** The caller's JSON bytes, untouched. */
+    JSON("application/json", null),
+
+    /** RFC 8949 — compact, widely supported outside the JVM. */
+    CBOR("application/cbor", new CBORFactory()),
+
+    /** Jackson's binary JSON — back-references repeated field names, smallest of the four for object arrays. */
+    SMILE("application/x-jackson-smile", new SmileFactory()),
+
+    /**
+     * Length-prefixed tokens (LengthPrefixedCodec) — no quoting or escaping, integers as
+     * varints, every other number kept as its exact text. Not a Jackson format, so it
+     * brings its own encode and decode.
+     */
+    BINARY("application/x-dispatch-binary", null) {
+        @Override
+        public void encode(byte[] json, int length, OutputStream out) throws IOException {
+            try (JsonParser p = JSON_FACTORY.createParser(json, 0, length)) {
+                LengthPrefixedCodec.write(p, out);
+            }
+        }
+
+        @Override
+        public byte[] decode(byte[] encoded) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 2);
+            try (JsonGenerator g = JSON_FACTORY.createGenerator(out)) {
+                LengthPrefixedCodec.read(encoded, g);
+            }
+            return out.toByteArray();
+        }
+    };
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String contentType;
+    private final JsonFactory factory;
+
+    PayloadCodec(String contentType, JsonFactory factory) {
+        this.contentType = contentType;
+        this.factory     = factory;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /** Writes the JSON document {@code json[0, length)} to {@code out} in this format. */
+    public void encode(byte[] json, int length, OutputStream out) throws IOException {
+        if (factory == null) {
+            out.write(json, 0, length);
+            return;
+        }
+        try (JsonParser p = JSON_FACTORY.createParser(json, 0, length);
+             JsonGenerator g = factory.createGenerator(out)) {
+            transcode(p, g, true);
+        }
+    }
+
+    /** The inverse of {@link #encode} — back to JSON bytes (inspection and consumers, not the send path). */
+    public byte[] decode(byte[] encoded) throws IOException {
+        if (factory == null) {
+            return encoded;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 2);
+        try (JsonParser p = factory.createParser(encoded);
+             JsonGenerator g = JSON_FACTORY.createGenerator(out)) {
+            transcode(p, g, false);
+        }
+        return out.toByteArray();
+    }
+
+    public static PayloadCodec fromContentType(String contentType) {
+        for (PayloadCodec codec : values()) {
+            if (codec.contentType.equals(contentType)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payload content type: " + contentType);
+    }
+
+    private static void transcode(JsonParser p, JsonGenerator g, boolean fromJson) throws IOException {
+        if (p.nextToken() == null) {
+            throw new IOException("Empty payload");
+        }
+        int depth = 0;
+        do {
+            JsonToken t = p.currentToken();
+            if (t.isStructStart()) {
+                depth++;
+            } else if (t.isStructEnd()) {
+                depth--;
+            }
+            if (fromJson && t == JsonToken.VALUE_NUMBER_FLOAT) {
+                writeFloat(p, g);
+            } else {
+                g.copyCurrentEvent(p);
+            }
+        } while (depth > 0 && p.nextToken() != null);
+    }
+
+    // BigDecimal only where a double would change the value — it is several times slower and larger
+    private static void writeFloat(JsonParser p, JsonGenerator g) throws IOException {
+        int digits = significantDigits(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        if (digits <= 15) {
+            double d = p.getDoubleValue();
+            // no overflow to Infinity, no underflow to 0 or into the subnormals (fewer than 15 digits of precision)
+            if (digits == 0 || (Double.isFinite(d) && Math.abs(d) >= Double.MIN_NORMAL)) {
+                g.writeNumber(d);
+                return;
+            }
+        }
+        g.writeNumber(p.getDecimalValue());
+    }
+
+    // Mantissa digits, ignoring leading zeros ("0.00120" -> 3); trailing zeros count, which only errs towards BigDecimal
+    private static int significantDigits(char[] text, int offset, int length) {
+        int digits = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = text[i];
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+            if (c >= '1' && c <= '9' || c == '0' && digits > 0) {
+                digits++;
+            }
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,122 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import net.jpountz.lz4.LZ4CompressorWithLength;
+import net.jpountz.lz4.LZ4DecompressorWithLength;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression applied after the codec, for encoded payloads of at least
+ * {@code compression-threshold-bytes}. The name is what goes into the
+ * {@code content-encoding} header / record header / stream field.
+ */
+public enum PayloadCompression {
+
+    /** Identity — the defaults below; ChannelEncoder skips the copy for it altogether. */
+    NONE(null, true),
+
+    /** zlib (RFC 1950) — HTTP's "deflate"; best ratio here, several times the CPU of LZ4. */
+    DEFLATE("deflate", true) {
+        @Override
+        void compress(byte[] src, int length, EncodeScratch scratch) {
+            Deflater deflater = scratch.deflater();
+            deflater.setInput(src, 0, length);
+            deflater.finish();
+            EncodeBuffer out = scratch.compressed;
+            out.ensureCapacity(length / 2 + 64);
+            while (!deflater.finished()) {
+                if (out.size() == out.capacity()) {
+                    out.ensureCapacity(out.capacity() * 2);
+                }
+                out.setSize(out.size() + deflater.deflate(out.array(), out.size(), out.capacity() - out.size()));
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] compressed) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+                byte[] chunk = new byte[8192];
+                while (!inflater.finished()) {
+                    int n = inflater.inflate(chunk);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalArgumentException("Truncated deflate payload");
+                    }
+                    out.write(chunk, 0, n);
+                }
+                return out.toByteArray();
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Corrupt deflate payload", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+
+    /**
+     * LZ4 block with a 4-byte little-endian length prefix (lz4-java's LZ4CompressorWithLength) — cheapest to run.
+     * Not a registered HTTP content-coding, so HTTP channels refuse it.
+     */
+    LZ4("lz4", false) {
+        @Override
+        void compress(byte[] src, int length, EncodeScratch scratch) {
+            EncodeBuffer out = scratch.compressed;
+            out.ensureCapacity(LZ4_COMPRESSOR.maxCompressedLength(length));
+            out.setSize(LZ4_COMPRESSOR.compress(src, 0, length, out.array(), 0, out.capacity()));
+        }
+
+        @Override
+        public byte[] decompress(byte[] compressed) {
+            return LZ4_DECOMPRESSOR.decompress(compressed);
+        }
+    };
+
+    private static final LZ4CompressorWithLength LZ4_COMPRESSOR =
+            new LZ4CompressorWithLength(LZ4Factory.fastestInstance().fastCompressor());
+    private static final LZ4DecompressorWithLength LZ4_DECOMPRESSOR =
+            new LZ4DecompressorWithLength(LZ4Factory.fastestInstance().fastDecompressor());
+
+    private final String contentEncoding;
+    private final boolean httpContentCoding;
+
+    PayloadCompression(String contentEncoding, boolean httpContentCoding) {
+        this.contentEncoding   = contentEncoding;
+        this.httpContentCoding = httpContentCoding;
+    }
+
+    public String contentEncoding() {
+        return contentEncoding;
+    }
+
+    /** Whether an HTTP server can be expected to understand it as a {@code Content-Encoding}. */
+    public boolean isHttpContentCoding() {
+        return httpContentCoding;
+    }
+
+    /** Compresses {@code src[0, length)} into {@code scratch.compressed}, which starts empty. */
+    void compress(byte[] src, int length, EncodeScratch scratch) {
+        scratch.compressed.write(src, 0, length);
+    }
+
+    public byte[] decompress(byte[] compressed) {
+        return compressed;
+    }
+
+    public static PayloadCompression fromContentEncoding(String contentEncoding) {
+        if (contentEncoding == null) {
+            return NONE;
+        }
+        for (PayloadCompression compression : values()) {
+            if (contentEncoding.equals(compression.contentEncoding)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payload content encoding: " + contentEncoding);
+    }
+}
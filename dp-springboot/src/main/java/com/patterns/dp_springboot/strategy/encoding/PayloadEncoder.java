@@ -0,0 +1,105 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Per-channel encoding stage between a DispatchRequest and its sender: codec (JSON, CBOR,
+ * Smile), then compression (none, deflate, lz4) above a size threshold.
+ *
+ * Configured per channel under {@code dispatch.encoding.<channel>.*}; any key a channel
+ * does not set falls back to {@code dispatch.encoding.default.*}. Every sender asks for its
+ * {@link ChannelEncoder} once, at construction, so a bad setting fails startup. All
+ * channels share one pool of scratch buffers.
+ *
+ * HTTP senders use {@link #forHttpChannel}, which also refuses compression that is not an
+ * HTTP content-coding. Only NONE and DEFLATE are valid there: a server would reject
+ * {@code Content-Encoding: lz4} or misread it.
+ */
+@Slf4j
+@Component
+public class PayloadEncoder {
+
+    private static final int INITIAL_SCRATCH_BYTES = 8 * 1024;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ChannelEncoding defaults;
+    private final EncodeScratchPool pool;
+
+    public PayloadEncoder(Environment environment,
+                          MeterRegistry meterRegistry,
+                          @Value("${dispatch.encoding.default.codec:JSON}") PayloadCodec codec,
+                          @Value("${dispatch.encoding.default.compression:NONE}") PayloadCompression compression,
+                          @Value("${dispatch.encoding.default.compression-threshold-bytes:1024}") int compressionThresholdBytes,
+                          @Value("${dispatch.encoding.buffer-pool.size:64}") int poolSize,
+                          @Value("${dispatch.encoding.buffer-pool.max-retained-bytes:1048576}") int maxRetainedBytes) {
+        this.environment   = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaults      = validated("default", new ChannelEncoding(codec, compression, compressionThresholdBytes));
+        this.pool          = new EncodeScratchPool(poolSize, INITIAL_SCRATCH_BYTES, maxRetainedBytes);
+        Gauge.builder("dispatch.encoding.pool.idle", pool, EncodeScratchPool::idle)
+                .description("Scratch buffers waiting in the encode pool")
+                .register(meterRegistry);
+    }
+
+    public ChannelEncoder forChannel(String channel) {
+        return encoder(channel, settingsFor(channel));
+    }
+
+    /** As {@link #forChannel}, for a channel whose compression goes out as an HTTP Content-Encoding. */
+    public ChannelEncoder forHttpChannel(String channel) {
+        ChannelEncoding settings = settingsFor(channel);
+        if (!settings.compression().isHttpContentCoding()) {
+            throw new IllegalArgumentException("dispatch.encoding." + channel + ".compression=" + settings.compression()
+                    + " is not an HTTP content-coding; use NONE or DEFLATE");
+        }
+        return encoder(channel, settings);
+    }
+
+    private ChannelEncoding settingsFor(String channel) {
+        String prefix = "dispatch.encoding." + channel + ".";
+        return validated(channel, new ChannelEncoding(
+                environment.getProperty(prefix + "codec", PayloadCodec.class, defaults.codec()),
+                environment.getProperty(prefix + "compression", PayloadCompression.class, defaults.compression()),
+                environment.getProperty(prefix + "compression-threshold-bytes", Integer.class, defaults.compressionThresholdBytes())));
+    }
+
+    private ChannelEncoder encoder(String channel, ChannelEncoding settings) {
+        log.info("[DISPATCH ENCODING] channel={} codec={} compression={} threshold={} B",
+                channel, settings.codec(), settings.compression(), settings.compressionThresholdBytes());
+        return new ChannelEncoder(channel, settings, pool, meterRegistry);
+    }
+
+    /** Back to JSON from the bytes and headers an encoder produced — for inspection and consumers. */
+    public static byte[] decode(byte[] wire, Map<String, String> headers) {
+        PayloadCompression compression = PayloadCompression.fromContentEncoding(headers.get(EncodedPayload.CONTENT_ENCODING));
+        String contentType = headers.get(EncodedPayload.CONTENT_TYPE);
+        PayloadCodec codec = contentType == null ? PayloadCodec.JSON : PayloadCodec.fromContentType(contentType);
+        try {
+            return codec.decode(compression.decompress(wire));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload does not decode as " + codec + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static String decodeToString(byte[] wire, Map<String, String> headers) {
+        return new String(decode(wire, headers), StandardCharsets.UTF_8);
+    }
+
+    private static ChannelEncoding validated(String channel, ChannelEncoding settings) {
+        if (settings.compressionThresholdBytes() < 0) {
+            throw new IllegalArgumentException("dispatch.encoding." + channel + ".compression-threshold-bytes must be >= 0, got "
+                    + settings.compressionThresholdBytes());
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class ChannelOverloadedException extends RuntimeException {
+
+    public ChannelOverloadedException(String key) {
+        super("Too many dispatches in flight for '" + key + "'; retry later");
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String key) {
+        super("Circuit open for '" + key + "' — failing fast while the destination recovers");
+    }
+}
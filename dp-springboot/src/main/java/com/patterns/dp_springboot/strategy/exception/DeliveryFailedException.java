@@ -0,0 +1,12 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class DeliveryFailedException extends RuntimeException {
+
+    public DeliveryFailedException(String channel, String target, String reason) {
+        super("Delivery to " + channel + " '" + target + "' failed: " + reason);
+    }
+
+    public DeliveryFailedException(String channel, String target, Throwable cause) {
+        super("Delivery to " + channel + " '" + target + "' failed: " + cause, cause);
+    }
+}
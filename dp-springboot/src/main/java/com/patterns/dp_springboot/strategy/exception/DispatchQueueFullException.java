@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class DispatchQueueFullException extends RuntimeException {
+
+    public DispatchQueueFullException(String channel, int capacity) {
+        super("Dispatch queue for channel '" + channel + "' is full (" + capacity + " pending); retry later");
+    }
+}
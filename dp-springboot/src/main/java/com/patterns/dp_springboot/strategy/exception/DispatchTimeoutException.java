@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class DispatchTimeoutException extends RuntimeException {
+
+    public DispatchTimeoutException(String key, long timeoutMs) {
+        super("Dispatch to '" + key + "' did not complete within " + timeoutMs + " ms");
+    }
+}
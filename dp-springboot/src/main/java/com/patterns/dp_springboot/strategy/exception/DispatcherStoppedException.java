@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class DispatcherStoppedException extends RuntimeException {
+
+    public DispatcherStoppedException(String component) {
+        super("The " + component + " is shutting down and no longer accepts dispatches; retry against another instance");
+    }
+}
@@ -0,0 +1,8 @@
+package com.patterns.dp_springboot.strategy.exception;
+
+public class TrackingIdNotFoundException extends RuntimeException {
+
+    public TrackingIdNotFoundException(String trackingId) {
+        super("Unknown or expired tracking id: " + trackingId);
+    }
+}
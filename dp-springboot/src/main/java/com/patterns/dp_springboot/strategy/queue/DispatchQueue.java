@@ -0,0 +1,315 @@
+package com.patterns.dp_springboot.strategy.queue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.strategy.dto.DispatchAccepted;
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.DispatchState;
+import com.patterns.dp_springboot.strategy.dto.DispatchStatus;
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+import com.patterns.dp_springboot.strategy.exception.DispatchQueueFullException;
+import com.patterns.dp_springboot.strategy.exception.DispatcherStoppedException;
+import com.patterns.dp_springboot.strategy.exception.TrackingIdNotFoundException;
+import com.patterns.dp_springboot.strategy.exception.UnsupportedChannelException;
+import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
+import com.patterns.dp_springboot.strategy.service.DispatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepted-for-delivery mode: {@link #enqueue} returns as soon as the request is queued,
+ * and the client polls {@link #status} with the tracking id (a Snowflake).
+ *
+ * One bounded queue per channel, so a backed-up channel fills only its own queue. A full
+ * queue rejects new requests (429) instead of growing. Each channel's workers take up to
+ * {@code drain-batch} requests at a time, dispatch them through
+ * DispatchService#dispatchAsync, and wait for that slice to settle before taking the next.
+ * The resilience layer and the accumulator therefore see bounded bursts, and back-pressure
+ * from a slow sink reaches the queue. Requests the concurrency limit sheds
+ * (ChannelOverloadedException) are not failed: they go back to QUEUED and the worker
+ * retries them, with exponential backoff from {@code overload-backoff-ms}, before it takes
+ * anything new.
+ *
+ * Statuses live in a bounded Caffeine map and expire {@code status-ttl-ms} after the last
+ * update. On shutdown, intake stops and the workers drain what is queued, for up to
+ * {@code shutdown-timeout-ms}. Once stopped, enqueue fails with DispatcherStoppedException
+ * (503) rather than accepting requests no worker will ever take. Requests queued before
+ * start are kept and drained once the workers run.
+ *
+ * Metrics (per channel): dispatch.queue.depth, dispatch.queue.rejected, dispatch.queue.wait
+ * (accepted → taken), dispatch.queue.drained{outcome}, whose rate is the drain rate, and
+ * dispatch.queue.retried (requests shed by the limit and retried).
+ */
+@Slf4j
+@Component
+public class DispatchQueue implements SmartLifecycle {
+
+    private static final long MAX_OVERLOAD_BACKOFF_MS = 1_000L;
+
+    private final DispatchService dispatchService;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int capacity;
+    private final int workersPerChannel;
+    private final int drainBatch;
+    private final long overloadBackoffMs;
+    private final long shutdownTimeoutMs;
+
+    private final Map<String, ChannelQueue> queues = new HashMap<>();
+    private final Cache<Long, DispatchStatus> statuses;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public DispatchQueue(DispatchService dispatchService,
+                         DataSenderRegistry registry,
+                         SnowflakeIdGenerator idGenerator,
+                         MeterRegistry meterRegistry,
+                         @Value("${dispatch.queue.capacity:10000}") int capacity,
+                         @Value("${dispatch.queue.workers-per-channel:4}") int workersPerChannel,
+                         @Value("${dispatch.queue.drain-batch:256}") int drainBatch,
+                         @Value("${dispatch.queue.overload-backoff-ms:10}") long overloadBackoffMs,
+                         @Value("${dispatch.queue.status-max-entries:100000}") long statusMaxEntries,
+                         @Value("${dispatch.queue.status-ttl-ms:3600000}") long statusTtlMs,
+                         @Value("${dispatch.queue.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        if (capacity < 1 || workersPerChannel < 1 || drainBatch < 1 || statusMaxEntries < 1 || statusTtlMs < 1
+                || overloadBackoffMs < 1) {
+            throw new IllegalArgumentException("dispatch.queue.* sizes, status-ttl-ms and overload-backoff-ms must be >= 1");
+        }
+        this.dispatchService   = dispatchService;
+        this.idGenerator       = idGenerator;
+        this.capacity          = capacity;
+        this.workersPerChannel = workersPerChannel;
+        this.drainBatch        = drainBatch;
+        this.overloadBackoffMs = overloadBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(statusMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(statusTtlMs))
+                .build();
+        for (String channel : registry.availableChannels()) {
+            queues.put(channel, new ChannelQueue(channel, meterRegistry));
+        }
+    }
+
+    /**
+     * Queues the request and returns its tracking id — 429 (DispatchQueueFullException) when the
+     * channel's queue is full, 503 (DispatcherStoppedException) once the queue has stopped.
+     */
+    public DispatchAccepted enqueue(DispatchRequest request) {
+        ChannelQueue queue = queues.get(request.channel());
+        if (queue == null) {
+            throw new UnsupportedChannelException(request.channel());
+        }
+        if (stopped) {
+            throw new DispatcherStoppedException("dispatch queue");
+        }
+        long id = idGenerator.nextId();
+        String trackingId = String.valueOf(id);
+        // Status first — a worker may take the request the moment it is offered
+        statuses.put(id, new DispatchStatus(trackingId, request.channel(), request.topic(), DispatchState.QUEUED, null, System.currentTimeMillis(), null));
+        Queued queued = new Queued(id, request, System.nanoTime());
+        if (!queue.queue.offer(queued)) {
+            statuses.invalidate(id);
+            queue.rejected.increment();
+            throw new DispatchQueueFullException(request.channel(), capacity);
+        }
+        // Raced with stop(): take it back unless a draining worker already has it
+        if (stopped && queue.queue.remove(queued)) {
+            statuses.invalidate(id);
+            throw new DispatcherStoppedException("dispatch queue");
+        }
+        return new DispatchAccepted(trackingId, DispatchState.QUEUED);
+    }
+
+    public DispatchStatus status(String trackingId) {
+        DispatchStatus status;
+        try {
+            status = statuses.getIfPresent(Long.parseLong(trackingId));
+        } catch (NumberFormatException e) {
+            status = null;
+        }
+        if (status == null) {
+            throw new TrackingIdNotFoundException(trackingId);
+        }
+        return status;
+    }
+
+    private void work(ChannelQueue channel) {
+        List<Queued> slice = new ArrayList<>(drainBatch);
+        long backoffMs = overloadBackoffMs;
+        while (running || !channel.queue.isEmpty() || !slice.isEmpty()) {
+            if (slice.isEmpty()) {
+                try {
+                    Queued first = channel.queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    slice.add(first);
+                    channel.queue.drainTo(slice, drainBatch - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long now = System.nanoTime();
+                for (Queued queued : slice) {
+                    channel.waitTime.record(now - queued.enqueuedNs(), TimeUnit.NANOSECONDS);
+                }
+            }
+
+            List<Queued> shed = dispatch(channel, slice);
+            slice.clear();
+            if (shed.isEmpty()) {
+                backoffMs = overloadBackoffMs;
+                continue;
+            }
+            // The limit is full — give the sink time, then retry these before taking new work
+            channel.retried.increment(shed.size());
+            slice.addAll(shed);
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_OVERLOAD_BACKOFF_MS);
+        }
+    }
+
+    // Fires the slice and waits for it to settle; returns what the concurrency limit shed
+    private List<Queued> dispatch(ChannelQueue channel, List<Queued> slice) {
+        List<CompletableFuture<Queued>> inFlight = new ArrayList<>(slice.size());
+        for (Queued queued : slice) {
+            statuses.asMap().computeIfPresent(queued.id(), (id, s) -> s.inFlight());
+            inFlight.add(send(queued.request()).handle((result, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof ChannelOverloadedException) {
+                    statuses.asMap().computeIfPresent(queued.id(), (id, s) -> s.requeued());
+                    return queued;
+                }
+                complete(channel, queued.id(), cause);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        List<Queued> shed = new ArrayList<>();
+        for (CompletableFuture<Queued> outcome : inFlight) {
+            Queued queued = outcome.join();
+            if (queued != null) {
+                shed.add(queued);
+            }
+        }
+        return shed;
+    }
+
+    private CompletableFuture<?> send(DispatchRequest request) {
+        try {
+            return dispatchService.dispatchAsync(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void complete(ChannelQueue channel, long id, Throwable cause) {
+        if (cause == null) {
+            channel.delivered.increment();
+            statuses.asMap().computeIfPresent(id, (k, s) -> s.completed(DispatchState.DELIVERED, null));
+        } else {
+            channel.failed.increment();
+            statuses.asMap().computeIfPresent(id, (k, s) -> s.completed(DispatchState.FAILED, cause.getMessage()));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        stopped = false;
+        running = true;
+        for (ChannelQueue channel : queues.values()) {
+            for (int i = 0; i < workersPerChannel; i++) {
+                Thread thread = new Thread(() -> work(channel), "dispatch-queue-" + channel.name + "-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        log.info("[DISPATCH QUEUE] channels={} capacity={} workers/channel={} drain-batch={}",
+                queues.keySet(), capacity, workersPerChannel, drainBatch);
+    }
+
+    @Override
+    public synchronized void stop() {
+        // Stop intake; workers keep going until their queue is empty, bounded by the timeout
+        stopped = true;
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        for (Thread thread : threads) {
+            try {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+        queues.values().stream()
+                .filter(q -> !q.queue.isEmpty())
+                .forEach(q -> log.warn("[DISPATCH QUEUE] {} requests left undelivered on channel {}", q.queue.size(), q.name));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Queued(long id, DispatchRequest request, long enqueuedNs) {}
+
+    private final class ChannelQueue {
+
+        final String name;
+        final BlockingQueue<Queued> queue = new ArrayBlockingQueue<>(capacity);
+        final Counter rejected;
+        final Counter delivered;
+        final Counter failed;
+        final Counter retried;
+        final Timer waitTime;
+
+        ChannelQueue(String name, MeterRegistry registry) {
+            this.name = name;
+            Gauge.builder("dispatch.queue.depth", queue, BlockingQueue::size)
+                    .tag("channel", name)
+                    .register(registry);
+            this.rejected  = Counter.builder("dispatch.queue.rejected").tag("channel", name).register(registry);
+            this.delivered = drained(registry, "delivered");
+            this.failed    = drained(registry, "failed");
+            this.retried   = Counter.builder("dispatch.queue.retried").tag("channel", name).register(registry);
+            this.waitTime  = Timer.builder("dispatch.queue.wait")
+                    .tag("channel", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        }
+
+        private Counter drained(MeterRegistry registry, String outcome) {
+            return Counter.builder("dispatch.queue.drained")
+                    .tag("channel", name)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
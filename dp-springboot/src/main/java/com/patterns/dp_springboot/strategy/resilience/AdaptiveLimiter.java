@@ -0,0 +1,87 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+/**
+ * AIMD concurrency limit steered by latency: a Vegas-style comparison of recent round trips
+ * against the sink's normal round trip.
+ *
+ * The limiter keeps two moving averages of successful round trips: a short one over about
+ * {@link #SHORT_WINDOW} calls and a long one over about {@link #LONG_WINDOW} calls.
+ * - While the short average stays within {@code rttTolerance × long}, every success that
+ *   finds the limit at least half used grows the limit by one.
+ * - A failure, a timeout, or the short average rising above that bound multiplies the limit
+ *   by {@code backoffRatio}.
+ *
+ * A sink that is slowing down gets fewer concurrent calls before it starts failing. A sink
+ * that is steadily slow just becomes the new normal.
+ *
+ * The limit is cut at most once per round trip, as in TCP: calls that started before the
+ * last cut are ignored for cutting.
+ */
+final class AdaptiveLimiter {
+
+    static final int SHORT_WINDOW = 10;
+    static final int LONG_WINDOW  = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+
+    private double limit;
+    private int inFlight;
+    private double shortRttNs = -1;
+    private double longRttNs  = -1;
+    private long lastDecreaseNs = System.nanoTime();
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double rttTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("need 1 <= min <= initial <= max, got " + minLimit + " / " + initialLimit + " / " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || rttTolerance < 1) {
+            throw new IllegalArgumentException("need 0 < backoff-ratio < 1 and rtt-tolerance >= 1");
+        }
+        this.limit        = initialLimit;
+        this.minLimit     = minLimit;
+        this.maxLimit     = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /** Gives back a permit for a call that never ran — no sample. */
+    synchronized void cancel() {
+        inFlight--;
+    }
+
+    synchronized void release(long startNs, long rttNs, boolean failed) {
+        boolean saturated = inFlight * 2 >= (int) limit;
+        inFlight--;
+        if (!failed) {
+            shortRttNs = shortRttNs < 0 ? rttNs : shortRttNs + (rttNs - shortRttNs) / SHORT_WINDOW;
+            longRttNs  = longRttNs  < 0 ? rttNs : longRttNs  + (rttNs - longRttNs)  / LONG_WINDOW;
+        }
+        if (failed || shortRttNs > longRttNs * rttTolerance) {
+            if (startNs - lastDecreaseNs > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNs = System.nanoTime();
+            }
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,111 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * - CLOSED: the outcomes of the last {@code windowSize} calls are kept. Once at least
+ *   {@code minimumCalls} are recorded and the failure rate reaches the threshold, the
+ *   breaker OPENs.
+ * - OPEN: every call fails fast for {@code openMs}. Then the breaker turns HALF_OPEN.
+ * - HALF_OPEN: exactly {@code probes} trial calls go through, and everything else still
+ *   fails fast. If all probes succeed, the breaker goes CLOSED with an empty window. If any
+ *   probe fails, it goes back to OPEN.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMs;
+    private final int probes;
+
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtMs;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, long openMs, int probes) {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || windowSize < 1
+                || minimumCalls < 1 || minimumCalls > windowSize || openMs < 1 || probes < 1) {
+            throw new IllegalArgumentException("invalid circuit breaker settings");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls         = minimumCalls;
+        this.openMs               = openMs;
+        this.probes               = probes;
+        this.window               = new boolean[windowSize];
+    }
+
+    synchronized boolean tryAcquire(long nowMs) {
+        if (state == State.OPEN) {
+            if (nowMs - openedAtMs < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= probes) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    /** Gives back a probe slot taken by {@link #tryAcquire} for a call that never ran. */
+    synchronized void cancel() {
+        if (state == State.HALF_OPEN && probesIssued > 0) {
+            probesIssued--;
+        }
+    }
+
+    synchronized void onResult(boolean success, long nowMs) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!success) {
+                    open(nowMs);
+                } else if (++probesSucceeded >= probes) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                if (recorded == window.length) {
+                    failures -= window[next] ? 1 : 0;
+                } else {
+                    recorded++;
+                }
+                window[next] = !success;
+                failures += success ? 0 : 1;
+                next = (next + 1) % window.length;
+                if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                    open(nowMs);
+                }
+            }
+            case OPEN -> { } // a call admitted before the breaker opened — already accounted for
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void open(long nowMs) {
+        state = State.OPEN;
+        openedAtMs = nowMs;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
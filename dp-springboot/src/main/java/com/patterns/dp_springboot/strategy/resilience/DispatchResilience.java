@@ -0,0 +1,261 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+import com.patterns.dp_springboot.strategy.exception.CircuitOpenException;
+import com.patterns.dp_springboot.strategy.exception.DispatchTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead in front of every async send: one adaptive concurrency limit and one circuit
+ * breaker per isolation key. The key is the channel, or channel + host for the api channel
+ * (see DataSenderStrategy#isolationKey).
+ *
+ * A slow or failing sink uses up only its own limit and trips only its own breaker. Its
+ * callers fail fast (ChannelOverloadedException, CircuitOpenException → 503) instead of
+ * piling up, and every other key carries on. Each call also gets {@code call-timeout-ms}
+ * (DispatchTimeoutException → 504), and a timeout counts as a failure for both the limiter
+ * and the breaker. A timed-out call is cancelled, and its permit is only returned once the
+ * call itself has completed, so abandoned calls never run outside the limit.
+ *
+ * Meters are tagged by key. Channel keys are few, but per-host keys come from request URLs,
+ * so only the first {@code metrics.max-host-keys} hosts get their own tag; the rest share
+ * {@code <channel>:other}.
+ *
+ * Per-host guards are evicted once idle: no call for {@code idle-evict-ms}, nothing in flight,
+ * and a breaker that is closed or whose open period has passed. Their own meters go with them
+ * and free the tag slot. Evicting a guard loses only its learned limit, which a new guard
+ * relearns from {@code limit.initial}. The sweep runs on the calling thread, at most once per
+ * {@code idle-evict-ms}. Channel guards are bounded by the senders and are never evicted.
+ */
+@Component
+public class DispatchResilience {
+
+    private final MeterRegistry meterRegistry;
+    private final long callTimeoutMs;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final int failureRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openMs;
+    private final int halfOpenProbes;
+    private final int maxHostKeys;
+    private final long idleEvictMs;
+
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+    private final AtomicInteger hostKeys = new AtomicInteger();
+    private final AtomicLong nextSweepMs = new AtomicLong();
+
+    public DispatchResilience(MeterRegistry meterRegistry,
+                              @Value("${dispatch.resilience.call-timeout-ms:10000}") long callTimeoutMs,
+                              @Value("${dispatch.resilience.limit.initial:20}") int initialLimit,
+                              @Value("${dispatch.resilience.limit.min:1}") int minLimit,
+                              @Value("${dispatch.resilience.limit.max:500}") int maxLimit,
+                              @Value("${dispatch.resilience.limit.backoff-ratio:0.9}") double backoffRatio,
+                              @Value("${dispatch.resilience.limit.rtt-tolerance:2.0}") double rttTolerance,
+                              @Value("${dispatch.resilience.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                              @Value("${dispatch.resilience.breaker.window-size:20}") int windowSize,
+                              @Value("${dispatch.resilience.breaker.minimum-calls:10}") int minimumCalls,
+                              @Value("${dispatch.resilience.breaker.open-ms:5000}") long openMs,
+                              @Value("${dispatch.resilience.breaker.half-open-probes:3}") int halfOpenProbes,
+                              @Value("${dispatch.resilience.metrics.max-host-keys:100}") int maxHostKeys,
+                              @Value("${dispatch.resilience.idle-evict-ms:300000}") long idleEvictMs) {
+        if (callTimeoutMs < 1) {
+            throw new IllegalArgumentException("dispatch.resilience.call-timeout-ms must be >= 1, got " + callTimeoutMs);
+        }
+        if (maxHostKeys < 0) {
+            throw new IllegalArgumentException("dispatch.resilience.metrics.max-host-keys must be >= 0, got " + maxHostKeys);
+        }
+        if (idleEvictMs < 1) {
+            throw new IllegalArgumentException("dispatch.resilience.idle-evict-ms must be >= 1, got " + idleEvictMs);
+        }
+        this.meterRegistry        = meterRegistry;
+        this.callTimeoutMs        = callTimeoutMs;
+        this.initialLimit         = initialLimit;
+        this.minLimit             = minLimit;
+        this.maxLimit             = maxLimit;
+        this.backoffRatio         = backoffRatio;
+        this.rttTolerance         = rttTolerance;
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize           = windowSize;
+        this.minimumCalls         = minimumCalls;
+        this.openMs               = openMs;
+        this.halfOpenProbes       = halfOpenProbes;
+        this.maxHostKeys          = maxHostKeys;
+        this.idleEvictMs          = idleEvictMs;
+        this.nextSweepMs.set(System.currentTimeMillis() + idleEvictMs);
+        // Fail on bad settings at startup, not on the first dispatch
+        newLimiter();
+        newBreaker();
+    }
+
+    /** Runs {@code call} if {@code key} has capacity and a closed breaker; otherwise fails fast. */
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        long nowMs = System.currentTimeMillis();
+        evictIdleGuards(nowMs);
+        Guard guard = guards.get(key);
+        if (guard == null) {
+            guard = guards.computeIfAbsent(key, Guard::new);
+        }
+        guard.lastUsedMs = nowMs;
+        if (!guard.limiter.tryAcquire()) {
+            guard.rejectedByLimit.increment();
+            return CompletableFuture.failedFuture(new ChannelOverloadedException(key));
+        }
+        if (!guard.breaker.tryAcquire(System.currentTimeMillis())) {
+            guard.limiter.cancel();
+            guard.rejectedByBreaker.increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException(key));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> inFlight;
+        try {
+            inFlight = call.get();
+        } catch (RuntimeException e) {
+            inFlight = CompletableFuture.failedFuture(e);
+        }
+        Guard g = guard;
+        // The permit follows the call itself, not the caller's wait on it
+        inFlight.whenComplete((value, error) -> g.limiter.release(start, System.nanoTime() - start, error != null));
+        CompletableFuture<T> running = inFlight;
+        // orTimeout would complete the caller's future in place — time out a copy instead
+        return inFlight.copy().orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS).handle((value, error) -> {
+            long rttNs = System.nanoTime() - start;
+            boolean failed = error != null;
+            g.breaker.onResult(!failed, System.currentTimeMillis());
+            (failed ? g.failureTimer : g.successTimer).record(rttNs, TimeUnit.NANOSECONDS);
+            if (!failed) {
+                return value;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                // Nobody waits for the result any more — stop the call (an api call still queued
+                // behind its host limit is dropped), which also hands the permit back
+                running.cancel(true);
+                throw new DispatchTimeoutException(key, callTimeoutMs);
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    // One caller per interval wins the CAS and sweeps; everyone else skips straight past
+    private void evictIdleGuards(long nowMs) {
+        long due = nextSweepMs.get();
+        if (nowMs < due || !nextSweepMs.compareAndSet(due, nowMs + idleEvictMs)) {
+            return;
+        }
+        guards.forEach((key, guard) -> {
+            if (guard.isHost && guard.isIdle(nowMs) && guards.remove(key, guard)) {
+                guard.close();
+            }
+        });
+    }
+
+    // Channel keys are bounded by the registered senders; per-host keys are not
+    private String tagFor(String key) {
+        int host = key.indexOf(':');
+        if (host < 0 || hostKeys.getAndUpdate(n -> n < maxHostKeys ? n + 1 : n) < maxHostKeys) {
+            return key;
+        }
+        return key.substring(0, host) + ":other";
+    }
+
+    private AdaptiveLimiter newLimiter() {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, rttTolerance);
+    }
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls, openMs, halfOpenProbes);
+    }
+
+    private final class Guard {
+
+        final AdaptiveLimiter limiter = newLimiter();
+        final CircuitBreaker breaker  = newBreaker();
+        final Counter rejectedByLimit;
+        final Counter rejectedByBreaker;
+        final Timer successTimer;
+        final Timer failureTimer;
+        final boolean isHost;
+        // Meters tagged with this guard's own key; empty for a folded key, whose meters are shared
+        final List<Meter> ownMeters = new ArrayList<>();
+        volatile long lastUsedMs;
+
+        Guard(String key) {
+            String tag = tagFor(key);
+            isHost = key.indexOf(':') >= 0;
+            // Gauges read one guard's state — a folded key shares only the counters and timers
+            if (tag.equals(key)) {
+                ownMeters.add(Gauge.builder("dispatch.concurrency.limit", limiter, AdaptiveLimiter::limit)
+                        .description("Current adaptive concurrency limit")
+                        .tag("key", key)
+                        .register(meterRegistry));
+                ownMeters.add(Gauge.builder("dispatch.concurrency.inflight", limiter, AdaptiveLimiter::inFlight)
+                        .tag("key", key)
+                        .register(meterRegistry));
+                ownMeters.add(Gauge.builder("dispatch.breaker.state", breaker, b -> b.state().ordinal())
+                        .description("0 = closed, 1 = half-open, 2 = open")
+                        .tag("key", key)
+                        .register(meterRegistry));
+            }
+            rejectedByLimit   = rejected(tag, "limit");
+            rejectedByBreaker = rejected(tag, "breaker");
+            successTimer      = call(tag, "success");
+            failureTimer      = call(tag, "failure");
+            if (tag.equals(key)) {
+                ownMeters.addAll(List.of(rejectedByLimit, rejectedByBreaker, successTimer, failureTimer));
+            }
+        }
+
+        boolean isIdle(long nowMs) {
+            long idleMs = nowMs - lastUsedMs;
+            return idleMs >= idleEvictMs
+                    && limiter.inFlight() == 0
+                    && (breaker.state() == CircuitBreaker.State.CLOSED || idleMs >= openMs);
+        }
+
+        void close() {
+            ownMeters.forEach(meterRegistry::remove);
+            if (isHost && !ownMeters.isEmpty()) {
+                hostKeys.decrementAndGet();
+            }
+        }
+
+        private Counter rejected(String key, String reason) {
+            return Counter.builder("dispatch.rejected")
+                    .tag("key", key)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        private Timer call(String key, String outcome) {
+            return Timer.builder("dispatch.call")
+                    .tag("key", key)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -2,10 +2,44 @@ package com.patterns.dp_springboot.strategy.senders;
 
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface DataSenderStrategy {
 
     /** Key that this strategy handles — must match the "channel" field in the request. */
     String channel();
 
     void send(DispatchRequest request);
+
+    /**
+     * Bulkhead this request is limited and circuit-broken under — see DispatchResilience.
+     * One per channel by default; senders fronting many independent destinations narrow it.
+     */
+    default String isolationKey(DispatchRequest request) {
+        return channel();
+    }
+
+    /**
+     * Non-blocking send — the future completes when the destination has accepted the data.
+     * Senders with a native async client override this; the default runs {@link #send}
+     * on the caller's thread and returns an already-completed future.
+     */
+    default CompletableFuture<Void> sendAsync(DispatchRequest request) {
+        try {
+            send(request);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Sends a batch that all shares one channel and topic — see DispatchAccumulator. Senders
+     * whose destination takes many records per call (a producer batch, a pipelined XADD)
+     * override this; the default sends each request on its own with {@link #sendAsync}.
+     */
+    default CompletableFuture<Void> sendBatch(List<DispatchRequest> batch) {
+        return CompletableFuture.allOf(batch.stream().map(this::sendAsync).toArray(CompletableFuture[]::new));
+    }
 }
@@ -1,32 +1,106 @@
 package com.patterns.dp_springboot.strategy.senders;
 
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
-import lombok.RequiredArgsConstructor;
+import com.patterns.dp_springboot.strategy.encoding.ChannelEncoder;
+import com.patterns.dp_springboot.strategy.encoding.EncodedPayload;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class HttpApiDataSender implements DataSenderStrategy {
 
-    private final RestClient restClient;
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final PerHostLimiter limiter;
+    private final ChannelEncoder encoder;
+
+    public HttpApiDataSender(HttpClient dispatchHttpClient,
+                             PayloadEncoder payloadEncoder,
+                             @Value("${dispatch.http.read-timeout-ms:5000}") long readTimeoutMs,
+                             @Value("${dispatch.http.max-connections-per-host:256}") int maxConnectionsPerHost,
+                             @Value("${dispatch.http.max-queued-per-host:1024}") int maxQueuedPerHost) {
+        this.httpClient   = dispatchHttpClient;
+        this.readTimeout  = Duration.ofMillis(readTimeoutMs);
+        this.limiter      = new PerHostLimiter(maxConnectionsPerHost, maxQueuedPerHost);
+        this.encoder      = payloadEncoder.forHttpChannel(channel());
+    }
 
     @Override
     public String channel() {
         return "api";
     }
 
+    // One bulkhead per target host — a slow host must not eat the limit of the others
+    @Override
+    public String isolationKey(DispatchRequest request) {
+        try {
+            URI uri = URI.create(request.topic());
+            return uri.getHost() == null ? channel() : channel() + ":" + uri.getHost() + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return channel();
+        }
+    }
+
+    // Same request, limiter and error mapping as the async path; only the caller blocks
     @Override
     public void send(DispatchRequest request) {
-        // topic is treated as the target URL for HTTP channel
-        restClient.post()
-                .uri(request.topic())
-                .body(request.payload())
-                .retrieve()
-                .toBodilessEntity();
-
-        log.info("[HTTP API] POST url={} payload={}", request.topic(), request.payload());
+        try {
+            sendAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // No thread waits on the round trip: the request is handed to the JDK client's selector,
+    // and the future completes on its executor when the response arrives
+    @Override
+    public CompletableFuture<Void> sendAsync(DispatchRequest request) {
+        HttpRequest httpRequest;
+        URI uri;
+        try {
+            uri = URI.create(request.topic());
+            EncodedPayload payload = encoder.encode(request);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(readTimeout)
+                    .header("Content-Type", payload.codec().contentType())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payload.bytes()));
+            if (payload.compression().contentEncoding() != null) {
+                builder.header("Content-Encoding", payload.compression().contentEncoding());
+            }
+            httpRequest = builder.build();
+        } catch (DeliveryFailedException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new DeliveryFailedException(channel(), request.topic(), e));
+        }
+
+        return limiter.submit(isolationKey(request),
+                () -> httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding()))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        throw new DeliveryFailedException(channel(), request.topic(), cause);
+                    }
+                    if (response.statusCode() >= 400) {
+                        throw new DeliveryFailedException(channel(), request.topic(), "HTTP " + response.statusCode());
+                    }
+                    log.debug("[HTTP API] POST url={} status={} (async)", request.topic(), response.statusCode());
+                    return null;
+                });
     }
 }
@@ -1,13 +1,30 @@
 package com.patterns.dp_springboot.strategy.senders;
 
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.encoding.ChannelEncoder;
+import com.patterns.dp_springboot.strategy.encoding.EncodedPayload;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Produces to the in-process PartitionedLog; a real deployment swaps it for a KafkaTemplate
 @Slf4j
 @Component
 public class KafkaDataSender implements DataSenderStrategy {
 
+    private final PartitionedLog partitionedLog;
+    private final ChannelEncoder encoder;
+
+    public KafkaDataSender(PartitionedLog partitionedLog, PayloadEncoder payloadEncoder) {
+        this.partitionedLog = partitionedLog;
+        this.encoder        = payloadEncoder.forChannel(channel());
+    }
+
     @Override
     public String channel() {
         return "kafka";
@@ -15,7 +32,25 @@ public class KafkaDataSender implements DataSenderStrategy {
 
     @Override
     public void send(DispatchRequest request) {
-        // Real impl: kafkaTemplate.send(request.topic(), request.payload())
-        log.info("[KAFKA] topic={} payload={}", request.topic(), request.payload());
+        // Real impl: kafkaTemplate.send(ProducerRecord with the encoded bytes + encoding headers).get(), ByteArraySerializer
+        PartitionedLog.RecordMetadata ack = partitionedLog.append(request.topic(), record(request));
+        log.debug("[KAFKA] topic={} partition={} offset={}", ack.topic(), ack.partition(), ack.offset());
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBatch(List<DispatchRequest> batch) {
+        // Real impl: one producer batch — kafkaTemplate.send(...) per record, then kafkaTemplate.flush()
+        List<PartitionedLog.ProducerRecord> records = new ArrayList<>(batch.size());
+        for (DispatchRequest request : batch) {
+            records.add(record(request));
+        }
+        PartitionedLog.RecordMetadata ack = partitionedLog.appendBatch(batch.get(0).topic(), records);
+        log.debug("[KAFKA] topic={} partition={} offsets={}..{}", ack.topic(), ack.partition(), ack.offset(), ack.offset() + records.size() - 1);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private PartitionedLog.ProducerRecord record(DispatchRequest request) {
+        EncodedPayload payload = encoder.encode(request);
+        return new PartitionedLog.ProducerRecord(null, payload.headers(), payload.bytes());
     }
 }
@@ -0,0 +1,152 @@
+package com.patterns.dp_springboot.strategy.senders;
+
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caps in-flight async calls per host without parking a thread.
+ *
+ * The JDK HttpClient opens as many connections to a host as there are concurrent
+ * requests. Calls over {@code maxPerHost} wait in a per-host queue as plain Runnables,
+ * and each completion starts the next one. No thread blocks while waiting.
+ *
+ * The wait queue holds at most {@code maxQueuedPerHost} calls; beyond that a call fails
+ * fast with ChannelOverloadedException. A host with nothing in flight is dropped from the
+ * map, so one-off destinations don't accumulate.
+ *
+ * Cancelling the returned future takes a waiting call off the queue, or cancels the
+ * exchange of a running one.
+ */
+final class PerHostLimiter {
+
+    private final int maxPerHost;
+    private final int maxQueuedPerHost;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    PerHostLimiter(int maxPerHost, int maxQueuedPerHost) {
+        if (maxPerHost < 1 || maxQueuedPerHost < 0) {
+            throw new IllegalArgumentException("maxPerHost must be >= 1 and maxQueuedPerHost >= 0, got "
+                    + maxPerHost + " / " + maxQueuedPerHost);
+        }
+        this.maxPerHost       = maxPerHost;
+        this.maxQueuedPerHost = maxQueuedPerHost;
+    }
+
+    <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        while (true) {
+            Host h = hosts.computeIfAbsent(host, Host::new);
+            Runnable start = () -> {
+                if (result.isDone()) {
+                    release(h);            // cancelled after its permit was already handed over
+                    return;
+                }
+                CompletableFuture<T> inFlight;
+                try {
+                    inFlight = call.get();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    release(h);
+                    return;
+                }
+                result.whenComplete((value, error) -> {
+                    if (result.isCancelled()) {
+                        inFlight.cancel(true);
+                    }
+                });
+                inFlight.whenComplete((value, error) -> {
+                    release(h);
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+
+            boolean runNow;
+            synchronized (h) {
+                if (h.retired) {
+                    continue;              // evicted between lookup and lock — use its replacement
+                }
+                runNow = h.inFlight < maxPerHost;
+                if (runNow) {
+                    h.inFlight++;
+                } else if (h.waiting.size() < maxQueuedPerHost) {
+                    h.waiting.add(start);
+                    result.whenComplete((value, error) -> {
+                        if (result.isCancelled()) {
+                            dequeue(h, start);
+                        }
+                    });
+                } else {
+                    return CompletableFuture.failedFuture(new ChannelOverloadedException(host));
+                }
+            }
+            if (runNow) {
+                start.run();
+            }
+            return result;
+        }
+    }
+
+    int hostCount() {
+        return hosts.size();
+    }
+
+    // Still waiting means no permit was taken; if it is gone, start sees the cancellation instead
+    private static void dequeue(Host h, Runnable start) {
+        synchronized (h) {
+            h.waiting.remove(start);
+        }
+    }
+
+    // The permit passes straight to the next waiter, so inFlight only drops when the queue is empty.
+    // Starts run in a loop on the first releasing thread: a call that completes synchronously
+    // releases into h.ready instead of starting the next call deeper on the same stack.
+    private void release(Host h) {
+        Runnable next;
+        synchronized (h) {
+            next = h.waiting.poll();
+            if (next == null) {
+                if (--h.inFlight == 0) {
+                    h.retired = true;
+                    hosts.remove(h.name, h);
+                }
+                return;
+            }
+            if (h.starting) {
+                h.ready.add(next);
+                return;
+            }
+            h.starting = true;
+        }
+        while (next != null) {
+            next.run();
+            synchronized (h) {
+                next = h.ready.poll();
+                if (next == null) {
+                    h.starting = false;
+                }
+            }
+        }
+    }
+
+    private static final class Host {
+        final String name;
+        int inFlight;
+        boolean starting;
+        boolean retired;
+        final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+        final ArrayDeque<Runnable> ready   = new ArrayDeque<>();
+
+        Host(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -1,13 +1,35 @@
 package com.patterns.dp_springboot.strategy.senders;
 
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.encoding.ChannelEncoder;
+import com.patterns.dp_springboot.strategy.encoding.EncodedPayload;
+import com.patterns.dp_springboot.strategy.encoding.PayloadEncoder;
+import com.patterns.dp_springboot.strategy.sink.StreamStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// XADDs to the in-process StreamStore; a real deployment swaps it for a RedisTemplate
 @Slf4j
 @Component
 public class RedisStreamDataSender implements DataSenderStrategy {
 
+    public static final String PAYLOAD_FIELD = "payload";
+
+    private final StreamStore streamStore;
+    private final ChannelEncoder encoder;
+
+    public RedisStreamDataSender(StreamStore streamStore, PayloadEncoder payloadEncoder) {
+        this.streamStore = streamStore;
+        this.encoder     = payloadEncoder.forChannel(channel());
+    }
+
     @Override
     public String channel() {
         return "redis";
@@ -15,7 +37,33 @@ public class RedisStreamDataSender implements DataSenderStrategy {
 
     @Override
     public void send(DispatchRequest request) {
-        // Real impl: redisTemplate.opsForStream().add(request.topic(), request.payload())
-        log.info("[REDIS STREAM] stream={} payload={}", request.topic(), request.payload());
+        // Real impl: redisTemplate.opsForStream().add(request.topic(), entry(request))
+        String id = streamStore.add(request.topic(), entry(request));
+        log.debug("[REDIS STREAM] stream={} id={}", request.topic(), id);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBatch(List<DispatchRequest> batch) {
+        // Real impl: one pipelined round trip — redisTemplate.executePipelined(XADD per entry)
+        List<Map<String, byte[]>> entries = new ArrayList<>(batch.size());
+        for (DispatchRequest request : batch) {
+            entries.add(entry(request));
+        }
+        List<String> ids = streamStore.addAll(batch.get(0).topic(), entries);
+        log.debug("[REDIS STREAM] stream={} ids={}..{}", batch.get(0).topic(), ids.get(0), ids.get(ids.size() - 1));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // payload plus content-type / content-encoding fields when the channel encodes (see EncodedPayload#headers)
+    private Map<String, byte[]> entry(DispatchRequest request) {
+        EncodedPayload payload = encoder.encode(request);
+        Map<String, String> headers = payload.headers();
+        if (headers.isEmpty()) {
+            return Map.of(PAYLOAD_FIELD, payload.bytes());
+        }
+        Map<String, byte[]> fields = new HashMap<>(4);
+        fields.put(PAYLOAD_FIELD, payload.bytes());
+        headers.forEach((name, value) -> fields.put(name, value.getBytes(StandardCharsets.UTF_8)));
+        return fields;
     }
 }
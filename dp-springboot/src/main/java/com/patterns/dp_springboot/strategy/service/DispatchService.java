@@ -1,19 +1,62 @@
 package com.patterns.dp_springboot.strategy.service;
 
+import com.patterns.dp_springboot.strategy.batch.DispatchAccumulator;
 import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
 import com.patterns.dp_springboot.strategy.dto.DispatchResult;
 import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
+import com.patterns.dp_springboot.strategy.resilience.DispatchResilience;
+import com.patterns.dp_springboot.strategy.senders.DataSenderStrategy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 public class DispatchService {
 
     private final DataSenderRegistry registry;
+    private final DispatchAccumulator accumulator;
+    private final DispatchResilience resilience;
+
+    // Unknown channels still fail fast on the caller's thread; delivery failures fail the future.
+    // Batching channels (dispatch.batch.channels) go through the accumulator and complete with their
+    // batch — which DispatchResilience guards as one call; everything else is guarded per request
+    public CompletableFuture<DispatchResult> dispatchAsync(DispatchRequest request) {
+        DataSenderStrategy sender = registry.resolve(request.channel());
+        CompletableFuture<Void> sent = accumulator.batches(request.channel())
+                ? accumulator.add(request)
+                : resilience.execute(sender.isolationKey(request), () -> sender.sendAsync(request));
+        return sent.thenApply(v -> ok(request));
+    }
 
-    public DispatchResult dispatch(DispatchRequest request) {
-        registry.resolve(request.channel()).send(request);
+    /**
+     * Fans every request out at once and completes when all have settled — results in request
+     * order, a failed delivery reported as FAILED instead of failing the whole call. In-flight
+     * calls hold no threads, so the fan-out width costs connections, not threads.
+     */
+    public CompletableFuture<List<DispatchResult>> dispatchAll(List<DispatchRequest> requests) {
+        List<CompletableFuture<DispatchResult>> futures = requests.stream()
+                .map(request -> {
+                    try {
+                        return dispatchAsync(request).exceptionally(e -> failed(request, e));
+                    } catch (RuntimeException e) {
+                        return CompletableFuture.completedFuture(failed(request, e));
+                    }
+                })
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(v -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private static DispatchResult ok(DispatchRequest request) {
         return new DispatchResult(request.channel(), request.topic(), "OK", "Dispatched successfully");
     }
+
+    private static DispatchResult failed(DispatchRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return new DispatchResult(request.channel(), request.topic(), "FAILED", cause.getMessage());
+    }
 }
@@ -0,0 +1,190 @@
+package com.patterns.dp_springboot.strategy.sink;
+
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stand-in for a Kafka cluster: per topic, {@code partitions} append-only logs
+ * of serialized records with monotonically increasing offsets.
+ *
+ * Producer semantics follow the real client where it affects cost:
+ *  - keyed records go to {@code hash(key) % partitions}, so one key keeps its order;
+ *  - unkeyed records use a sticky partitioner — a whole batch lands in one partition under
+ *    one lock acquisition, and the next batch moves to the next partition;
+ *  - an append is acknowledged with its {@link RecordMetadata} (partition + offset) once it
+ *    is in the log — acks=1 against a leader that never fails.
+ *
+ * Records carry headers like Kafka record headers; the dispatch senders use them for the
+ * payload's content-type / content-encoding (see EncodedPayload).
+ *
+ * Retention is by count: once a partition holds more than {@code retention-records}, the
+ * oldest records are dropped in chunks (like deleting whole segments), and the log start
+ * offset moves forward. Offsets are never reused.
+ *
+ * Topics are created on first produce, like auto.create.topics.enable, but at most
+ * {@code max-topics} of them — topic names come from requests, so past the cap an unknown
+ * topic is refused (DeliveryFailedException) instead of growing the heap.
+ */
+@Component
+public class PartitionedLog {
+
+    private final int partitions;
+    private final int retentionRecords;
+    private final int maxTopics;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    public PartitionedLog(@Value("${dispatch.sink.kafka.partitions:6}") int partitions,
+                          @Value("${dispatch.sink.kafka.retention-records:100000}") int retentionRecords,
+                          @Value("${dispatch.sink.kafka.max-topics:1000}") int maxTopics) {
+        if (partitions < 1 || retentionRecords < 1 || maxTopics < 1) {
+            throw new IllegalArgumentException("dispatch.sink.kafka.partitions, retention-records and max-topics must be >= 1");
+        }
+        this.partitions       = partitions;
+        this.retentionRecords = retentionRecords;
+        this.maxTopics        = maxTopics;
+    }
+
+    public RecordMetadata append(String topic, ProducerRecord record) {
+        Topic t = topic(topic);
+        int partition = record.key() == null ? t.nextSticky() : Math.floorMod(record.key().hashCode(), partitions);
+        return new RecordMetadata(topic, partition, t.partitions[partition].append(List.of(record)));
+    }
+
+    /**
+     * One producer batch of unkeyed records: all go to the same partition at consecutive
+     * offsets. Returns the metadata of the first.
+     */
+    public RecordMetadata appendBatch(String topic, List<ProducerRecord> records) {
+        Topic t = topic(topic);
+        int partition = t.nextSticky();
+        return new RecordMetadata(topic, partition, t.partitions[partition].append(records));
+    }
+
+    /** Consumer fetch: up to {@code max} records from {@code offset} (clamped to the log start). */
+    public List<LogRecord> read(String topic, int partition, long offset, int max) {
+        Topic t = topics.get(topic);
+        if (t == null || partition < 0 || partition >= partitions) {
+            return List.of();
+        }
+        return t.partitions[partition].read(offset, max);
+    }
+
+    public List<TopicStats> stats() {
+        return topics.entrySet().stream()
+                .map(e -> new TopicStats(e.getKey(), e.getValue().stats()))
+                .toList();
+    }
+
+    private Topic topic(String name) {
+        Topic t = topics.get(name);
+        return t != null ? t : topics.computeIfAbsent(name, n -> {
+            if (topics.size() >= maxTopics) {
+                throw new DeliveryFailedException("kafka", n, "unknown topic and the log already holds " + maxTopics + " topics");
+            }
+            return new Topic();
+        });
+    }
+
+    public record ProducerRecord(String key, Map<String, String> headers, byte[] value) {}
+
+    public record RecordMetadata(String topic, int partition, long offset) {}
+
+    public record LogRecord(long offset, long timestampMs, String key, Map<String, String> headers, byte[] value) {}
+
+    public record PartitionStats(int partition, long startOffset, long endOffset, long bytes) {}
+
+    public record TopicStats(String topic, List<PartitionStats> partitions) {}
+
+    private final class Topic {
+
+        final Partition[] partitions = new Partition[PartitionedLog.this.partitions];
+        final AtomicInteger sticky = new AtomicInteger();
+
+        Topic() {
+            for (int p = 0; p < partitions.length; p++) {
+                partitions[p] = new Partition(p);
+            }
+        }
+
+        int nextSticky() {
+            return Math.floorMod(sticky.getAndIncrement(), partitions.length);
+        }
+
+        List<PartitionStats> stats() {
+            List<PartitionStats> out = new ArrayList<>(partitions.length);
+            for (Partition p : partitions) {
+                out.add(p.stats());
+            }
+            return out;
+        }
+    }
+
+    private final class Partition {
+
+        final int id;
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayList<LogRecord> records = new ArrayList<>();
+        long startOffset;
+        long bytes;
+
+        Partition(int id) {
+            this.id = id;
+        }
+
+        long append(List<ProducerRecord> appended) {
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                long first = startOffset + records.size();
+                for (ProducerRecord r : appended) {
+                    records.add(new LogRecord(startOffset + records.size(), now, r.key(), r.headers(), r.value()));
+                    bytes += r.value().length;
+                }
+                // Drop a whole "segment" (10% of retention) at a time, not one record per append
+                int excess = records.size() - retentionRecords;
+                if (excess > 0) {
+                    int drop = Math.min(records.size(), excess + retentionRecords / 10);
+                    List<LogRecord> dropped = records.subList(0, drop);
+                    for (LogRecord r : dropped) {
+                        bytes -= r.value().length;
+                    }
+                    dropped.clear();
+                    startOffset += drop;
+                }
+                return first;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<LogRecord> read(long offset, int max) {
+            lock.lock();
+            try {
+                // In long until clamped to the log — offset comes straight from the request
+                long relative = offset <= startOffset ? 0 : offset - startOffset;
+                int from = (int) Math.min(records.size(), relative);
+                int to = (int) Math.min(records.size(), (long) from + Math.max(0, max));
+                return from >= to ? List.of() : List.copyOf(records.subList(from, to));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        PartitionStats stats() {
+            lock.lock();
+            try {
+                return new PartitionStats(id, startOffset, startOffset + records.size(), bytes);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.patterns.dp_springboot.strategy.sink;
+
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stand-in for Redis Streams, covering the commands the redis channel and its
+ * consumers would use:
+ *
+ *  XADD key MAXLEN ~ n * field value …   {@link #add} / {@link #addAll} (one "pipeline")
+ *  XGROUP CREATE key group $|0           {@link #createGroup}
+ *  XREADGROUP GROUP g c COUNT n … >      {@link #readGroup} — new entries, added to the PEL
+ *  XACK key group id …                   {@link #ack}
+ *  XPENDING / XLEN / XINFO               {@link #stats}
+ *
+ * Entry ids are {@code <ms>-<seq>}, strictly increasing per stream even if the clock
+ * steps back. MAXLEN is approximate like {@code MAXLEN ~}: the stream is trimmed in chunks
+ * once it exceeds the bound by 10%, not on every add. Trimming also drops the trimmed ids
+ * from every group's pending list. Redis would keep them until a later XCLAIM finds them
+ * gone, but here nothing else would ever clear them.
+ *
+ * XADD creates a missing stream, up to {@code max-streams} of them; past that an unknown
+ * stream is refused (DeliveryFailedException). XGROUP CREATE never creates one (no MKSTREAM).
+ */
+@Component
+public class StreamStore {
+
+    private final int maxLen;
+    private final int maxStreams;
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    public StreamStore(@Value("${dispatch.sink.redis.maxlen:100000}") int maxLen,
+                       @Value("${dispatch.sink.redis.max-streams:1000}") int maxStreams) {
+        if (maxLen < 1 || maxStreams < 1) {
+            throw new IllegalArgumentException("dispatch.sink.redis.maxlen and max-streams must be >= 1");
+        }
+        this.maxLen     = maxLen;
+        this.maxStreams = maxStreams;
+    }
+
+    public String add(String stream, Map<String, byte[]> fields) {
+        return stream(stream).add(List.of(fields)).get(0);
+    }
+
+    /** Several XADDs in one round trip; returns the ids in order. */
+    public List<String> addAll(String stream, List<Map<String, byte[]>> entries) {
+        return stream(stream).add(entries);
+    }
+
+    /** XGROUP CREATE — {@code fromStart} = "0" (whole stream), otherwise "$" (only new entries). False if the stream doesn't exist. */
+    public boolean createGroup(String stream, String group, boolean fromStart) {
+        Stream s = streams.get(stream);
+        if (s == null) {
+            return false;
+        }
+        s.lock.lock();
+        try {
+            s.groups.putIfAbsent(group, new Group(fromStart ? 0 : s.lastSeq));
+            return true;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /** XREADGROUP … > — up to {@code count} never-delivered entries, now pending for {@code consumer}. */
+    public List<StreamEntry> readGroup(String stream, String group, String consumer, int count) {
+        Stream s = streams.get(stream);
+        if (s == null || count <= 0) {
+            return List.of();
+        }
+        s.lock.lock();
+        try {
+            Group g = s.groups.get(group);
+            if (g == null) {
+                throw new IllegalArgumentException("NOGROUP No such consumer group '" + group + "' for stream '" + stream + "'");
+            }
+            List<StreamEntry> out = new ArrayList<>(Math.min(count, 64));
+            for (int i = s.indexAfter(g.lastDeliveredSeq); i < s.entries.size() && out.size() < count; i++) {
+                StreamEntry e = s.entries.get(i);
+                out.add(e);
+                g.pending.put(e.id(), new Pending(consumer, e.seq()));
+                g.lastDeliveredSeq = e.seq();
+            }
+            return out;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /** XACK — returns how many of {@code ids} were pending. */
+    public int ack(String stream, String group, Collection<String> ids) {
+        Stream s = streams.get(stream);
+        if (s == null) {
+            return 0;
+        }
+        s.lock.lock();
+        try {
+            Group g = s.groups.get(group);
+            if (g == null) {
+                return 0;
+            }
+            int acked = 0;
+            for (String id : ids) {
+                acked += g.pending.remove(id) != null ? 1 : 0;
+            }
+            return acked;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    public List<StreamStats> stats() {
+        return streams.entrySet().stream().map(e -> e.getValue().stats(e.getKey())).toList();
+    }
+
+    private Stream stream(String name) {
+        Stream s = streams.get(name);
+        return s != null ? s : streams.computeIfAbsent(name, n -> {
+            if (streams.size() >= maxStreams) {
+                throw new DeliveryFailedException("redis", n, "unknown stream and the store already holds " + maxStreams + " streams");
+            }
+            return new Stream();
+        });
+    }
+
+    /** {@code seq} is the id packed into one long for ordering: ms << 20 | sequence. */
+    public record StreamEntry(String id, long seq, Map<String, byte[]> fields) {}
+
+    public record GroupStats(String group, int pending, long lag) {}
+
+    public record StreamStats(String stream, int length, String lastId, List<GroupStats> groups) {}
+
+    private record Pending(String consumer, long seq) {}
+
+    private static final class Group {
+        long lastDeliveredSeq;
+        // Delivery order, which is id order — trimming only ever removes a prefix
+        final Map<String, Pending> pending = new LinkedHashMap<>();
+
+        Group(long lastDeliveredSeq) {
+            this.lastDeliveredSeq = lastDeliveredSeq;
+        }
+    }
+
+    private final class Stream {
+
+        private static final int SEQ_BITS = 20;
+
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayList<StreamEntry> entries = new ArrayList<>();
+        final Map<String, Group> groups = new HashMap<>();
+        long lastMs;
+        long lastCounter = -1;
+        long lastSeq;
+        String lastId = "0-0";
+
+        List<String> add(List<Map<String, byte[]>> batch) {
+            List<String> ids = new ArrayList<>(batch.size());
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                for (Map<String, byte[]> fields : batch) {
+                    // Same or earlier ms than the last id (burst, or clock stepped back): bump the sequence
+                    if (now > lastMs) {
+                        lastMs = now;
+                        lastCounter = 0;
+                    } else {
+                        lastCounter++;
+                    }
+                    lastId  = lastMs + "-" + lastCounter;
+                    lastSeq = (lastMs << SEQ_BITS) | lastCounter;
+                    entries.add(new StreamEntry(lastId, lastSeq, fields));
+                    ids.add(lastId);
+                }
+                if (entries.size() > maxLen + maxLen / 10) {
+                    List<StreamEntry> trimmed = entries.subList(0, entries.size() - maxLen);
+                    long trimmedUpTo = trimmed.get(trimmed.size() - 1).seq();
+                    trimmed.clear();
+                    for (Group group : groups.values()) {
+                        Iterator<Pending> pending = group.pending.values().iterator();
+                        while (pending.hasNext() && pending.next().seq() <= trimmedUpTo) {
+                            pending.remove();
+                        }
+                    }
+                }
+                return ids;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caller holds the lock — first index with seq > afterSeq
+        int indexAfter(long afterSeq) {
+            int lo = 0;
+            int hi = entries.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (entries.get(mid).seq() <= afterSeq) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        StreamStats stats(String name) {
+            lock.lock();
+            try {
+                List<GroupStats> groupStats = groups.entrySet().stream()
+                        .map(e -> new GroupStats(e.getKey(), e.getValue().pending.size(),
+                                entries.size() - indexAfter(e.getValue().lastDeliveredSeq)))
+                        .toList();
+                return new StreamStats(name, entries.size(), lastId, groupStats);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
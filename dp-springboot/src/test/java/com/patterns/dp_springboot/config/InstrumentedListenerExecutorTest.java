@@ -0,0 +1,92 @@
+package com.patterns.dp_springboot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentedListenerExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void callerRunsTheListenerOnceThreadsAndQueueAreFull() throws InterruptedException {
+        executor = saturated(ListenerExecutorSettings.RejectionPolicy.CALLER_RUNS);
+        AtomicReference<String> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread().getName()));
+
+        assertThat(ranOn).hasValue(Thread.currentThread().getName());
+        assertThat(rejected("CALLER_RUNS")).isEqualTo(1.0);
+        assertThat(registry.get("observer.listener.queue.depth").tag("listener", "test").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void dropDiscardsTheListenerOnceThreadsAndQueueAreFull() throws InterruptedException {
+        executor = saturated(ListenerExecutorSettings.RejectionPolicy.DROP);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        executor.execute(() -> ran.set(true));
+
+        assertThat(ran).isFalse();
+        assertThat(rejected("DROP")).isEqualTo(1.0);
+    }
+
+    @Test
+    void recordsWaitAndExecutionTimePerTask() throws InterruptedException {
+        executor = InstrumentedListenerExecutor.create("test",
+                new ListenerExecutorSettings(1, 1, 10, ListenerExecutorSettings.RejectionPolicy.CALLER_RUNS, 1_000), registry);
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(done::countDown);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown(); // waits for the decorator to record the last task
+        assertThat(registry.get("observer.listener.wait").tag("listener", "test").timer().count()).isEqualTo(3);
+        assertThat(registry.get("observer.listener.execution").tag("listener", "test").timer().count()).isEqualTo(3);
+        assertThat(executor.getThreadNamePrefix()).isEqualTo("listener-test-");
+    }
+
+    // One thread stuck on the latch and one task queued behind it — the next submission is rejected
+    private ThreadPoolTaskExecutor saturated(ListenerExecutorSettings.RejectionPolicy policy) throws InterruptedException {
+        ThreadPoolTaskExecutor pool = InstrumentedListenerExecutor.create("test",
+                new ListenerExecutorSettings(1, 1, 1, policy, 1_000), registry);
+        CountDownLatch started = new CountDownLatch(1);
+        pool.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        pool.execute(this::awaitRelease);
+        return pool;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double rejected(String policy) {
+        return registry.get("observer.listener.rejected").tag("listener", "test").tag("policy", policy).counter().count();
+    }
+}
@@ -0,0 +1,30 @@
+package com.patterns.dp_springboot.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class VirtualThreadsDiagnosticsTest {
+
+    @Test
+    void reportsWhetherTheFlagTookEffectOnThisJdk(CapturedOutput output) {
+        new VirtualThreadsDiagnostics(true).report();
+
+        if (Runtime.version().feature() < 21) {
+            assertThat(output).contains("[VIRTUAL THREADS] spring.threads.virtual.enabled=true is ignored on JDK");
+        } else {
+            assertThat(output).contains("[VIRTUAL THREADS] Tomcat, @Async and scheduled tasks run on virtual threads");
+        }
+    }
+
+    @Test
+    void staysQuietWhenTheFlagIsOff(CapturedOutput output) {
+        new VirtualThreadsDiagnostics(false).report();
+
+        assertThat(output).doesNotContain("[VIRTUAL THREADS]");
+    }
+}
@@ -0,0 +1,95 @@
+package com.patterns.dp_springboot.observer.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+    private ThreadPoolTaskScheduler scheduler;
+
+    @BeforeEach
+    void startScheduler() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+    }
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void fullBatchIsHandedOverAtMaxSize() {
+        MicroBatcher<Integer> batcher = factory(3, 60_000).create("test", Runnable::run, batches::add);
+
+        for (int i = 1; i <= 7; i++) {
+            batcher.add(i);
+        }
+
+        assertThat(batches).containsExactly(List.of(1, 2, 3), List.of(4, 5, 6));
+        assertThat(flushes("size")).isEqualTo(2.0);
+    }
+
+    @Test
+    void partialBatchIsHandedOverAfterTheLinger() throws InterruptedException {
+        MicroBatcher<Integer> batcher = factory(100, 20).create("test", Runnable::run, batches::add);
+
+        batcher.add(1);
+        batcher.add(2);
+
+        assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly(1, 2);
+        assertThat(flushes("linger")).isEqualTo(1.0);
+        // The linger clock restarts with the next batch's first event
+        batcher.add(3);
+        assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly(3);
+    }
+
+    @Test
+    void stopFlushesWhateverIsBuffered() {
+        MicroBatcherFactory factory = factory(100, 60_000);
+        MicroBatcher<Integer> batcher = factory.create("test", Runnable::run, batches::add);
+        factory.start();
+
+        batcher.add(1);
+        factory.stop();
+
+        assertThat(batches).containsExactly(List.of(1));
+        assertThat(flushes("shutdown")).isEqualTo(1.0);
+        assertThat(factory.isRunning()).isFalse();
+    }
+
+    @Test
+    void aFailingBatchDoesNotStopLaterOnes() {
+        MicroBatcher<Integer> batcher = factory(1, 60_000).create("test", Runnable::run, batch -> {
+            if (batch.contains(1)) {
+                throw new IllegalStateException("smtp down");
+            }
+            batches.add(batch);
+        });
+
+        batcher.add(1);
+        batcher.add(2);
+
+        assertThat(batches).containsExactly(List.of(2));
+    }
+
+    private MicroBatcherFactory factory(int maxBatchSize, long lingerMs) {
+        return new MicroBatcherFactory(scheduler, registry, maxBatchSize, lingerMs);
+    }
+
+    private double flushes(String trigger) {
+        return registry.get("observer.listener.batch.flushes").tag("listener", "test").tag("trigger", trigger).counter().count();
+    }
+}
@@ -0,0 +1,196 @@
+package com.patterns.dp_springboot.observer.bus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferEventBusTest {
+
+    private final List<Object> toSpring = new CopyOnWriteArrayList<>();
+    private RingBufferEventBus bus;
+
+    @AfterEach
+    void stopBus() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void everyStageSeesEventsInPublishOrderAndDependentsRunAfterTheirUpstream() {
+        bus = new RingBufferEventBus(8, toSpring::add, 5_000);
+        Set<Integer> reserved = ConcurrentHashMap.newKeySet();
+        List<Integer> inventory = new CopyOnWriteArrayList<>();
+        List<Integer> email     = new CopyOnWriteArrayList<>();
+        List<Integer> audit     = new CopyOnWriteArrayList<>();
+        List<Integer> emailedBeforeReserved = new CopyOnWriteArrayList<>();
+        bus.subscribe("email", Integer.class, e -> {
+            if (!reserved.contains((Integer) e)) {
+                emailedBeforeReserved.add((Integer) e);
+            }
+            email.add((Integer) e);
+        }, "inventory");
+        bus.subscribe("inventory", Integer.class, e -> {
+            inventory.add((Integer) e);
+            reserved.add((Integer) e);
+        });
+        bus.subscribe("audit", Integer.class, e -> audit.add((Integer) e));
+        bus.start();
+
+        // Far more events than slots — publishers wait on the slowest stage instead of overwriting
+        List<Integer> events = IntStream.range(0, 1_000).boxed().toList();
+        for (int i = 0; i < 500; i++) {
+            bus.publish(events.get(i));
+        }
+        bus.publishAll(events.subList(500, 1_000));
+        bus.stop();
+
+        assertThat(inventory).containsExactlyElementsOf(events);
+        assertThat(email).containsExactlyElementsOf(events);
+        assertThat(audit).containsExactlyElementsOf(events);
+        assertThat(emailedBeforeReserved).isEmpty();
+        assertThat(toSpring).isEmpty();
+    }
+
+    @Test
+    void stagesDownstreamOfAFailureSkipThatEventOnly() {
+        bus = new RingBufferEventBus(16, toSpring::add, 5_000);
+        List<Integer> email    = new CopyOnWriteArrayList<>();
+        List<Integer> receipts = new CopyOnWriteArrayList<>();
+        List<Integer> audit    = new CopyOnWriteArrayList<>();
+        bus.subscribe("inventory", Integer.class, e -> {
+            if ((Integer) e % 10 == 3) {
+                throw new IllegalStateException("out of stock");
+            }
+        });
+        bus.subscribe("email", Integer.class, e -> email.add((Integer) e), "inventory");
+        bus.subscribe("receipt", Integer.class, e -> receipts.add((Integer) e), "email");
+        bus.subscribe("audit", Integer.class, e -> audit.add((Integer) e));
+        bus.start();
+
+        List<Integer> events = IntStream.range(0, 100).boxed().toList();
+        bus.publishAll(events);
+        bus.stop();
+
+        List<Integer> reserved = events.stream().filter(e -> e % 10 != 3).toList();
+        assertThat(email).containsExactlyElementsOf(reserved);
+        assertThat(receipts).containsExactlyElementsOf(reserved);
+        assertThat(audit).containsExactlyElementsOf(events);
+        assertThat(bus.skipped("email")).isEqualTo(10);
+        assertThat(bus.skipped("receipt")).isEqualTo(10);
+        assertThat(bus.skipped("audit")).isZero();
+    }
+
+    @Test
+    void eventsWithoutARingStageGoToSpring() {
+        bus = new RingBufferEventBus(8, toSpring::add, 5_000);
+        List<Object> ring = new CopyOnWriteArrayList<>();
+        bus.subscribe("numbers", Integer.class, ring::add);
+        bus.registerSpringListener(Long.class);
+        bus.start();
+
+        bus.publish("text");
+        bus.publish(1);
+        bus.publishAll(List.of(2L, 3));
+        bus.stop();
+
+        assertThat(ring).containsExactly(1, 3);
+        assertThat(toSpring).containsExactly("text", 2L);
+    }
+
+    @Test
+    void stopDrainsEverythingAlreadyPublished() {
+        bus = new RingBufferEventBus(1024, toSpring::add, 5_000);
+        List<Integer> slow = new CopyOnWriteArrayList<>();
+        bus.subscribe("slow", Integer.class, e -> {
+            sleep(1);
+            slow.add((Integer) e);
+        });
+        bus.start();
+
+        bus.publishAll(IntStream.range(0, 50).boxed().toList());
+        bus.stop();
+
+        assertThat(slow).hasSize(50);
+        assertThat(bus.isRunning()).isFalse();
+        assertThatThrownBy(() -> bus.publish(1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void insideATransactionAStoppedBusRefusesBeforeCommitAndNeverThrowsAfterIt() {
+        bus = new RingBufferEventBus(8, toSpring::add, 5_000);
+        List<Object> ring = new CopyOnWriteArrayList<>();
+        bus.subscribe("ring", Integer.class, ring::add);
+        bus.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish(1);
+            bus.publishAll(List.of(2, 3));
+            // Stopped between publish and commit — the order is already stored, so no exception
+            bus.stop();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertThatThrownBy(() -> bus.publish(4)).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> bus.publishAll(List.of(5))).isInstanceOf(IllegalStateException.class);
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(ring).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidGraphsAndLateSubscriptions() {
+        RingBufferEventBus cyclic = new RingBufferEventBus(8, toSpring::add, 5_000);
+        cyclic.subscribe("a", Integer.class, e -> { }, "b");
+        cyclic.subscribe("b", Integer.class, e -> { }, "a");
+        assertThatThrownBy(cyclic::start).hasMessageContaining("cycle");
+
+        RingBufferEventBus dangling = new RingBufferEventBus(8, toSpring::add, 5_000);
+        dangling.subscribe("a", Integer.class, e -> { }, "missing");
+        assertThatThrownBy(dangling::start).hasMessageContaining("unknown stage 'missing'");
+
+        bus = new RingBufferEventBus(8, toSpring::add, 5_000);
+        bus.subscribe("a", Integer.class, e -> { });
+        assertThatThrownBy(() -> bus.subscribe("a", Integer.class, e -> { })).hasMessageContaining("Duplicate");
+        bus.start();
+        assertThatThrownBy(() -> bus.subscribe("b", Integer.class, e -> { })).hasMessageContaining("already started");
+
+        assertThatThrownBy(() -> new RingBufferEventBus(6, toSpring::add, 5_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reportsStagesInDependencyOrderAndFreesSlotsOnceHandled() {
+        bus = new RingBufferEventBus(8, toSpring::add, 5_000);
+        bus.subscribe("b", Integer.class, e -> { }, "a");
+        bus.subscribe("a", Integer.class, e -> { });
+        bus.start();
+
+        bus.publishAll(List.of(1, 2, 3));
+        bus.stop();
+
+        assertThat(bus.stageNames()).containsExactly("a", "b");
+        assertThat(bus.size()).isEqualTo(8);
+        assertThat(bus.remainingCapacity()).isEqualTo(8);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
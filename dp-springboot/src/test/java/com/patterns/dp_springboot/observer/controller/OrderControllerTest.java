@@ -0,0 +1,54 @@
+package com.patterns.dp_springboot.observer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void batchIsCreatedWhenEveryOrderIsPlaced() throws Exception {
+        mvc.perform(post("/api/v1/orders/batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"orders": [
+                          {"customerId": "user-1", "product": "book", "quantity": 1},
+                          {"customerId": "user-1", "product": "pen", "quantity": 2}
+                        ]}"""))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.placed").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("PLACED"))
+                .andExpect(jsonPath("$.results[1].order.product").value("pen"));
+    }
+
+    @Test
+    void batchIsMultiStatusWhenSomeOrdersAreRejected() throws Exception {
+        mvc.perform(post("/api/v1/orders/batch").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"orders": [
+                          {"customerId": "user-1", "product": "book", "quantity": 1},
+                          {"customerId": "user-1", "product": "", "quantity": 1}
+                        ]}"""))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.placed").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].order").doesNotExist())
+                .andExpect(jsonPath("$.results[1].errors[0]").value("product: must not be blank"));
+    }
+
+    @Test
+    void emptyBatchIsABadRequest() throws Exception {
+        mvc.perform(post("/api/v1/orders/batch").contentType(MediaType.APPLICATION_JSON).content("{\"orders\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+}
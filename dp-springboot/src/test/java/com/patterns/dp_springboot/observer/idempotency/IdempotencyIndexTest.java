@@ -0,0 +1,200 @@
+package com.patterns.dp_springboot.observer.idempotency;
+
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.exception.IdempotencyKeyInProgressException;
+import com.patterns.dp_springboot.observer.exception.IdempotencyKeyReusedException;
+import com.patterns.dp_springboot.observer.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class IdempotencyIndexTest {
+
+    private static final OrderRequest REQUEST = new OrderRequest("user-1", "book", 2);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private final AtomicInteger placements = new AtomicInteger();
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void repeatedKeyReplaysTheFirstResponse() {
+        IdempotencyIndex index = index(100, 10_000);
+
+        IdempotencyIndex.Outcome first  = index.place("key-1", REQUEST, placement("1"));
+        IdempotencyIndex.Outcome second = index.place("key-1", REQUEST, placement("2"));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.response()).isEqualTo(first.response());
+        assertThat(placements).hasValue(1);
+        assertThat(requests("executed")).isEqualTo(1.0);
+        assertThat(requests("replayed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void concurrentRequestsWithOneKeyCoalesceOntoOnePlacement() throws Exception {
+        IdempotencyIndex index = index(100, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<IdempotencyIndex.Outcome>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            calls.add(pool.submit(() -> index.place("key-1", REQUEST, blocked(release, "1"))));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("coalesced") == 7.0);
+        release.countDown();
+
+        List<OrderResponse> responses = new ArrayList<>();
+        for (Future<IdempotencyIndex.Outcome> call : calls) {
+            responses.add(call.get(5, TimeUnit.SECONDS).response());
+        }
+        assertThat(placements).hasValue(1);
+        assertThat(responses).hasSize(8).containsOnly(response("1"));
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsRejected() {
+        IdempotencyIndex index = index(100, 10_000);
+        index.place("key-1", REQUEST, placement("1"));
+
+        assertThatThrownBy(() -> index.place("key-1", new OrderRequest("user-1", "book", 3), placement("2")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(placements).hasValue(1);
+    }
+
+    @Test
+    void failedPlacementIsForgottenAndWaitersSeeTheSameFailure() throws Exception {
+        IdempotencyIndex index = index(100, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<IdempotencyIndex.Outcome> first = pool.submit(() -> index.place("key-1", REQUEST, () -> {
+            awaitQuietly(release);
+            throw new IllegalStateException("db down");
+        }));
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("executed") == 1.0);
+        Future<IdempotencyIndex.Outcome> waiter = pool.submit(() -> index.place("key-1", REQUEST, placement("x")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("coalesced") == 1.0);
+
+        release.countDown();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+        // The retry runs the placement again
+        assertThat(index.place("key-1", REQUEST, placement("2")).replayed()).isFalse();
+        assertThat(placements).hasValue(1);
+    }
+
+    @Test
+    void errorsAlsoReleaseTheKey() {
+        IdempotencyIndex index = index(100, 10_000);
+
+        assertThatThrownBy(() -> index.place("key-1", REQUEST, () -> {
+            throw new OutOfMemoryError("simulated");
+        })).isInstanceOf(OutOfMemoryError.class);
+
+        assertThat(index.place("key-1", REQUEST, placement("1")).replayed()).isFalse();
+    }
+
+    @Test
+    void waiterGivesUpAfterTheTimeout() throws Exception {
+        IdempotencyIndex index = index(100, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(() -> index.place("key-1", REQUEST, blocked(release, "1")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("executed") == 1.0);
+
+        try {
+            assertThatThrownBy(() -> index.place("key-1", REQUEST, placement("2")))
+                    .isInstanceOf(IdempotencyKeyInProgressException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void sizeEvictionNeverDropsAKeyWhilePlacementIsRunning() throws Exception {
+        IdempotencyIndex index = index(2, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<IdempotencyIndex.Outcome> inFlight = pool.submit(() -> index.place("slow", REQUEST, blocked(release, "slow")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("executed") == 1.0);
+
+        // Far more completed keys than max-keys — some of them must be evicted
+        for (int i = 0; i < 20; i++) {
+            index.place("key-" + i, REQUEST, placement(String.valueOf(i)));
+        }
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> registry.get("cache.evictions").tag("cache", "idempotency-keys").functionCounter().count() >= 18);
+
+        // The in-flight key is still there: a retry coalesces instead of placing a second order
+        Future<IdempotencyIndex.Outcome> retry = pool.submit(() -> index.place("slow", REQUEST, placement("again")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests("coalesced") == 1.0);
+        release.countDown();
+
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).response()).isEqualTo(response("slow"));
+        assertThat(retry.get(5, TimeUnit.SECONDS).response()).isEqualTo(response("slow"));
+        assertThat(placements).hasValue(21);
+    }
+
+    @Test
+    void rejectsBlankAndOverlongKeys() {
+        IdempotencyIndex index = index(100, 10_000);
+
+        assertThatThrownBy(() -> index.place(" ", REQUEST, placement("1")))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThatThrownBy(() -> index.place("k".repeat(IdempotencyIndex.MAX_KEY_LENGTH + 1), REQUEST, placement("1")))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    private IdempotencyIndex index(long maxKeys, long waitTimeoutMs) {
+        return new IdempotencyIndex(maxKeys, 60_000, waitTimeoutMs, registry);
+    }
+
+    private Supplier<OrderResponse> placement(String orderId) {
+        return () -> {
+            placements.incrementAndGet();
+            return response(orderId);
+        };
+    }
+
+    private Supplier<OrderResponse> blocked(CountDownLatch release, String orderId) {
+        return () -> {
+            awaitQuietly(release);
+            placements.incrementAndGet();
+            return response(orderId);
+        };
+    }
+
+    private static OrderResponse response(String orderId) {
+        return new OrderResponse(orderId, REQUEST.customerId(), REQUEST.product(), REQUEST.quantity(), "PLACED");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double requests(String outcome) {
+        return registry.get("observer.idempotency.requests").tag("outcome", outcome).counter().count();
+    }
+}
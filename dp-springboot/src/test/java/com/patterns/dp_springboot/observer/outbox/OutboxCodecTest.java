@@ -0,0 +1,41 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patterns.dp_springboot.observer.domain.OutboxEvent;
+import com.patterns.dp_springboot.observer.event.OrderDeletedEvent;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxCodecTest {
+
+    private final OutboxCodec codec = new OutboxCodec(new ObjectMapper());
+
+    @Test
+    void eventsRoundTripUnderTheirShortTypeName() {
+        OrderPlacedEvent placed   = new OrderPlacedEvent("42", "user-1", "book", 2);
+        OrderDeletedEvent deleted = new OrderDeletedEvent("42", "admin");
+
+        assertThat(codec.typeOf(placed)).isEqualTo("OrderPlaced");
+        assertThat(codec.typeOf(deleted)).isEqualTo("OrderDeleted");
+        assertThat(codec.decode(row("OrderPlaced", codec.encode(placed)))).isEqualTo(placed);
+        assertThat(codec.decode(row("OrderDeleted", codec.encode(deleted)))).isEqualTo(deleted);
+    }
+
+    @Test
+    void rejectsTypesOutsideTheFixedTable() {
+        assertThatThrownBy(() -> codec.typeOf("not an event")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(row("java.lang.Runtime", "{}")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Unknown outbox event type");
+        assertThatThrownBy(() -> codec.decode(row("OrderPlaced", "{not json")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Corrupt outbox payload");
+    }
+
+    private static OutboxEvent row(String type, String payload) {
+        return new OutboxEvent(1L, type, payload, 0L, 0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.patterns.dp_springboot.observer.outbox;
+
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.observer.repository.OutboxDeadLetterRepository;
+import com.patterns.dp_springboot.observer.repository.OutboxEventRepository;
+import com.patterns.dp_springboot.observer.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_test;DB_CLOSE_DELAY=-1",
+        "observer.outbox.enabled=true",
+        "observer.outbox.relay.poll-ms=20",
+        "observer.outbox.relay.max-attempts=3"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @Autowired
+    private RecordingConsumer consumer;
+
+    @Autowired
+    private OutboxDeadLetterRepository deadLetters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reset() {
+        consumer.received.clear();
+        consumer.failuresLeft.set(0);
+        consumer.poisonCustomerId = null;
+    }
+
+    @Test
+    void placedOrderIsRelayedAndItsRowDeleted() {
+        OrderResponse order = orderService.place(new OrderRequest("user-1", "book", 2));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> placedIds().contains(order.orderId()));
+        await().atMost(Duration.ofSeconds(10)).until(() -> outbox.count() == 0);
+        assertThat(consumer.received).contains(new OrderPlacedEvent(order.orderId(), "user-1", "book", 2));
+    }
+
+    @Test
+    void failedDeliveryRollsBackAndIsRetried() {
+        double failuresBefore = meterRegistry.get("observer.outbox.failures").counter().count();
+        consumer.failuresLeft.set(1);
+
+        OrderResponse order = orderService.place(new OrderRequest("user-2", "pen", 1));
+
+        // Seen by the failing attempt and again by the retry — at-least-once
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> placedIds().stream().filter(order.orderId()::equals).count() == 2);
+        await().atMost(Duration.ofSeconds(10)).until(() -> outbox.count() == 0);
+        assertThat(meterRegistry.get("observer.outbox.failures").counter().count()).isEqualTo(failuresBefore + 1);
+    }
+
+    @Test
+    void undecodableRowIsDeadLetteredAndTheRowsBehindItStillFlow() {
+        double deadBefore = meterRegistry.get("observer.outbox.dead-lettered").counter().count();
+        // Lowest possible id, so it is claimed ahead of the order below
+        jdbcTemplate.update(OutboxWriter.INSERT_SQL, 1L, "OrderPlaced", "not json", System.currentTimeMillis());
+
+        OrderResponse order = orderService.place(new OrderRequest("user-4", "mug", 1));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> placedIds().contains(order.orderId()));
+        await().atMost(Duration.ofSeconds(10)).until(() -> deadLetters.existsById(1L));
+        await().atMost(Duration.ofSeconds(10)).until(() -> outbox.count() == 0);
+        assertThat(deadLetters.findById(1L).orElseThrow().getError()).contains("Corrupt outbox payload");
+        assertThat(meterRegistry.get("observer.outbox.dead-lettered").counter().count()).isEqualTo(deadBefore + 1);
+    }
+
+    @Test
+    void eventEveryConsumerRejectsIsDeadLetteredAfterMaxAttempts() {
+        consumer.poisonCustomerId = "user-5";
+        OrderResponse poison = orderService.place(new OrderRequest("user-5", "lamp", 1));
+        OrderResponse healthy = orderService.place(new OrderRequest("user-6", "desk", 1));
+
+        await().atMost(Duration.ofSeconds(20)).until(() -> placedIds().contains(healthy.orderId()));
+        await().atMost(Duration.ofSeconds(20)).until(() -> outbox.count() == 0);
+        assertThat(deadLetters.findAll())
+                .anySatisfy(row -> {
+                    assertThat(row.getPayload()).contains(poison.orderId());
+                    // Another worker may retry before a rollback's increment commits
+                    assertThat(row.getAttempts()).isGreaterThanOrEqualTo(3);
+                });
+    }
+
+    @Test
+    void writerBuffersRowsUntilCommitAndWritesNothingOnRollback() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long rowsBeforeCommit = tx.execute(status -> {
+            for (int i = 0; i < 3; i++) {
+                outboxWriter.onOrderPlaced(new OrderPlacedEvent("buffered-" + i, "user-7", "ink", 1));
+            }
+            return outbox.count();
+        });
+        tx.executeWithoutResult(status -> {
+            outboxWriter.onOrderPlaced(new OrderPlacedEvent("rolled-back", "user-7", "ink", 1));
+            status.setRollbackOnly();
+        });
+
+        assertThat(rowsBeforeCommit).isZero();
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> placedIds().containsAll(List.of("buffered-0", "buffered-1", "buffered-2")));
+        await().atMost(Duration.ofSeconds(10)).until(() -> outbox.count() == 0);
+        assertThat(placedIds()).doesNotContain("rolled-back");
+    }
+
+    @Test
+    void writerRefusesToRunOutsideATransaction() {
+        assertThatThrownBy(() -> outboxWriter.onOrderPlaced(new OrderPlacedEvent("1", "user-3", "cup", 1)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(outbox.count()).isZero();
+    }
+
+    private List<String> placedIds() {
+        return consumer.received.stream()
+                .filter(OrderPlacedEvent.class::isInstance)
+                .map(e -> ((OrderPlacedEvent) e).orderId())
+                .toList();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+
+    static class RecordingConsumer implements OutboxConsumer {
+
+        final List<Object> received = new CopyOnWriteArrayList<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        volatile String poisonCustomerId;
+
+        @Override
+        public void consume(List<Object> events) {
+            received.addAll(events);
+            if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("consumer down");
+            }
+            String poison = poisonCustomerId;
+            if (poison != null && events.stream().anyMatch(e -> e instanceof OrderPlacedEvent placed && placed.customerId().equals(poison))) {
+                throw new IllegalStateException("cannot handle orders of " + poison);
+            }
+        }
+    }
+}
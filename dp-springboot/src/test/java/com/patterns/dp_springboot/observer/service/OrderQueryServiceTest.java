@@ -0,0 +1,84 @@
+package com.patterns.dp_springboot.observer.service;
+
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.exception.OrderNotFoundException;
+import com.patterns.dp_springboot.observer.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderQueryServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache orders;
+
+    @BeforeEach
+    void lookUpCache() {
+        orders = cacheManager.getCache(OrderQueryService.ORDERS_CACHE);
+    }
+
+    @Test
+    void placedOrderIsCachedOnCommit() {
+        OrderResponse placed = orderService.place(new OrderRequest("user-1", "book", 2));
+
+        assertThat(orders.get(placed.orderId(), OrderResponse.class)).isEqualTo(placed);
+    }
+
+    @Test
+    void missLoadsFromTheDatabaseOnceThenServesFromTheCache() {
+        OrderResponse placed = orderService.place(new OrderRequest("user-2", "pen", 1));
+        orders.evict(placed.orderId());
+
+        assertThat(orderQueryService.find(placed.orderId())).isEqualTo(placed);
+        // Gone from the table behind the cache's back — still answered from the cache
+        transactionTemplate.executeWithoutResult(s -> orderRepository.deleteOrder(Long.parseLong(placed.orderId())));
+        assertThat(orderQueryService.find(placed.orderId())).isEqualTo(placed);
+    }
+
+    @Test
+    void deletedOrderIsEvictedAndNotFoundIsNeverCached() {
+        OrderResponse placed = orderService.place(new OrderRequest("user-3", "cup", 1));
+
+        orderService.delete(placed.orderId(), "admin");
+
+        assertThat(orders.get(placed.orderId())).isNull();
+        assertThatThrownBy(() -> orderQueryService.find(placed.orderId())).isInstanceOf(OrderNotFoundException.class);
+        assertThat(orders.get(placed.orderId())).isNull();
+    }
+
+    @Test
+    void rolledBackOrderIsNeverCached() {
+        String[] orderId = new String[1];
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderId[0] = orderService.place(new OrderRequest("user-4", "lamp", 1)).orderId();
+            status.setRollbackOnly();
+        });
+
+        assertThat(orders.get(orderId[0])).isNull();
+        assertThatThrownBy(() -> orderQueryService.find(orderId[0])).isInstanceOf(OrderNotFoundException.class);
+    }
+}
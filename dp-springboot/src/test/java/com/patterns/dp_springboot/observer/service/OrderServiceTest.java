@@ -0,0 +1,153 @@
+package com.patterns.dp_springboot.observer.service;
+
+import com.patterns.dp_springboot.observer.dto.OrderBatchResponse;
+import com.patterns.dp_springboot.observer.dto.OrderItemResult;
+import com.patterns.dp_springboot.observer.dto.OrderItemResult.Status;
+import com.patterns.dp_springboot.observer.dto.OrderRequest;
+import com.patterns.dp_springboot.observer.dto.OrderResponse;
+import com.patterns.dp_springboot.observer.event.OrderPlacedEvent;
+import com.patterns.dp_springboot.observer.exception.OrderNotFoundException;
+import com.patterns.dp_springboot.observer.repository.OrderRepository;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders_test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "observer.orders.batch-chunk-size=50"
+})
+class OrderServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlacedEvents placedEvents;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        placedEvents.received.clear();
+    }
+
+    @Test
+    void placeStoresTheOrderUnderASnowflakeKeyWithASingleInsert() {
+        long before = System.currentTimeMillis();
+
+        OrderResponse order = orderService.place(new OrderRequest("user-1", "book", 2));
+
+        long id = Long.parseLong(order.orderId());
+        assertThat(SnowflakeLayout.timestampMs(id)).isBetween(before, System.currentTimeMillis());
+        // Persistable: no SELECT-then-merge for an assigned id
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(orderRepository.findById(id)).get()
+                .satisfies(o -> assertThat(o.getProduct()).isEqualTo("book"));
+    }
+
+    @Test
+    void placeBatchSendsInsertsInJdbcBatches() {
+        OrderBatchResponse response = orderService.placeBatch(
+                Collections.nCopies(120, new OrderRequest("user-2", "pen", 1)));
+
+        assertThat(response.placed()).isEqualTo(120);
+        // batch_size=50 and chunks of 50 → 3 batched INSERTs, not 120 statements
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+    }
+
+    @Test
+    void deleteRemovesTheOrderAndRejectsUnknownIds() {
+        OrderResponse order = orderService.place(new OrderRequest("user-3", "cup", 1));
+
+        orderService.delete(order.orderId(), "admin");
+
+        assertThat(orderRepository.existsById(Long.parseLong(order.orderId()))).isFalse();
+        assertThatThrownBy(() -> orderService.delete(order.orderId(), "admin")).isInstanceOf(OrderNotFoundException.class);
+        assertThatThrownBy(() -> orderService.delete("not-a-number", "admin")).isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @Test
+    void placeBatchReportsEveryItemInRequestOrder() {
+        List<OrderRequest> requests = List.of(
+                new OrderRequest("user-4", "book", 1),
+                new OrderRequest("", "book", 1),
+                new OrderRequest("user-4", "pen", 0),
+                new OrderRequest("user-4", "cup", 3));
+
+        OrderBatchResponse response = orderService.placeBatch(requests);
+
+        assertThat(response.placed()).isEqualTo(2);
+        assertThat(response.rejected()).isEqualTo(2);
+        assertThat(response.allPlaced()).isFalse();
+        assertThat(response.results()).extracting(OrderItemResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(response.results()).extracting(OrderItemResult::status)
+                .containsExactly(Status.PLACED, Status.REJECTED, Status.REJECTED, Status.PLACED);
+        assertThat(response.results().get(1).errors()).containsExactly("customerId: must not be blank");
+        assertThat(response.results().get(2).errors()).containsExactly("quantity: must be greater than 0");
+        // One event per placed order, in request order
+        assertThat(placedEvents.received).extracting(OrderPlacedEvent::product).containsExactly("book", "cup");
+        assertThat(placedEvents.received).extracting(OrderPlacedEvent::orderId)
+                .containsExactly(response.results().get(0).order().orderId(), response.results().get(3).order().orderId());
+    }
+
+    @Test
+    void aFailingChunkRollsBackOnlyItsOwnOrders() {
+        List<OrderRequest> requests = new ArrayList<>(Collections.nCopies(100, new OrderRequest("user-5", "pen", 1)));
+        requests.set(70, new OrderRequest("user-5", PlacedEvents.EXPLODE, 1));
+
+        OrderBatchResponse response = orderService.placeBatch(requests);
+
+        assertThat(response.placed()).isEqualTo(50);
+        assertThat(response.failed()).isEqualTo(50);
+        assertThat(response.results().subList(0, 50)).allSatisfy(r -> assertThat(r.status()).isEqualTo(Status.PLACED));
+        assertThat(response.results().subList(50, 100)).allSatisfy(r -> {
+            assertThat(r.status()).isEqualTo(Status.FAILED);
+            assertThat(r.errors()).singleElement().asString().startsWith("Chunk rolled back");
+        });
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        assertThat(response.results().subList(0, 50))
+                .allSatisfy(r -> assertThat(orderRepository.existsById(Long.parseLong(r.order().orderId()))).isTrue());
+    }
+
+    // Synchronous listener inside the placing transaction — throwing rolls the chunk back
+    @TestConfiguration
+    static class PlacedEvents {
+
+        static final String EXPLODE = "explode";
+
+        final List<OrderPlacedEvent> received = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onOrderPlaced(OrderPlacedEvent event) {
+            if (EXPLODE.equals(event.product())) {
+                throw new IllegalStateException("inventory rejected " + event.orderId());
+            }
+            received.add(event);
+        }
+    }
+}
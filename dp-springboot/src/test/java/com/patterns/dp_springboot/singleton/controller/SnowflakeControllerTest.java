@@ -0,0 +1,48 @@
+package com.patterns.dp_springboot.singleton.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SnowflakeControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void streamsRawIds() throws Exception {
+        MvcResult started = mvc.perform(get("/api/v1/ids/stream").param("count", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult done = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn();
+
+        assertThat(done.getResponse().getContentAsByteArray()).hasSize(5_000 * Long.BYTES);
+    }
+
+    @Test
+    void rejectsCountsOutsideTheConfiguredBounds() throws Exception {
+        mvc.perform(get("/api/v1/ids/stream").param("count", "10000001"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/ids/stream").param("count", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/ids/batch").param("count", "10001"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,75 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClockDriftPolicyTest {
+
+    @Test
+    void strictPolicyRefusesAnyStepBackAndNeverBorrows() {
+        ClockDriftPolicy strict = new ClockDriftPolicy(0);
+
+        assertThatCode(() -> strict.tolerate(0)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> strict.tolerate(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Clock moved backwards by 1ms");
+        assertThat(strict.canBorrow(0)).isFalse();
+    }
+
+    @Test
+    void boundedPolicyToleratesALeadUpToItsBound() {
+        ClockDriftPolicy policy = new ClockDriftPolicy(5);
+
+        policy.tolerate(3);
+        policy.tolerate(5);
+
+        assertThat(policy.maxLeadMs()).isEqualTo(5);
+        assertThatThrownBy(() -> policy.tolerate(6)).isInstanceOf(IllegalStateException.class);
+        // Borrowing takes the next ms, so it is allowed only while that keeps the lead in bounds
+        assertThat(policy.canBorrow(4)).isTrue();
+        assertThat(policy.canBorrow(5)).isFalse();
+    }
+
+    @Test
+    void rejectsANegativeBound() {
+        assertThatThrownBy(() -> new ClockDriftPolicy(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void exhaustedSequenceBorrowsTheNextMillisecondWithinTheBound(SnowflakeMode mode) {
+        SnowflakeIdGenerator generator = SnowflakeIdGeneratorTest.generator(mode, 20);
+
+        // Several ms worth of IDs in one go outruns the wall clock — retry in case the thread was descheduled
+        long[] ids = new long[0];
+        for (int attempt = 0; attempt < 10 && generator.borrowedMillis() == 0; attempt++) {
+            ids = generator.reserveRange(5 * 4096).toArray();
+        }
+
+        assertThat(generator.borrowedMillis()).isPositive();
+        assertThat(generator.idsAheadOfClock()).isPositive();
+        assertThat(generator.maxObservedLeadMs()).isBetween(1L, 20L);
+        assertThat(ids).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void strictGeneratorWaitsForTheClockInsteadOfBorrowing(SnowflakeMode mode) {
+        SnowflakeIdGenerator generator = SnowflakeIdGeneratorTest.generator(mode, 0);
+
+        SnowflakeIdRange range = generator.reserveRange(3 * 4096);
+        long now = System.currentTimeMillis();
+
+        assertThat(generator.borrowedMillis()).isZero();
+        assertThat(generator.idsAheadOfClock()).isZero();
+        assertThat(SnowflakeLayout.timestampMs(range.get(range.size() - 1))).isLessThanOrEqualTo(now);
+    }
+}
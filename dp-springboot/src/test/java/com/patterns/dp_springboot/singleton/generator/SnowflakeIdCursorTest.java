@@ -0,0 +1,77 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdCursorTest {
+
+    @Test
+    void layoutDecodesWhatTheGeneratorEncoded() {
+        long before = System.currentTimeMillis();
+        long id = SnowflakeIdGeneratorTest.generator(SnowflakeMode.SYNCHRONIZED, 0).nextId();
+        long after = System.currentTimeMillis();
+
+        assertThat(SnowflakeLayout.timestampMs(id)).isBetween(before, after);
+        assertThat(SnowflakeLayout.workerId(id)).isEqualTo(7L);
+        assertThat(SnowflakeLayout.sequence(id)).isBetween(0L, SnowflakeLayout.MAX_SEQUENCE);
+    }
+
+    @Test
+    void minIdAtIsTheLowestIdOfThatMillisecond() {
+        long ms = 1_750_000_000_000L;
+        long lowest = SnowflakeLayout.minIdAt(ms);
+
+        assertThat(SnowflakeLayout.timestampMs(lowest)).isEqualTo(ms);
+        assertThat(SnowflakeLayout.workerId(lowest)).isZero();
+        assertThat(SnowflakeLayout.sequence(lowest)).isZero();
+        assertThat(SnowflakeLayout.timestampMs(lowest - 1)).isEqualTo(ms - 1);
+    }
+
+    @Test
+    void cursorWalksTheWrappedSliceAndDecodesEachId() {
+        long ms = 1_750_000_000_000L;
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = SnowflakeLayout.minIdAt(ms + i) | (9L << SnowflakeLayout.WORKER_SHIFT) | i;
+        }
+        SnowflakeIdCursor cursor = new SnowflakeIdCursor().wrap(ids, 1, 4);
+
+        int seen = 0;
+        while (cursor.next()) {
+            int i = 1 + seen++;
+            assertThat(cursor.id()).isEqualTo(ids[i]);
+            assertThat(cursor.timestampMs()).isEqualTo(ms + i);
+            assertThat(cursor.workerId()).isEqualTo(9L);
+            assertThat(cursor.sequence()).isEqualTo(i);
+        }
+        assertThat(seen).isEqualTo(3);
+    }
+
+    @Test
+    void cursorIsReusableAcrossArraysAndCanJump() {
+        SnowflakeIdCursor cursor = new SnowflakeIdCursor();
+        cursor.wrap(new long[]{1L, 2L});
+        while (cursor.next()) {
+            // drain
+        }
+
+        cursor.wrap(new long[]{10L, 20L, 30L});
+
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.id()).isEqualTo(10L);
+        assertThat(cursor.moveTo(2).id()).isEqualTo(30L);
+        assertThat(cursor.next()).isFalse();
+    }
+
+    @Test
+    void rejectsOutOfBoundsSlicesAndJumps() {
+        SnowflakeIdCursor cursor = new SnowflakeIdCursor();
+        long[] ids = new long[3];
+
+        assertThatThrownBy(() -> cursor.wrap(ids, 2, 4)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> cursor.wrap(ids, 2, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> cursor.wrap(ids, 1, 3).moveTo(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS    = 8;
+    private static final int PER_THREAD = 20_000;
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void idsAreUniqueUnderContention(SnowflakeMode mode) throws Exception {
+        SnowflakeIdGenerator generator = generator(mode, 0);
+
+        long[] all = collect(THREADS, () -> {
+            long[] ids = new long[PER_THREAD];
+            for (int i = 0; i < PER_THREAD; i++) {
+                ids[i] = generator.nextId();
+            }
+            return ids;
+        });
+
+        assertThat(all).hasSize(THREADS * PER_THREAD);
+        assertThat(Arrays.stream(all).distinct().count()).isEqualTo(all.length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void idsFromOneThreadIncreaseAndCarryTheWorkerId(SnowflakeMode mode) {
+        SnowflakeIdGenerator generator = generator(mode, 0);
+
+        long previous = 0L;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(SnowflakeLayout.workerId(id)).isEqualTo(7L);
+            previous = id;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void reserveRangeSpansMillisecondsInContiguousRuns(SnowflakeMode mode) {
+        SnowflakeIdGenerator generator = generator(mode, 0);
+        generator.nextId(); // start part-way into a ms, so the first run is partial
+
+        SnowflakeIdRange range = generator.reserveRange(10_000);
+
+        int perMs = 4096 / generator.stripes();
+        assertThat(range.size()).isEqualTo(10_000);
+        assertThat(range.runs()).isGreaterThanOrEqualTo(10_000 / perMs + 1);
+        long previousMs = -1L;
+        for (int r = 0; r < range.runs(); r++) {
+            long first = range.firstId(r);
+            long last  = first + range.runLength(r) - 1;
+            // A run never crosses a ms, and each one starts in a later ms than the last
+            assertThat(SnowflakeLayout.timestampMs(last)).isEqualTo(SnowflakeLayout.timestampMs(first));
+            assertThat(SnowflakeLayout.timestampMs(first)).isGreaterThan(previousMs);
+            assertThat(range.runLength(r)).isLessThanOrEqualTo(perMs);
+            previousMs = SnowflakeLayout.timestampMs(first);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void reserveRangeAgreesWithItsOwnViews(SnowflakeMode mode) {
+        SnowflakeIdRange range = generator(mode, 0).reserveRange(5_000);
+
+        long[] ids = range.toArray();
+        long[] visited = new long[ids.length];
+        int[] pos = {0};
+        range.forEach(id -> visited[pos[0]++] = id);
+
+        assertThat(visited).containsExactly(ids);
+        assertThat(range.get(0)).isEqualTo(ids[0]);
+        assertThat(range.get(4_999)).isEqualTo(ids[4_999]);
+        assertThat(ids).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+        assertThatThrownBy(() -> range.get(5_000)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void reservedRangesAndSingleIdsNeverOverlap(SnowflakeMode mode) throws Exception {
+        SnowflakeIdGenerator generator = generator(mode, 0);
+
+        long[] all = collect(THREADS, () -> {
+            long[] ids = new long[10 * 1_001];
+            int pos = 0;
+            for (int i = 0; i < 10; i++) {
+                long[] block = generator.reserveRange(1_000).toArray();
+                System.arraycopy(block, 0, ids, pos, block.length);
+                pos += block.length;
+                ids[pos++] = generator.nextId();
+            }
+            return ids;
+        });
+
+        assertThat(Arrays.stream(all).distinct().count()).isEqualTo(all.length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SnowflakeMode.class)
+    void reserveRangeRejectsNonPositiveCounts(SnowflakeMode mode) {
+        SnowflakeIdGenerator generator = generator(mode, 0);
+
+        assertThatThrownBy(() -> generator.reserveRange(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> generator.reserveRange(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static SnowflakeIdGenerator generator(SnowflakeMode mode, long maxBorrowMs) {
+        return new SnowflakeIdGenerator(WorkerIdAssignment.fixed(7), mode, 8, maxBorrowMs);
+    }
+
+    // Runs the task on every thread at once and returns everything the threads produced
+    static long[] collect(int threads, Callable<long[]> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = pool.submit(task);
+            }
+            long[][] parts = new long[threads][];
+            int total = 0;
+            for (int t = 0; t < threads; t++) {
+                parts[t] = (long[]) futures[t].get(30, TimeUnit.SECONDS);
+                total += parts[t].length;
+            }
+            long[] all = new long[total];
+            int pos = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, all, pos, part.length);
+                pos += part.length;
+            }
+            return all;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+/** Builds {@link SnowflakeIdRange}s directly, for tests outside this package. */
+public final class SnowflakeIdRanges {
+
+    private SnowflakeIdRanges() {
+    }
+
+    public static SnowflakeIdRange run(long firstId, int length) {
+        SnowflakeIdRange.Builder builder = new SnowflakeIdRange.Builder(length);
+        builder.add(firstId, length);
+        return builder.build();
+    }
+}
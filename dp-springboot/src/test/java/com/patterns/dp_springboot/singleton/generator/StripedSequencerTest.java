@@ -0,0 +1,60 @@
+package com.patterns.dp_springboot.singleton.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedSequencerTest {
+
+    private static final long WORKER_BITS = 7L << SnowflakeLayout.WORKER_SHIFT;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 3, 12, 512})
+    void rejectsStripeCountsThatAreNotAPowerOfTwoUpTo256(int stripes) {
+        assertThatThrownBy(() -> new StripedSequencer(WORKER_BITS, stripes, new ClockDriftPolicy(0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void threadsArePinnedToDisjointSlicesOfTheSequence() throws Exception {
+        StripedSequencer sequencer = new StripedSequencer(WORKER_BITS, 4, new ClockDriftPolicy(0));
+        Set<Long> stripesSeen = ConcurrentHashMap.newKeySet();
+
+        long[] all = SnowflakeIdGeneratorTest.collect(4, () -> {
+            long[] ids = new long[5_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = sequencer.nextId();
+            }
+            // stripes=4 → the top 2 of the 12 sequence bits; one thread never leaves its stripe
+            long stripe = SnowflakeLayout.sequence(ids[0]) >>> 10;
+            assertThat(Arrays.stream(ids).map(id -> SnowflakeLayout.sequence(id) >>> 10)).containsOnly(stripe);
+            stripesSeen.add(stripe);
+            return ids;
+        });
+
+        assertThat(stripesSeen).containsExactlyInAnyOrder(0L, 1L, 2L, 3L);
+        assertThat(Arrays.stream(all).distinct().count()).isEqualTo(all.length);
+    }
+
+    @Test
+    void countsExhaustionOnTheStripeThatRanOut() {
+        StripedSequencer sequencer = new StripedSequencer(WORKER_BITS, 8, new ClockDriftPolicy(0));
+
+        // 512 IDs per stripe per ms — 2000 from one thread must run its stripe dry at least once
+        SnowflakeIdRange range = sequencer.reserveRange(2_000);
+
+        long[] exhausted = sequencer.exhaustionCounts();
+        assertThat(range.size()).isEqualTo(2_000);
+        assertThat(exhausted).hasSize(8);
+        assertThat(Arrays.stream(exhausted).sum()).isPositive();
+        assertThat(Arrays.stream(exhausted).filter(n -> n > 0).count()).isEqualTo(1L);
+        assertThat(sequencer.stripes()).isEqualTo(8);
+    }
+}
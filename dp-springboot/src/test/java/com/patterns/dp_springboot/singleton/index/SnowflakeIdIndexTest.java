@@ -0,0 +1,111 @@
+package com.patterns.dp_springboot.singleton.index;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdRange;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdRanges;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeIdIndexTest {
+
+    private static final long MS = 1_750_000_000_000L;
+
+    @Test
+    void queryReturnsOneWorkersIdsInsideTheWindowInOrder() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(true, 1_000, 60_000);
+        // Added out of order, across three ms and two workers
+        index.add(id(MS + 2, 1, 0));
+        index.add(id(MS, 2, 5));
+        index.add(id(MS, 1, 7));
+        index.add(id(MS + 1, 1, 3));
+        index.add(id(MS, 1, 2));
+
+        assertThat(index.query(MS, MS + 1, 1, 100))
+                .containsExactly(id(MS, 1, 2), id(MS, 1, 7), id(MS + 1, 1, 3));
+        assertThat(index.query(MS, MS + 2, 2, 100)).containsExactly(id(MS, 2, 5));
+        assertThat(index.query(MS, MS + 2, 1, 2)).containsExactly(id(MS, 1, 2), id(MS, 1, 7));
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.bucketCount()).isEqualTo(3);
+    }
+
+    @Test
+    void interleavedRunsInOneMillisecondStaySorted() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(true, 10_000, 60_000);
+        // What two stripes do: disjoint runs of the same ms, arriving in either order
+        index.add(range(MS, 1, 512, 100));
+        index.add(range(MS, 1, 0, 100));
+        index.add(range(MS, 1, 1024, 100));
+        index.add(id(MS, 1, 150));
+        index.add(range(MS, 1, 256, 10));
+
+        long[] ids = index.query(MS, MS, 1, 1_000);
+
+        assertThat(ids).hasSize(311).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void reservedRangesAreIndexedPerRun() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(true, 100_000, 60_000);
+        SnowflakeIdRange range = new SnowflakeIdGenerator(WorkerIdAssignment.fixed(4), SnowflakeMode.LOCK_FREE, 8, 0)
+                .reserveRange(10_000);
+
+        index.add(range);
+
+        long from = SnowflakeLayout.timestampMs(range.get(0));
+        long to   = SnowflakeLayout.timestampMs(range.get(range.size() - 1));
+        assertThat(index.size()).isEqualTo(10_000);
+        assertThat(index.query(from, to, 4, 20_000)).containsExactly(range.toArray());
+    }
+
+    @Test
+    void oldestBucketsAreDroppedOnceOverCapacity() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(true, 10, 60_000);
+
+        index.add(range(MS, 1, 0, 6));
+        index.add(range(MS + 1, 1, 0, 6));
+
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.evictedIds()).isEqualTo(6);
+        assertThat(index.query(MS, MS, 1, 100)).isEmpty();
+        assertThat(index.query(MS + 1, MS + 1, 1, 100)).hasSize(6);
+    }
+
+    @Test
+    void sweepDropsBucketsOlderThanTheRetention() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(true, 1_000, 60_000);
+        long now = System.currentTimeMillis();
+        index.add(id(now - 120_000, 1, 0));
+        index.add(id(now, 1, 0));
+
+        index.evictExpired();
+
+        assertThat(index.bucketCount()).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.evictedIds()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledIndexIgnoresWrites() {
+        SnowflakeIdIndex index = new SnowflakeIdIndex(false, 0, 0);
+
+        index.add(id(MS, 1, 0));
+
+        assertThat(index.isEnabled()).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    private static long id(long ms, long worker, long sequence) {
+        return SnowflakeLayout.minIdAt(ms) | (worker << SnowflakeLayout.WORKER_SHIFT) | sequence;
+    }
+
+    private static SnowflakeIdRange range(long ms, long worker, long firstSequence, int length) {
+        return SnowflakeIdRanges.run(id(ms, worker, firstSequence), length);
+    }
+}
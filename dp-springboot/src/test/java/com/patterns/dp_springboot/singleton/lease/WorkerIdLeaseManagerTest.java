@@ -0,0 +1,176 @@
+package com.patterns.dp_springboot.singleton.lease;
+
+import com.patterns.dp_springboot.singleton.domain.WorkerLease;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.repository.WorkerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Leases are won or lost by committed row counts — run every statement in its own transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WorkerIdLeaseManagerTest {
+
+    @Autowired
+    private WorkerLeaseRepository repository;
+
+    private final List<WorkerIdLeaseManager> managers = new ArrayList<>();
+
+    @BeforeEach
+    void emptyLeaseTable() {
+        repository.deleteAll();
+    }
+
+    @AfterEach
+    void releaseAll() {
+        managers.forEach(WorkerIdLeaseManager::release);
+    }
+
+    @Test
+    void nodesClaimDistinctWorkerIds() {
+        WorkerIdLeaseManager first  = claim(30_000, 10_000, 5_000);
+        WorkerIdLeaseManager second = claim(30_000, 10_000, 5_000);
+
+        assertThat(first.isActive()).isTrue();
+        assertThat(second.isActive()).isTrue();
+        assertThat(first.workerId()).isNotEqualTo(second.workerId());
+        assertThat(repository.findById((int) first.workerId())).get()
+                .extracting(WorkerLease::getOwner).isEqualTo(first.owner());
+    }
+
+    @Test
+    void releaseFreesTheIdAndStopsGeneration() {
+        WorkerIdLeaseManager manager = claim(30_000, 10_000, 5_000);
+        int id = (int) manager.workerId();
+
+        manager.release();
+
+        assertThat(manager.isActive()).isFalse();
+        assertThat(repository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void renewalExtendsALiveLease() throws InterruptedException {
+        WorkerIdLeaseManager manager = claim(30_000, 10_000, 5_000);
+        long before = expiresAt(manager);
+
+        Thread.sleep(5);
+        manager.renew();
+
+        assertThat(manager.isActive()).isTrue();
+        assertThat(expiresAt(manager)).isGreaterThan(before);
+    }
+
+    @Test
+    void leaseIsLostWhenItsRowIsGone() {
+        WorkerIdLeaseManager manager = claim(30_000, 10_000, 5_000);
+        repository.release((int) manager.workerId(), manager.owner());
+
+        manager.renew();
+
+        assertThat(manager.isActive()).isFalse();
+    }
+
+    @Test
+    void leaseStopsAtTheSafetyMarginWhenTheHeartbeatStallsAndIsNotRenewedAfterwards() throws InterruptedException {
+        CountDownLatch stall = new CountDownLatch(1);
+        AtomicInteger renewals = new AtomicInteger();
+        // ttl 400ms, margin 100ms → the lease covers generation for 300ms; the 100ms heartbeat hangs in the DB
+        WorkerIdLeaseManager manager = new WorkerIdLeaseManager(stallingRenewals(stall, renewals), 400, 100, 100);
+        managers.add(manager);
+        try {
+            manager.claim();
+            assertThat(manager.isActive()).isTrue();
+
+            Thread.sleep(350);
+
+            assertThat(renewals).hasValue(1);
+            assertThat(manager.isActive()).isFalse();
+            // A late renewal must not resurrect the lease — it never even reaches the database
+            manager.renew();
+            assertThat(renewals).hasValue(1);
+            assertThat(manager.isActive()).isFalse();
+        } finally {
+            stall.countDown();
+        }
+    }
+
+    @Test
+    void takesOverAnExpiredLeaseWhenEveryIdIsClaimed() {
+        long now = System.currentTimeMillis();
+        int maxWorker = (int) SnowflakeLayout.MAX_WORKER;
+        for (int id = 0; id <= maxWorker; id++) {
+            repository.insert(id, "other-node", id == 42 ? now - 1 : now + 60_000);
+        }
+
+        WorkerIdLeaseManager manager = claim(30_000, 10_000, 5_000);
+
+        assertThat(manager.workerId()).isEqualTo(42L);
+        assertThat(repository.findById(42)).get()
+                .extracting(WorkerLease::getOwner).isEqualTo(manager.owner());
+    }
+
+    @Test
+    void failsWhenEveryIdIsLeasedAndLive() {
+        long now = System.currentTimeMillis();
+        for (int id = 0; id <= SnowflakeLayout.MAX_WORKER; id++) {
+            repository.insert(id, "other-node", now + 60_000);
+        }
+
+        assertThatThrownBy(() -> claim(30_000, 10_000, 5_000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No free Snowflake worker-id");
+    }
+
+    @Test
+    void rejectsTimingsThatLeaveNoRoomForAHeartbeat() {
+        assertThatThrownBy(() -> new WorkerIdLeaseManager(repository, 15_000, 10_000, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WorkerIdLeaseManager(repository, 30_000, 10_000, 20_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WorkerIdLeaseManager claim(long ttlMs, long heartbeatMs, long safetyMarginMs) {
+        WorkerIdLeaseManager manager = new WorkerIdLeaseManager(repository, ttlMs, heartbeatMs, safetyMarginMs);
+        managers.add(manager);
+        manager.claim();
+        return manager;
+    }
+
+    // The real repository, except that every renew() hangs until the latch opens
+    private WorkerLeaseRepository stallingRenewals(CountDownLatch stall, AtomicInteger renewals) {
+        return (WorkerLeaseRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WorkerLeaseRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("renew")) {
+                        renewals.incrementAndGet();
+                        stall.await(5, TimeUnit.SECONDS);
+                    }
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private long expiresAt(WorkerIdLeaseManager manager) {
+        return repository.findById((int) manager.workerId()).orElseThrow().getExpiresAtMs();
+    }
+}
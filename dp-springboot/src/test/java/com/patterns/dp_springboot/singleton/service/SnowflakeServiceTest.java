@@ -0,0 +1,83 @@
+package com.patterns.dp_springboot.singleton.service;
+
+import com.patterns.dp_springboot.singleton.dto.IdStreamFormat;
+import com.patterns.dp_springboot.singleton.dto.SnowflakeResponse;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeLayout;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import com.patterns.dp_springboot.singleton.index.SnowflakeIdIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeServiceTest {
+
+    private final SnowflakeService service = new SnowflakeService(
+            new SnowflakeIdGenerator(WorkerIdAssignment.fixed(3), SnowflakeMode.SYNCHRONIZED, 8, 0),
+            new SnowflakeIdIndex(false, 0, 0));
+
+    @Test
+    void parseDecodesEveryPartOfTheId() {
+        long timestampMs = 1_750_000_000_123L;
+        long id = SnowflakeLayout.minIdAt(timestampMs) | (3L << SnowflakeLayout.WORKER_SHIFT) | 42L;
+
+        SnowflakeResponse parsed = service.parse(id);
+
+        assertThat(parsed.id()).isEqualTo(id);
+        assertThat(parsed.timestampMs()).isEqualTo(timestampMs);
+        assertThat(parsed.workerId()).isEqualTo(3L);
+        assertThat(parsed.sequence()).isEqualTo(42L);
+        assertThat(parsed.readable()).isEqualTo(Instant.ofEpochMilli(timestampMs).toString());
+    }
+
+    @Test
+    void generateBatchReturnsDistinctIdsInOrder() {
+        List<SnowflakeResponse> batch = service.generateBatch(5_000);
+
+        long[] ids = batch.stream().mapToLong(SnowflakeResponse::id).toArray();
+        assertThat(ids).hasSize(5_000).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+        assertThat(batch).allSatisfy(r -> assertThat(r.workerId()).isEqualTo(3L));
+        assertThat(service.generateBatch(0)).isEmpty();
+    }
+
+    @Test
+    void binaryStreamIsEightBigEndianBytesPerId() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // More than one 4096-ID chunk, and not a multiple of it
+        service.stream(10_000, IdStreamFormat.BINARY, out);
+
+        assertThat(out.size()).isEqualTo(10_000 * Long.BYTES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        long[] ids = new long[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.readLong();
+        }
+        assertThat(ids).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+        assertThat(service.parse(ids[0]).workerId()).isEqualTo(3L);
+    }
+
+    @Test
+    void textStreamIsOneDecimalIdPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.stream(5_000, IdStreamFormat.TEXT, out);
+
+        String text = out.toString(StandardCharsets.US_ASCII);
+        assertThat(text).endsWith("\n");
+        long[] ids = text.lines().mapToLong(Long::parseLong).toArray();
+        assertThat(ids).hasSize(5_000).isSorted();
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+}
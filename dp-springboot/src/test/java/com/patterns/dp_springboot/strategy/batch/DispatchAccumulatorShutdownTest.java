@@ -0,0 +1,49 @@
+package com.patterns.dp_springboot.strategy.batch;
+
+import com.patterns.dp_springboot.DpSpringbootApplication;
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Closes a whole application context: the shared executors are shut down before any lifecycle stop runs
+class DispatchAccumulatorShutdownTest {
+
+    @Test
+    void closingTheContextDeliversWhatIsBuffered() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DpSpringbootApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:accumulator_shutdown_test;DB_CLOSE_DELAY=-1",
+                        "dispatch.batch.linger-ms=600000")
+                .run();
+        DispatchAccumulator accumulator = context.getBean(DispatchAccumulator.class);
+        PartitionedLog log = context.getBean(PartitionedLog.class);
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            pending.add(accumulator.add(new DispatchRequest("kafka", "shutdown-test", RawJson.of("{\"n\":" + i + "}"))));
+        }
+        assertThat(pending).noneMatch(CompletableFuture::isDone);
+
+        context.close();
+
+        assertThat(pending).allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+        long delivered = log.stats().stream()
+                .filter(t -> t.topic().equals("shutdown-test"))
+                .flatMap(t -> t.partitions().stream())
+                .mapToLong(p -> p.endOffset() - p.startOffset())
+                .sum();
+        assertThat(delivered).isEqualTo(10);
+        // Nothing is buffered once the accumulator has stopped
+        assertThat(accumulator.add(new DispatchRequest("kafka", "shutdown-test", RawJson.of("{}")))).isCompletedExceptionally();
+    }
+}
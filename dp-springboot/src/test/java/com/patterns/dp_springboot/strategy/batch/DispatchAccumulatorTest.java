@@ -0,0 +1,228 @@
+package com.patterns.dp_springboot.strategy.batch;
+
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.exception.DispatcherStoppedException;
+import com.patterns.dp_springboot.strategy.exception.UnsupportedChannelException;
+import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
+import com.patterns.dp_springboot.strategy.resilience.DispatchResilience;
+import com.patterns.dp_springboot.strategy.senders.DataSenderStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class DispatchAccumulatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingSender sender = new RecordingSender();
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @BeforeEach
+    void startScheduler() {
+        scheduler.initialize();
+    }
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void flushesWhenTheBatchReachesMaxSize() {
+        DispatchAccumulator accumulator = accumulator(3, 1 << 20, 60_000);
+
+        CompletableFuture<Void> first  = accumulator.add(request("orders", 1));
+        CompletableFuture<Void> second = accumulator.add(request("orders", 2));
+        assertThat(sender.batches).isEmpty();
+        assertThat(first).isNotDone();
+
+        CompletableFuture<Void> third = accumulator.add(request("orders", 3));
+
+        assertThat(sender.batches).hasSize(1);
+        assertThat(sender.batches.get(0)).extracting(r -> r.payload().toString())
+                .containsExactly("{\"n\":1}", "{\"n\":2}", "{\"n\":3}");
+        assertThat(List.of(first, second, third)).allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+        assertThat(flushes("size")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("dispatch.batch.size").summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    void flushesWhenThePayloadBytesReachMaxBytes() {
+        // Each payload is 7 bytes — the third one crosses 20
+        DispatchAccumulator accumulator = accumulator(100, 20, 60_000);
+
+        accumulator.add(request("orders", 1));
+        accumulator.add(request("orders", 2));
+        assertThat(sender.batches).isEmpty();
+        accumulator.add(request("orders", 3));
+
+        assertThat(sender.batches).hasSize(1);
+        assertThat(sender.batches.get(0)).hasSize(3);
+        assertThat(flushes("bytes")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("dispatch.batch.bytes").summary().totalAmount()).isEqualTo(21.0);
+    }
+
+    @Test
+    void flushesAPartialBatchAfterTheLinger() {
+        DispatchAccumulator accumulator = accumulator(100, 1 << 20, 20);
+
+        CompletableFuture<Void> only = accumulator.add(request("orders", 1));
+
+        await().atMost(Duration.ofSeconds(5)).until(only::isDone);
+        assertThat(sender.batches).hasSize(1);
+        assertThat(flushes("linger")).isEqualTo(1.0);
+    }
+
+    @Test
+    void topicsAreBatchedSeparately() {
+        DispatchAccumulator accumulator = accumulator(2, 1 << 20, 60_000);
+
+        accumulator.add(request("orders", 1));
+        accumulator.add(request("payments", 2));
+        assertThat(sender.batches).isEmpty();
+        accumulator.add(request("payments", 3));
+
+        assertThat(sender.batches).hasSize(1);
+        assertThat(sender.batches.get(0)).extracting(DispatchRequest::topic).containsOnly("payments");
+    }
+
+    @Test
+    void failedBatchFailsEveryRequestInIt() {
+        sender.failing = true;
+        DispatchAccumulator accumulator = accumulator(2, 1 << 20, 60_000);
+
+        CompletableFuture<Void> first  = accumulator.add(request("orders", 1));
+        CompletableFuture<Void> second = accumulator.add(request("orders", 2));
+
+        assertThatThrownBy(first::join).hasRootCauseMessage("broker down");
+        assertThatThrownBy(second::join).hasRootCauseMessage("broker down");
+    }
+
+    @Test
+    void stopFlushesWhateverIsBuffered() {
+        DispatchAccumulator accumulator = accumulator(100, 1 << 20, 60_000);
+        CompletableFuture<Void> pending = accumulator.add(request("orders", 1));
+
+        accumulator.stop();
+
+        assertThat(pending).isCompletedWithValue(null);
+        assertThat(flushes("shutdown")).isEqualTo(1.0);
+        assertThat(accumulator.isRunning()).isFalse();
+    }
+
+    @Test
+    void addAfterStopIsRefusedInsteadOfBuffered() {
+        DispatchAccumulator accumulator = accumulator(100, 1 << 20, 60_000);
+        accumulator.stop();
+
+        CompletableFuture<Void> refused = accumulator.add(request("orders", 1));
+
+        assertThatThrownBy(refused::join).hasCauseInstanceOf(DispatcherStoppedException.class);
+        accumulator.stop();
+        assertThat(sender.batches).isEmpty();
+    }
+
+    @Test
+    void batchRejectedByAShutDownExecutorIsSentOnTheCallingThread() {
+        Executor shutDown = task -> {
+            throw new TaskRejectedException("executor has been shut down");
+        };
+        DispatchAccumulator accumulator = accumulator(shutDown, scheduler, 2, 1 << 20, 60_000);
+
+        CompletableFuture<Void> first  = accumulator.add(request("orders", 1));
+        CompletableFuture<Void> second = accumulator.add(request("orders", 2));
+
+        assertThat(List.of(first, second)).allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+        assertThat(sender.batches).hasSize(1);
+    }
+
+    @Test
+    void requestThatCannotStartALingerTimerIsSentRightAway() {
+        ThreadPoolTaskScheduler shutDown = new ThreadPoolTaskScheduler();
+        shutDown.initialize();
+        shutDown.shutdown();
+        DispatchAccumulator accumulator = accumulator(Runnable::run, shutDown, 100, 1 << 20, 60_000);
+
+        CompletableFuture<Void> only = accumulator.add(request("orders", 1));
+
+        assertThat(only).isCompletedWithValue(null);
+        assertThat(flushes("linger")).isEqualTo(1.0);
+    }
+
+    @Test
+    void onlyConfiguredChannelsBatchAndUnknownChannelsAreRejected() {
+        DispatchAccumulator accumulator = accumulator(100, 1 << 20, 60_000);
+
+        assertThat(accumulator.batches("kafka")).isTrue();
+        assertThat(accumulator.batches("api")).isFalse();
+        assertThatThrownBy(() -> accumulator.add(new DispatchRequest("carrier-pigeon", "orders", RawJson.of("{}"))))
+                .isInstanceOf(UnsupportedChannelException.class);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> accumulator(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> accumulator(1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> accumulator(1, 1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Batches are sent on the calling thread, so size and bytes flushes are visible on return
+    private DispatchAccumulator accumulator(int maxSize, long maxBytes, long lingerMs) {
+        return accumulator(Runnable::run, scheduler, maxSize, maxBytes, lingerMs);
+    }
+
+    private DispatchAccumulator accumulator(Executor flushExecutor, TaskScheduler lingerScheduler, int maxSize, long maxBytes, long lingerMs) {
+        DispatchResilience resilience = new DispatchResilience(meterRegistry, 10_000, 20, 1, 500, 0.9, 2.0, 50, 20, 10, 5_000, 3, 100, 300_000);
+        DispatchAccumulator accumulator = new DispatchAccumulator(new DataSenderRegistry(List.of(sender)), resilience, flushExecutor,
+                lingerScheduler, meterRegistry, Set.of("kafka"), maxSize, maxBytes, lingerMs);
+        accumulator.start();
+        return accumulator;
+    }
+
+    private static DispatchRequest request(String topic, int n) {
+        return new DispatchRequest("kafka", topic, RawJson.of("{\"n\":" + n + "}"));
+    }
+
+    private double flushes(String trigger) {
+        return meterRegistry.get("dispatch.batch.flushes").tag("trigger", trigger).counter().count();
+    }
+
+    private static final class RecordingSender implements DataSenderStrategy {
+
+        final List<List<DispatchRequest>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public String channel() {
+            return "kafka";
+        }
+
+        @Override
+        public void send(DispatchRequest request) {
+            throw new UnsupportedOperationException("batched only");
+        }
+
+        @Override
+        public CompletableFuture<Void> sendBatch(List<DispatchRequest> batch) {
+            batches.add(List.copyOf(batch));
+            return failing
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                    : CompletableFuture.completedFuture(null);
+        }
+    }
+}
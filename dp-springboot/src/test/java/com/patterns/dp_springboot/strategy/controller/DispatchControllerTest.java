@@ -0,0 +1,57 @@
+package com.patterns.dp_springboot.strategy.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DispatchControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void queuedDispatchIsAcceptedAndItsStatusCanBePolled() throws Exception {
+        String body = mvc.perform(post("/api/v1/dispatch/queue").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"channel\": \"kafka\", \"topic\": \"queue-test\", \"payload\": {\"n\": 1}}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/v1/dispatch/status/")))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andReturn().getResponse().getContentAsString();
+        String trackingId = JsonPath.read(body, "$.trackingId");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mvc.perform(get("/api/v1/dispatch/status/" + trackingId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.state").value("DELIVERED"))
+                        .andExpect(jsonPath("$.topic").value("queue-test")));
+    }
+
+    @Test
+    void unknownTrackingIdIsNotFound() throws Exception {
+        mvc.perform(get("/api/v1/dispatch/status/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownChannelIsABadRequest() throws Exception {
+        mvc.perform(post("/api/v1/dispatch/queue").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"channel\": \"carrier-pigeon\", \"topic\": \"t\", \"payload\": {}}"))
+                .andExpect(status().isBadRequest());
+    }
+}
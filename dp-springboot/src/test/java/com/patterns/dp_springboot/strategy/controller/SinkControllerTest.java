@@ -0,0 +1,49 @@
+package com.patterns.dp_springboot.strategy.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SinkControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void fetchSizeIsBounded() throws Exception {
+        mvc.perform(get("/api/v1/dispatch/sinks/kafka/orders/0").param("max", "10001"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/dispatch/sinks/kafka/orders/0").param("max", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/v1/dispatch/sinks/redis/events/groups/g/read").param("count", "10001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void readingAnUnknownStreamReturnsNothingAndDoesNotCreateIt() throws Exception {
+        mvc.perform(post("/api/v1/dispatch/sinks/redis/never-written/groups/g/read"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mvc.perform(get("/api/v1/dispatch/sinks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.redis[*].stream", not(hasItem("never-written"))));
+    }
+
+    @Test
+    void fetchingPastTheEndOfAPartitionReturnsNothing() throws Exception {
+        mvc.perform(get("/api/v1/dispatch/sinks/kafka/never-written/0").param("offset", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
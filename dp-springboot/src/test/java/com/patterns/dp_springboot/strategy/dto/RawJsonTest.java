@@ -0,0 +1,88 @@
+package com.patterns.dp_springboot.strategy.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RawJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void numbersKeepTheirOriginalText() throws Exception {
+        String json = "{\"big\":123456789012345678901234567890,\"price\":0.1000000000000000055511151231257827,"
+                + "\"huge\":1E+400,\"tiny\":-4.9e-324,\"trailing\":1.50,\"neg\":-0}";
+
+        RawJson payload = mapper.readValue(json, RawJson.class);
+
+        assertThat(payload.toString()).isEqualTo(json);
+    }
+
+    @Test
+    void numbersSurviveEvenWhenTheMapperWouldRoundThem() throws Exception {
+        // A mapper set to read floats as doubles must not matter — the payload is never bound
+        ObjectMapper lossy = new ObjectMapper().disable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        String json = "{\"a\":[0.30000000000000004441,{\"b\":9007199254740993}]}";
+
+        assertThat(lossy.readValue(json, RawJson.class).toString()).isEqualTo(json);
+    }
+
+    @Test
+    void nestedStructureStringsAndLiteralsRoundTrip() throws Exception {
+        String json = """
+                {
+                  "name": "caf\\u00e9 \\"quoted\\" \\ud83d\\ude00",
+                  "tags": ["a", "b", []],
+                  "nested": {"ok": true, "no": false, "none": null, "empty": {}}
+                }""";
+
+        RawJson payload = mapper.readValue(json, RawJson.class);
+
+        // Whitespace is dropped and escapes decoded, but the tree is the same
+        assertThat(mapper.readTree(payload.bytes())).isEqualTo(mapper.readTree(json));
+        assertThat(payload.toString()).doesNotContain("\n").contains("café");
+    }
+
+    @Test
+    void theRequestAroundThePayloadStillBinds() throws Exception {
+        DispatchRequest request = mapper.readValue(
+                "{\"channel\":\"kafka\",\"payload\":{\"n\":1.10,\"list\":[1,2]},\"topic\":\"orders\"}",
+                DispatchRequest.class);
+
+        assertThat(request.channel()).isEqualTo("kafka");
+        assertThat(request.topic()).isEqualTo("orders");
+        assertThat(request.payload()).isEqualTo(RawJson.of("{\"n\":1.10,\"list\":[1,2]}"));
+    }
+
+    @Test
+    void writingEmitsThePayloadUnchanged() throws Exception {
+        RawJson payload = RawJson.of("{\"n\":1.10,\"big\":123456789012345678901234567890}");
+
+        String written = mapper.writeValueAsString(new DispatchRequest("kafka", "orders", payload));
+
+        assertThat(written).contains("\"payload\":{\"n\":1.10,\"big\":123456789012345678901234567890}");
+        JsonNode reread = mapper.readTree(written);
+        assertThat(reread.get("payload").get("big").bigIntegerValue().toString()).isEqualTo("123456789012345678901234567890");
+    }
+
+    @Test
+    void payloadMustBeAnObject() {
+        assertThatThrownBy(() -> mapper.readValue("[1, 2]", RawJson.class)).isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> mapper.readValue("\"text\"", RawJson.class)).isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> mapper.readValue("{\"channel\":\"kafka\",\"topic\":\"t\",\"payload\":42}", DispatchRequest.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void equalityIsByContent() {
+        assertThat(RawJson.of("{\"a\":1}")).isEqualTo(RawJson.of("{\"a\":1}".getBytes()))
+                .hasSameHashCodeAs(RawJson.of("{\"a\":1}"))
+                .isNotEqualTo(RawJson.of("{\"a\":1.0}"));
+        assertThat(RawJson.of("{\"é\":1}").size()).isEqualTo(8);
+    }
+}
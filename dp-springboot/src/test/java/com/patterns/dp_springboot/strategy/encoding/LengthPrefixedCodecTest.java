@@ -0,0 +1,88 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LengthPrefixedCodecTest {
+
+    private static final PayloadCodec BINARY = PayloadCodec.BINARY;
+
+    @Test
+    void integersAtEveryWidthRoundTrip() throws IOException {
+        String json = "{\"zero\":0,\"one\":1,\"minus\":-1,\"byte\":127,\"varint\":128,\"min\":" + Long.MIN_VALUE
+                + ",\"max\":" + Long.MAX_VALUE + ",\"beyond\":-92233720368547758080}";
+
+        assertThat(roundTrip(json)).isEqualTo(json);
+    }
+
+    @Test
+    void nonIntegerNumbersKeepTheirExactText() throws IOException {
+        String json = "{\"a\":[0.1,1.50,1E+400,-4.9e-324,3.141592653589793238462643383279]}";
+
+        assertThat(roundTrip(json)).isEqualTo(json);
+    }
+
+    @Test
+    void stringsNeedNoEscapingAndMultiByteTextSurvives() throws IOException {
+        String json = "{\"quote\":\"say \\\"hi\\\"\\n\",\"accent\":\"café\",\"cjk\":\"日本語\",\"emoji\":\"😀 ok\",\"\":\"empty key\"}";
+
+        byte[] encoded = encode(json);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.readTree(BINARY.decode(encoded))).isEqualTo(mapper.readTree(json));
+        // The string bytes appear verbatim — no quotes or escapes on the wire
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).contains("say \"hi\"\n", "日本語", "😀 ok");
+    }
+
+    @Test
+    void unpairedSurrogateIsWrittenAsAQuestionMark() throws IOException {
+        assertThat(roundTrip("{\"s\":\"a\\ud800b\"}")).isEqualTo("{\"s\":\"a?b\"}");
+    }
+
+    @Test
+    void everyTruncationIsAnIOException() throws IOException {
+        byte[] encoded = encode("{\"name\":\"café\",\"n\":300,\"list\":[1.5,true,null,{\"x\":\"y\"}]}");
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> BINARY.decode(truncated))
+                    .as("truncated to %d of %d bytes", length, encoded.length)
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void unknownTagAndEmptyInputAreRejected() {
+        assertThatThrownBy(() -> BINARY.decode(new byte[]{LengthPrefixedCodec.TAG_START_OBJECT, 0x7F}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("0x7f");
+        assertThatThrownBy(() -> encode("")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void lengthPastThePayloadIsRejectedBeforeReading() {
+        byte[] lying = {LengthPrefixedCodec.TAG_START_OBJECT, LengthPrefixedCodec.TAG_FIELD_NAME, 0x7F, 'a'};
+
+        assertThatThrownBy(() -> BINARY.decode(lying))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("runs past the payload");
+    }
+
+    private static String roundTrip(String json) throws IOException {
+        return new String(BINARY.decode(encode(json)), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        EncodeBuffer out = new EncodeBuffer(64);
+        BINARY.encode(bytes, bytes.length, out);
+        return Arrays.copyOf(out.array(), out.size());
+    }
+}
@@ -0,0 +1,167 @@
+package com.patterns.dp_springboot.strategy.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PayloadEncoderTest {
+
+    // Numbers every codec must carry exactly: a long, a BigInteger, a short decimal and one a double would round
+    private static final String SMALL = "{\"id\":-42,\"big\":123456789012345678901234567890,\"price\":0.1,"
+            + "\"pi\":3.141592653589793238462643383279,\"name\":\"café ✓\",\"tags\":[\"a\",null,true,false],\"nested\":{}}";
+
+    // Repetitive enough for either compressor, well over the default 1 KiB threshold
+    private static final String LARGE = IntStream.range(0, 200)
+            .mapToObj(i -> "{\"orderId\":" + i + ",\"customer\":\"user-" + (i % 7) + "\",\"amount\":" + i + ".25}")
+            .collect(Collectors.joining(",", "{\"orders\":[", "]}"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+
+    static Stream<Arguments> codecsAndCompressions() {
+        return Arrays.stream(PayloadCodec.values())
+                .flatMap(codec -> Arrays.stream(PayloadCompression.values()).map(compression -> Arguments.of(codec, compression)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecsAndCompressions")
+    void smallPayloadRoundTripsExactly(PayloadCodec codec, PayloadCompression compression) {
+        ChannelEncoder encoder = encoder(codec, compression, 0);
+
+        EncodedPayload payload = encoder.encode(request(SMALL));
+
+        assertThat(payload.codec()).isEqualTo(codec);
+        assertThat(PayloadEncoder.decodeToString(payload.bytes(), payload.headers())).isEqualTo(SMALL);
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecsAndCompressions")
+    void largePayloadIsCompressedAndRoundTrips(PayloadCodec codec, PayloadCompression compression) throws Exception {
+        ChannelEncoder encoder = encoder(codec, compression, 1024);
+
+        EncodedPayload payload = encoder.encode(request(LARGE));
+
+        assertThat(payload.compression()).isEqualTo(compression);
+        assertThat(payload.headers().get(EncodedPayload.CONTENT_ENCODING)).isEqualTo(compression.contentEncoding());
+        if (codec != PayloadCodec.JSON || compression != PayloadCompression.NONE) {
+            assertThat(payload.bytes().length).isLessThan(LARGE.length());
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.readTree(PayloadEncoder.decode(payload.bytes(), payload.headers()))).isEqualTo(mapper.readTree(LARGE));
+    }
+
+    @Test
+    void plainJsonIsTheCallersBytesWithNoHeaders() {
+        byte[] json = SMALL.getBytes(StandardCharsets.UTF_8);
+
+        EncodedPayload payload = encoder(PayloadCodec.JSON, PayloadCompression.NONE, 0).encode(request(json));
+
+        assertThat(payload.bytes()).isSameAs(json);
+        assertThat(payload.headers()).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PayloadCompression.class, names = {"DEFLATE", "LZ4"})
+    void payloadsBelowTheThresholdAreNotCompressed(PayloadCompression compression) {
+        EncodedPayload payload = encoder(PayloadCodec.JSON, compression, 1024).encode(request(SMALL));
+
+        assertThat(payload.compression()).isEqualTo(PayloadCompression.NONE);
+        assertThat(payload.headers()).isEmpty();
+        assertThat(compressionOutcome("below_threshold")).isEqualTo(1.0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PayloadCompression.class, names = {"DEFLATE", "LZ4"})
+    void compressionThatDoesNotShrinkThePayloadIsDropped(PayloadCompression compression) {
+        // Too short and too varied to gain anything once the compressor's framing is added
+        EncodedPayload payload = encoder(PayloadCodec.JSON, compression, 0).encode(request("{\"k\":\"x7Qz\"}"));
+
+        assertThat(payload.compression()).isEqualTo(PayloadCompression.NONE);
+        assertThat(new String(payload.bytes(), StandardCharsets.UTF_8)).isEqualTo("{\"k\":\"x7Qz\"}");
+        assertThat(compressionOutcome("no_gain")).isEqualTo(1.0);
+    }
+
+    @Test
+    void channelSettingsFallBackToTheDefaults() {
+        environment.setProperty("dispatch.encoding.kafka.codec", "SMILE");
+        PayloadEncoder encoder = new PayloadEncoder(environment, meterRegistry, PayloadCodec.CBOR, PayloadCompression.LZ4, 512, 4, 1 << 20);
+
+        ChannelEncoding kafka = encoder.forChannel("kafka").settings();
+        ChannelEncoding redis = encoder.forChannel("redis").settings();
+
+        assertThat(kafka).isEqualTo(new ChannelEncoding(PayloadCodec.SMILE, PayloadCompression.LZ4, 512));
+        assertThat(redis).isEqualTo(new ChannelEncoding(PayloadCodec.CBOR, PayloadCompression.LZ4, 512));
+    }
+
+    @Test
+    void negativeThresholdFailsAtStartup() {
+        assertThatThrownBy(() -> new PayloadEncoder(environment, meterRegistry, PayloadCodec.JSON, PayloadCompression.NONE, -1, 4, 1 << 20))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        environment.setProperty("dispatch.encoding.api.compression-threshold-bytes", "-1");
+        PayloadEncoder encoder = new PayloadEncoder(environment, meterRegistry, PayloadCodec.JSON, PayloadCompression.NONE, 0, 4, 1 << 20);
+        assertThatThrownBy(() -> encoder.forChannel("api")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void httpChannelsRefuseCompressionThatIsNotAnHttpContentCoding() {
+        PayloadEncoder encoder = new PayloadEncoder(environment, meterRegistry, PayloadCodec.JSON, PayloadCompression.LZ4, 0, 4, 1 << 20);
+        assertThatThrownBy(() -> encoder.forHttpChannel("api"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dispatch.encoding.api.compression=LZ4");
+
+        environment.setProperty("dispatch.encoding.api.compression", "DEFLATE");
+        assertThat(encoder.forHttpChannel("api").settings().compression()).isEqualTo(PayloadCompression.DEFLATE);
+        // Other channels may still use it
+        assertThat(encoder.forChannel("kafka").settings().compression()).isEqualTo(PayloadCompression.LZ4);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PayloadCodec.class, names = {"CBOR", "SMILE", "BINARY"})
+    void malformedPayloadFailsTheDelivery(PayloadCodec codec) {
+        assertThatThrownBy(() -> encoder(codec, PayloadCompression.NONE, 0).encode(request("{\"open\":")))
+                .isInstanceOf(DeliveryFailedException.class);
+    }
+
+    @Test
+    void unknownHeadersAreRejectedOnDecode() {
+        assertThatThrownBy(() -> PayloadEncoder.decode(new byte[0], Map.of(EncodedPayload.CONTENT_ENCODING, "br")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PayloadEncoder.decode(new byte[0], Map.of(EncodedPayload.CONTENT_TYPE, "text/xml")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ChannelEncoder encoder(PayloadCodec codec, PayloadCompression compression, int thresholdBytes) {
+        return new PayloadEncoder(environment, meterRegistry, codec, compression, thresholdBytes, 4, 1 << 20).forChannel("test");
+    }
+
+    private static DispatchRequest request(String json) {
+        return request(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DispatchRequest request(byte[] json) {
+        return new DispatchRequest("test", "orders", RawJson.of(json));
+    }
+
+    private double compressionOutcome(String outcome) {
+        return meterRegistry.get("dispatch.encoding.compression").tag("outcome", outcome).counter().count();
+    }
+}
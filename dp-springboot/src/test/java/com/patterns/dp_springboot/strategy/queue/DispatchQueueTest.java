@@ -0,0 +1,200 @@
+package com.patterns.dp_springboot.strategy.queue;
+
+import com.patterns.dp_springboot.singleton.generator.SnowflakeIdGenerator;
+import com.patterns.dp_springboot.singleton.generator.SnowflakeMode;
+import com.patterns.dp_springboot.singleton.generator.WorkerIdAssignment;
+import com.patterns.dp_springboot.strategy.batch.DispatchAccumulator;
+import com.patterns.dp_springboot.strategy.dto.DispatchAccepted;
+import com.patterns.dp_springboot.strategy.dto.DispatchRequest;
+import com.patterns.dp_springboot.strategy.dto.DispatchState;
+import com.patterns.dp_springboot.strategy.dto.DispatchStatus;
+import com.patterns.dp_springboot.strategy.dto.RawJson;
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+import com.patterns.dp_springboot.strategy.exception.DispatchQueueFullException;
+import com.patterns.dp_springboot.strategy.exception.DispatcherStoppedException;
+import com.patterns.dp_springboot.strategy.exception.TrackingIdNotFoundException;
+import com.patterns.dp_springboot.strategy.exception.UnsupportedChannelException;
+import com.patterns.dp_springboot.strategy.registry.DataSenderRegistry;
+import com.patterns.dp_springboot.strategy.resilience.DispatchResilience;
+import com.patterns.dp_springboot.strategy.senders.DataSenderStrategy;
+import com.patterns.dp_springboot.strategy.service.DispatchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class DispatchQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScriptedSender sender = new ScriptedSender();
+    private DispatchQueue queue;
+
+    @AfterEach
+    void stopQueue() {
+        if (queue != null && queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void statusMovesFromQueuedThroughInFlightToDelivered() {
+        queue = queue(10);
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        sender.gate = gate;
+
+        DispatchAccepted accepted = queue.enqueue(request("orders"));
+
+        assertThat(accepted.state()).isEqualTo(DispatchState.QUEUED);
+        assertThat(queue.status(accepted.trackingId()).state()).isEqualTo(DispatchState.QUEUED);
+
+        queue.start();
+        await().atMost(Duration.ofSeconds(5)).until(() -> queue.status(accepted.trackingId()).state() == DispatchState.IN_FLIGHT);
+        gate.complete(null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> queue.status(accepted.trackingId()).state() == DispatchState.DELIVERED);
+
+        DispatchStatus status = queue.status(accepted.trackingId());
+        assertThat(status.channel()).isEqualTo("test");
+        assertThat(status.topic()).isEqualTo("orders");
+        assertThat(status.completedAtMs()).isGreaterThanOrEqualTo(status.acceptedAtMs());
+        assertThat(drained("delivered")).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedDeliveryIsReportedWithItsReason() {
+        queue = queue(10);
+        sender.failure = new IllegalStateException("sink rejected the record");
+        queue.start();
+
+        DispatchAccepted accepted = queue.enqueue(request("orders"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> queue.status(accepted.trackingId()).state() == DispatchState.FAILED);
+        assertThat(queue.status(accepted.trackingId()).message()).isEqualTo("sink rejected the record");
+        assertThat(drained("failed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfGrowing() {
+        queue = queue(2);
+        queue.enqueue(request("orders"));
+        queue.enqueue(request("orders"));
+
+        assertThatThrownBy(() -> queue.enqueue(request("orders")))
+                .isInstanceOf(DispatchQueueFullException.class);
+        assertThat(meterRegistry.get("dispatch.queue.rejected").tag("channel", "test").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("dispatch.queue.depth").tag("channel", "test").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void requestsShedByTheLimitAreRetriedNotFailed() {
+        queue = queue(10);
+        sender.overloads.set(2);
+        queue.start();
+
+        DispatchAccepted accepted = queue.enqueue(request("orders"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> queue.status(accepted.trackingId()).state() == DispatchState.DELIVERED);
+        assertThat(sender.attempts).hasValue(3);
+        assertThat(meterRegistry.get("dispatch.queue.retried").tag("channel", "test").counter().count()).isEqualTo(2.0);
+        assertThat(drained("failed")).isZero();
+    }
+
+    @Test
+    void stopDrainsWhatIsAlreadyQueued() {
+        queue = queue(100);
+        List<DispatchAccepted> accepted = IntStream.range(0, 50)
+                .mapToObj(i -> queue.enqueue(request("orders")))
+                .toList();
+        queue.start();
+
+        queue.stop();
+
+        assertThat(accepted).allSatisfy(a -> assertThat(queue.status(a.trackingId()).state()).isEqualTo(DispatchState.DELIVERED));
+        assertThat(sender.attempts).hasValue(50);
+    }
+
+    @Test
+    void enqueueAfterStopIsRefused() {
+        queue = queue(10);
+        queue.start();
+        queue.stop();
+
+        assertThatThrownBy(() -> queue.enqueue(request("orders")))
+                .isInstanceOf(DispatcherStoppedException.class);
+        assertThat(meterRegistry.get("dispatch.queue.depth").tag("channel", "test").gauge().value()).isZero();
+    }
+
+    @Test
+    void unknownChannelsAndTrackingIdsAreRejected() {
+        queue = queue(10);
+
+        assertThatThrownBy(() -> queue.enqueue(new DispatchRequest("carrier-pigeon", "orders", RawJson.of("{}"))))
+                .isInstanceOf(UnsupportedChannelException.class);
+        assertThatThrownBy(() -> queue.status("12345")).isInstanceOf(TrackingIdNotFoundException.class);
+        assertThatThrownBy(() -> queue.status("not-a-number")).isInstanceOf(TrackingIdNotFoundException.class);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> queue(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // One "test" channel sent per request (no batching); 1 worker, slices of 8, 1ms initial backoff
+    private DispatchQueue queue(int capacity) {
+        DataSenderRegistry registry = new DataSenderRegistry(List.of(sender));
+        DispatchResilience resilience = new DispatchResilience(meterRegistry, 10_000, 20, 1, 500, 0.9, 2.0, 50, 20, 10, 5_000, 3, 100, 300_000);
+        DispatchAccumulator accumulator = new DispatchAccumulator(registry, resilience, Runnable::run, new ThreadPoolTaskScheduler(),
+                meterRegistry, Set.of(), 500, 1 << 20, 5);
+        DispatchService service = new DispatchService(registry, accumulator, resilience);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(WorkerIdAssignment.fixed(1), SnowflakeMode.SYNCHRONIZED, 8, 0);
+        return new DispatchQueue(service, registry, ids, meterRegistry, capacity, 1, 8, 1, 1_000, 60_000, 5_000);
+    }
+
+    private static DispatchRequest request(String topic) {
+        return new DispatchRequest("test", topic, RawJson.of("{\"n\":1}"));
+    }
+
+    private double drained(String outcome) {
+        return meterRegistry.get("dispatch.queue.drained").tag("channel", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private static final class ScriptedSender implements DataSenderStrategy {
+
+        final AtomicInteger attempts  = new AtomicInteger();
+        final AtomicInteger overloads = new AtomicInteger();
+        volatile CompletableFuture<Void> gate;
+        volatile RuntimeException failure;
+
+        @Override
+        public String channel() {
+            return "test";
+        }
+
+        @Override
+        public void send(DispatchRequest request) {
+            throw new UnsupportedOperationException("async only");
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(DispatchRequest request) {
+            attempts.incrementAndGet();
+            if (overloads.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                return CompletableFuture.failedFuture(new ChannelOverloadedException("test"));
+            }
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            return gate != null ? gate : CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveLimiterTest {
+
+    private static final long RTT_NS = 1_000_000;
+
+    @Test
+    void admitsUpToTheLimitAndCancelReturnsThePermit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 0.9, 2.0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.cancel();
+
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+        // A cancelled call is not a sample — the limit is unchanged
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void growsByOneOnASuccessOnlyWhileAtLeastHalfUsedAndNeverPastMax() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 3, 0.9, 2.0);
+
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), RTT_NS, false);
+        assertThat(limiter.limit()).isEqualTo(3);
+
+        // 1 of 3 in flight is under half — no growth
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), RTT_NS, false);
+        assertThat(limiter.limit()).isEqualTo(3);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), RTT_NS, false);
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void failureCutsTheLimitMultiplicativelyOncePerRoundTrip() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, 0.5, 2.0);
+        long firstWave = System.nanoTime();
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        limiter.release(firstWave, RTT_NS, true);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        // Started before the cut — already accounted for
+        limiter.release(firstWave, RTT_NS, true);
+        assertThat(limiter.limit()).isEqualTo(5);
+
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), RTT_NS, true);
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void neverCutsBelowMin() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 3, 10, 0.5, 2.0);
+
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime(), RTT_NS, true);
+
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void risingLatencyCutsTheLimitBeforeAnythingFails() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(50, 1, 100, 0.5, 2.0);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(System.nanoTime(), RTT_NS, false);
+        }
+        assertThat(limiter.limit()).isEqualTo(50);
+
+        // 10× slower: the short average leaves the long one behind within a few calls
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(System.nanoTime(), 10 * RTT_NS, false);
+        }
+
+        assertThat(limiter.limit()).isLessThan(50);
+    }
+
+    @Test
+    void rejectsInconsistentSettings() {
+        assertThatThrownBy(() -> new AdaptiveLimiter(1, 0, 10, 0.9, 2.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveLimiter(20, 1, 10, 0.9, 2.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveLimiter(5, 1, 10, 1.0, 2.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveLimiter(5, 1, 10, 0.9, 0.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+import com.patterns.dp_springboot.strategy.resilience.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    // 50% of the last 4 calls, at least 4 recorded; open for 1s, then 2 probes
+    private final CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, 1_000, 2);
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire(0)).isTrue();
+    }
+
+    @Test
+    void opensAtTheFailureRateAndFailsFastForOpenMs() {
+        trip(100);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(100)).isFalse();
+        assertThat(breaker.tryAcquire(1_099)).isFalse();
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+        // 1 of 4 — then the failure slides out and another takes its place
+        breaker.onResult(true, 0);
+        breaker.onResult(false, 0);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        breaker.onResult(false, 0);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsExactlyTheProbesThroughAndClosesWhenTheyAllSucceed() {
+        trip(0);
+
+        assertThat(breaker.tryAcquire(1_000)).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(1_000)).isTrue();
+        assertThat(breaker.tryAcquire(1_000)).isFalse();
+
+        breaker.onResult(true, 1_010);
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onResult(true, 1_020);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        // Closed with an empty window: three failures are below minimum-calls again
+        breaker.onResult(false, 1_030);
+        breaker.onResult(false, 1_030);
+        breaker.onResult(false, 1_030);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void aFailedProbeReopensForAnotherFullPeriod() {
+        trip(0);
+        breaker.tryAcquire(1_000);
+
+        breaker.onResult(false, 1_500);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(2_499)).isFalse();
+        assertThat(breaker.tryAcquire(2_500)).isTrue();
+    }
+
+    @Test
+    void cancelGivesBackAProbeSlot() {
+        trip(0);
+        breaker.tryAcquire(1_000);
+        breaker.tryAcquire(1_000);
+
+        breaker.cancel();
+
+        assertThat(breaker.tryAcquire(1_000)).isTrue();
+        assertThat(breaker.tryAcquire(1_000)).isFalse();
+    }
+
+    @Test
+    void lateResultsWhileOpenAreIgnored() {
+        trip(0);
+
+        breaker.onResult(true, 10);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new CircuitBreaker(0, 4, 4, 1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker(101, 4, 4, 1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker(50, 4, 5, 1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker(50, 4, 4, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker(50, 4, 4, 1_000, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void trip(long nowMs) {
+        breaker.onResult(true, nowMs);
+        breaker.onResult(true, nowMs);
+        breaker.onResult(false, nowMs);
+        breaker.onResult(false, nowMs);
+    }
+}
@@ -0,0 +1,140 @@
+package com.patterns.dp_springboot.strategy.resilience;
+
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+import com.patterns.dp_springboot.strategy.exception.CircuitOpenException;
+import com.patterns.dp_springboot.strategy.exception.DispatchTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class DispatchResilienceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void callsOverTheLimitFailFastAndOtherKeysCarryOn() {
+        DispatchResilience resilience = resilience(1_000, 1, 100);
+        CompletableFuture<String> running = new CompletableFuture<>();
+
+        CompletableFuture<String> first = resilience.execute("kafka", () -> running);
+        CompletableFuture<String> second = resilience.execute("kafka", () -> CompletableFuture.completedFuture("x"));
+
+        assertThatThrownBy(second::join).hasCauseInstanceOf(ChannelOverloadedException.class);
+        assertThat(resilience.execute("redis", () -> CompletableFuture.completedFuture("y"))).isCompletedWithValue("y");
+        assertThat(rejected("kafka", "limit")).isEqualTo(1.0);
+
+        running.complete("done");
+        assertThat(first.join()).isEqualTo("done");
+        assertThat(inFlight("kafka")).isZero();
+    }
+
+    @Test
+    void failuresOpenTheKeysBreaker() {
+        DispatchResilience resilience = resilience(1_000, 20, 100);
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<Object> failed = resilience.execute("redis",
+                    () -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+            assertThatThrownBy(failed::join).hasRootCauseMessage("down");
+        }
+
+        CompletableFuture<String> rejected = resilience.execute("redis", () -> CompletableFuture.completedFuture("x"));
+
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(CircuitOpenException.class);
+        assertThat(rejected("redis", "breaker")).isEqualTo(1.0);
+        assertThat(registry.get("dispatch.breaker.state").tag("key", "redis").gauge().value()).isEqualTo(2.0);
+        // The breaker's rejection returned its limiter permit
+        assertThat(inFlight("redis")).isZero();
+        assertThat(resilience.execute("kafka", () -> CompletableFuture.completedFuture("y"))).isCompletedWithValue("y");
+    }
+
+    @Test
+    void slowCallTimesOutIsCancelledAndHandsItsPermitBack() {
+        DispatchResilience resilience = resilience(50, 20, 100);
+        CompletableFuture<String> hanging = new CompletableFuture<>();
+
+        CompletableFuture<String> call = resilience.execute("api:slow.example", () -> hanging);
+
+        assertThatThrownBy(call::join).hasCauseInstanceOf(DispatchTimeoutException.class);
+        await().atMost(Duration.ofSeconds(5)).until(hanging::isCancelled);
+        assertThat(inFlight("api:slow.example")).isZero();
+        assertThat(registry.get("dispatch.call").tag("key", "api:slow.example").tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void hostKeysPastTheCapShareOneTag() {
+        DispatchResilience resilience = resilience(1_000, 20, 1);
+
+        resilience.execute("api:a.example", () -> CompletableFuture.completedFuture("a")).join();
+        resilience.execute("api:b.example", () -> CompletableFuture.completedFuture("b")).join();
+        resilience.execute("api:c.example", () -> CompletableFuture.completedFuture("c")).join();
+        resilience.execute("kafka", () -> CompletableFuture.completedFuture("k")).join();
+
+        assertThat(calls("api:a.example")).isEqualTo(1);
+        assertThat(calls("api:other")).isEqualTo(2);
+        // Channel keys are never folded
+        assertThat(calls("kafka")).isEqualTo(1);
+        // A folded key has no gauges of its own
+        assertThat(registry.find("dispatch.concurrency.limit").tag("key", "api:b.example").gauge()).isNull();
+        assertThat(registry.find("dispatch.concurrency.limit").tag("key", "api:other").gauge()).isNull();
+    }
+
+    @Test
+    void idleHostGuardsAreEvictedWithTheirMetersAndFreeTheirTag() throws InterruptedException {
+        DispatchResilience resilience = resilience(1_000, 20, 2, 50);
+        CompletableFuture<String> busy = new CompletableFuture<>();
+        resilience.execute("api:a.example", () -> CompletableFuture.completedFuture("a")).join();
+        resilience.execute("api:busy.example", () -> busy);
+        resilience.execute("kafka", () -> CompletableFuture.completedFuture("k")).join();
+
+        Thread.sleep(60);
+        // The sweep runs on the next call after idle-evict-ms
+        resilience.execute("api:b.example", () -> CompletableFuture.completedFuture("b")).join();
+
+        assertThat(registry.find("dispatch.concurrency.limit").tag("key", "api:a.example").gauge()).isNull();
+        assertThat(registry.find("dispatch.call").tag("key", "api:a.example").timer()).isNull();
+        // a.example's slot went to b.example instead of api:other
+        assertThat(calls("api:b.example")).isEqualTo(1);
+        // A guard with a call in flight, and channel guards, stay
+        assertThat(inFlight("api:busy.example")).isEqualTo(1);
+        assertThat(inFlight("kafka")).isZero();
+        busy.complete("done");
+    }
+
+    @Test
+    void rejectsInvalidSettingsAtStartup() {
+        assertThatThrownBy(() -> resilience(0, 20, 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> resilience(1_000, 20, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DispatchResilience(registry, 1_000, 20, 1, 10, 0.9, 2.0, 50, 20, 10, 5_000, 3, 100, 300_000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> resilience(1_000, 20, 100, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DispatchResilience resilience(long callTimeoutMs, int initialLimit, int maxHostKeys) {
+        return resilience(callTimeoutMs, initialLimit, maxHostKeys, 300_000);
+    }
+
+    // Breaker: 50% of the last 20, at least 10 calls, open 5s
+    private DispatchResilience resilience(long callTimeoutMs, int initialLimit, int maxHostKeys, long idleEvictMs) {
+        return new DispatchResilience(registry, callTimeoutMs, initialLimit, 1, Math.max(initialLimit, 500), 0.9, 2.0,
+                50, 20, 10, 5_000, 3, maxHostKeys, idleEvictMs);
+    }
+
+    private double rejected(String key, String reason) {
+        return registry.get("dispatch.rejected").tag("key", key).tag("reason", reason).counter().count();
+    }
+
+    private double inFlight(String key) {
+        return registry.get("dispatch.concurrency.inflight").tag("key", key).gauge().value();
+    }
+
+    private long calls(String key) {
+        return registry.get("dispatch.call").tag("key", key).tag("outcome", "success").timer().count();
+    }
+}
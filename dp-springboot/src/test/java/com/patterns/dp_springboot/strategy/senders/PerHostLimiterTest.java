@@ -0,0 +1,153 @@
+package com.patterns.dp_springboot.strategy.senders;
+
+import com.patterns.dp_springboot.strategy.exception.ChannelOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PerHostLimiterTest {
+
+    // Every started call, in start order, left pending until the test completes it
+    private final List<CompletableFuture<String>> started = new CopyOnWriteArrayList<>();
+    private final List<String> startOrder = new CopyOnWriteArrayList<>();
+
+    @Test
+    void capsCallsInFlightPerHostAndStartsWaitersInOrder() {
+        PerHostLimiter limiter = new PerHostLimiter(2, 10);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(limiter.submit("a.example", pending("a" + i)));
+        }
+        CompletableFuture<String> other = limiter.submit("b.example", pending("b0"));
+
+        // Another host has its own permits
+        assertThat(startOrder).containsExactly("a0", "a1", "b0");
+
+        started.get(0).complete("done-a0");
+        assertThat(results.get(0)).isCompletedWithValue("done-a0");
+        assertThat(startOrder).containsExactly("a0", "a1", "b0", "a2");
+
+        started.get(1).complete("done-a1");
+        started.get(3).complete("done-a2");
+        assertThat(startOrder).containsExactly("a0", "a1", "b0", "a2", "a3", "a4");
+        assertThat(other).isNotDone();
+    }
+
+    @Test
+    void failsFastOnceTheWaitQueueIsFull() {
+        PerHostLimiter limiter = new PerHostLimiter(1, 2);
+
+        limiter.submit("a.example", pending("a0"));
+        CompletableFuture<String> queued1 = limiter.submit("a.example", pending("a1"));
+        CompletableFuture<String> queued2 = limiter.submit("a.example", pending("a2"));
+        CompletableFuture<String> rejected = limiter.submit("a.example", pending("a3"));
+
+        assertThat(queued1).isNotDone();
+        assertThat(queued2).isNotDone();
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(ChannelOverloadedException.class);
+        assertThat(startOrder).containsExactly("a0");
+    }
+
+    @Test
+    void cancellingAWaitingCallTakesItOffTheQueue() {
+        PerHostLimiter limiter = new PerHostLimiter(1, 1);
+
+        limiter.submit("a.example", pending("a0"));
+        CompletableFuture<String> waiting = limiter.submit("a.example", pending("a1"));
+        waiting.cancel(true);
+
+        // Its queue slot is free again, and it never starts
+        CompletableFuture<String> next = limiter.submit("a.example", pending("a2"));
+        started.get(0).complete("done");
+
+        assertThat(next).isNotDone();
+        assertThat(startOrder).containsExactly("a0", "a2");
+    }
+
+    @Test
+    void cancellingARunningCallCancelsItsExchangeAndFreesThePermit() {
+        PerHostLimiter limiter = new PerHostLimiter(1, 1);
+
+        CompletableFuture<String> running = limiter.submit("a.example", pending("a0"));
+        limiter.submit("a.example", pending("a1"));
+        running.cancel(true);
+
+        assertThat(started.get(0)).isCancelled();
+        assertThat(startOrder).containsExactly("a0", "a1");
+    }
+
+    @Test
+    void idleHostsAreDroppedFromTheMap() {
+        PerHostLimiter limiter = new PerHostLimiter(1, 1);
+
+        limiter.submit("a.example", pending("a0"));
+        limiter.submit("b.example", pending("b0"));
+        assertThat(limiter.hostCount()).isEqualTo(2);
+
+        started.forEach(call -> call.complete("done"));
+
+        assertThat(limiter.hostCount()).isZero();
+        // A later call to the same host still goes through
+        assertThat(limiter.submit("a.example", () -> CompletableFuture.completedFuture("again")))
+                .isCompletedWithValue("again");
+        assertThat(limiter.hostCount()).isZero();
+    }
+
+    @Test
+    void callThatThrowsFailsItsFutureAndReleasesThePermit() {
+        PerHostLimiter limiter = new PerHostLimiter(1, 1);
+
+        CompletableFuture<String> failed = limiter.submit("a.example", () -> {
+            throw new IllegalStateException("no connection");
+        });
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(limiter.hostCount()).isZero();
+    }
+
+    @Test
+    void waitersThatCompleteSynchronouslyDoNotGrowTheStack() {
+        int waiters = 50_000;
+        PerHostLimiter limiter = new PerHostLimiter(1, waiters);
+        AtomicInteger ran = new AtomicInteger();
+
+        limiter.submit("a.example", pending("a0"));
+        List<CompletableFuture<String>> results = new ArrayList<>(waiters);
+        for (int i = 0; i < waiters; i++) {
+            results.add(limiter.submit("a.example", () -> {
+                ran.incrementAndGet();
+                return CompletableFuture.completedFuture("ok");
+            }));
+        }
+        started.get(0).complete("done");
+
+        assertThat(ran).hasValue(waiters);
+        assertThat(results).allMatch(r -> "ok".equals(r.join()));
+        assertThat(limiter.hostCount()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatThrownBy(() -> new PerHostLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PerHostLimiter(1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Supplier<CompletableFuture<String>> pending(String name) {
+        return () -> {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            startOrder.add(name);
+            started.add(call);
+            return call;
+        };
+    }
+}
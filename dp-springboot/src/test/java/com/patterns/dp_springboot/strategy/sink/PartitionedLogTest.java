@@ -0,0 +1,131 @@
+package com.patterns.dp_springboot.strategy.sink;
+
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog.LogRecord;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog.ProducerRecord;
+import com.patterns.dp_springboot.strategy.sink.PartitionedLog.RecordMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedLogTest {
+
+    @Test
+    void keyedRecordsKeepTheirPartitionAndOrder() {
+        PartitionedLog log = new PartitionedLog(4, 1_000, 10);
+
+        RecordMetadata first  = log.append("orders", record("user-1", "a"));
+        RecordMetadata second = log.append("orders", record("user-1", "b"));
+
+        assertThat(second.partition()).isEqualTo(first.partition());
+        assertThat(second.offset()).isEqualTo(first.offset() + 1);
+        assertThat(log.read("orders", first.partition(), 0, 10)).extracting(r -> new String(r.value()))
+                .containsExactly("a", "b");
+    }
+
+    @Test
+    void batchLandsInOnePartitionAtConsecutiveOffsetsAndTheNextBatchMoves() {
+        PartitionedLog log = new PartitionedLog(3, 1_000, 10);
+
+        RecordMetadata first = log.appendBatch("orders", List.of(record(null, "a"), record(null, "b"), record(null, "c")));
+        RecordMetadata next  = log.appendBatch("orders", List.of(record(null, "d")));
+
+        assertThat(first.offset()).isZero();
+        assertThat(log.read("orders", first.partition(), 0, 10)).extracting(LogRecord::offset).containsExactly(0L, 1L, 2L);
+        assertThat(next.partition()).isNotEqualTo(first.partition());
+    }
+
+    @Test
+    void retentionDropsOldRecordsInChunksWithoutReusingOffsets() {
+        PartitionedLog log = new PartitionedLog(1, 100, 10);
+        for (int i = 0; i < 101; i++) {
+            log.append("orders", record(null, "r" + i));
+        }
+
+        // 1 over the bound drops it plus 10% of retention
+        PartitionedLog.PartitionStats stats = log.stats().get(0).partitions().get(0);
+        assertThat(stats.startOffset()).isEqualTo(11);
+        assertThat(stats.endOffset()).isEqualTo(101);
+        assertThat(stats.bytes()).isEqualTo(log.read("orders", 0, 0, 1_000).stream().mapToLong(r -> r.value().length).sum());
+        assertThat(log.append("orders", record(null, "next")).offset()).isEqualTo(101);
+    }
+
+    @Test
+    void readClampsOffsetsAndCounts() {
+        PartitionedLog log = new PartitionedLog(1, 100, 10);
+        for (int i = 0; i < 101; i++) {
+            log.append("orders", record(null, "r" + i));
+        }
+
+        // Before the log start → from the start; far past the end, or a non-positive max → nothing
+        assertThat(log.read("orders", 0, 0, 1).get(0).offset()).isEqualTo(11);
+        assertThat(log.read("orders", 0, Long.MIN_VALUE, 1).get(0).offset()).isEqualTo(11);
+        assertThat(log.read("orders", 0, Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(log.read("orders", 0, 50, 0)).isEmpty();
+        assertThat(log.read("orders", 0, 50, -1)).isEmpty();
+        assertThat(log.read("orders", 0, 99, Integer.MAX_VALUE)).extracting(LogRecord::offset).containsExactly(99L, 100L);
+    }
+
+    @Test
+    void unknownTopicsAndPartitionsReadAsEmpty() {
+        PartitionedLog log = new PartitionedLog(2, 100, 10);
+        log.append("orders", record(null, "a"));
+
+        assertThat(log.read("missing", 0, 0, 10)).isEmpty();
+        assertThat(log.read("orders", -1, 0, 10)).isEmpty();
+        assertThat(log.read("orders", 2, 0, 10)).isEmpty();
+        assertThat(log.stats()).hasSize(1);
+    }
+
+    @Test
+    void refusesNewTopicsPastTheCap() {
+        PartitionedLog log = new PartitionedLog(1, 100, 2);
+        log.append("a", record(null, "x"));
+        log.append("b", record(null, "x"));
+
+        assertThatThrownBy(() -> log.append("c", record(null, "x"))).isInstanceOf(DeliveryFailedException.class);
+        // Existing topics are unaffected
+        assertThat(log.append("a", record(null, "y")).offset()).isEqualTo(1);
+        assertThat(log.stats()).extracting(PartitionedLog.TopicStats::topic).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void concurrentProducersGetDistinctOffsets() throws Exception {
+        PartitionedLog log = new PartitionedLog(1, 1_000_000, 10);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    log.append("orders", record(null, "x"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<LogRecord> records = log.read("orders", 0, 0, 100_000);
+        assertThat(records).hasSize(20_000);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i).offset()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new PartitionedLog(0, 100, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PartitionedLog(1, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PartitionedLog(1, 100, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProducerRecord record(String key, String value) {
+        return new ProducerRecord(key, Map.of(), value.getBytes());
+    }
+}
@@ -0,0 +1,151 @@
+package com.patterns.dp_springboot.strategy.sink;
+
+import com.patterns.dp_springboot.strategy.exception.DeliveryFailedException;
+import com.patterns.dp_springboot.strategy.sink.StreamStore.StreamEntry;
+import com.patterns.dp_springboot.strategy.sink.StreamStore.StreamStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamStoreTest {
+
+    @Test
+    void idsIncreaseStrictlyWithinABurst() {
+        StreamStore store = new StreamStore(1_000, 10);
+
+        List<String> ids = store.addAll("events", IntStream.range(0, 500).mapToObj(i -> entry("n", i)).toList());
+        store.createGroup("events", "g", true);
+
+        List<StreamEntry> entries = store.readGroup("events", "g", "c", 1_000);
+        assertThat(entries).extracting(StreamEntry::id).containsExactlyElementsOf(ids);
+        assertThat(entries).extracting(StreamEntry::seq).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(0)).matches("\\d+-\\d+");
+    }
+
+    @Test
+    void groupCreatedFromTheStartReadsEverythingOnceAndTracksPending() {
+        StreamStore store = new StreamStore(1_000, 10);
+        List<String> ids = store.addAll("events", List.of(entry("n", 1), entry("n", 2), entry("n", 3)));
+
+        assertThat(store.createGroup("events", "g", true)).isTrue();
+
+        List<StreamEntry> first = store.readGroup("events", "g", "c1", 2);
+        List<StreamEntry> rest  = store.readGroup("events", "g", "c2", 10);
+        assertThat(first).extracting(StreamEntry::id).containsExactly(ids.get(0), ids.get(1));
+        assertThat(rest).extracting(StreamEntry::id).containsExactly(ids.get(2));
+        assertThat(store.readGroup("events", "g", "c1", 10)).isEmpty();
+        assertThat(group(store, "events")).isEqualTo(new StreamStore.GroupStats("g", 3, 0));
+
+        assertThat(store.ack("events", "g", List.of(ids.get(0), ids.get(1), "0-0"))).isEqualTo(2);
+        assertThat(group(store, "events").pending()).isEqualTo(1);
+    }
+
+    @Test
+    void groupCreatedAtTheEndSeesOnlyNewEntries() {
+        StreamStore store = new StreamStore(1_000, 10);
+        store.add("events", entry("n", 1));
+        store.createGroup("events", "g", false);
+
+        String added = store.add("events", entry("n", 2));
+
+        assertThat(store.readGroup("events", "g", "c", 10)).extracting(StreamEntry::id).containsExactly(added);
+    }
+
+    @Test
+    void creatingAGroupNeverCreatesTheStream() {
+        StreamStore store = new StreamStore(1_000, 10);
+
+        assertThat(store.createGroup("missing", "g", true)).isFalse();
+        assertThat(store.stats()).isEmpty();
+        assertThat(store.readGroup("missing", "g", "c", 10)).isEmpty();
+        assertThat(store.ack("missing", "g", List.of("1-0"))).isZero();
+    }
+
+    @Test
+    void readingWithoutAGroupOrWithANonPositiveCount() {
+        StreamStore store = new StreamStore(1_000, 10);
+        store.add("events", entry("n", 1));
+        store.createGroup("events", "g", true);
+
+        assertThat(store.readGroup("events", "g", "c", 0)).isEmpty();
+        assertThat(store.readGroup("events", "g", "c", -5)).isEmpty();
+        assertThatThrownBy(() -> store.readGroup("events", "nope", "c", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("NOGROUP");
+        // Nothing was delivered by the empty reads
+        assertThat(store.readGroup("events", "g", "c", 10)).hasSize(1);
+    }
+
+    @Test
+    void approximateMaxLenTrimsOnlyPastTenPercentOver() {
+        StreamStore store = new StreamStore(100, 10);
+        store.addAll("events", IntStream.range(0, 110).mapToObj(i -> entry("n", i)).toList());
+        assertThat(stats(store).length()).isEqualTo(110);
+
+        String last = store.add("events", entry("n", 110));
+
+        StreamStats stats = stats(store);
+        assertThat(stats.length()).isEqualTo(100);
+        assertThat(stats.lastId()).isEqualTo(last);
+    }
+
+    @Test
+    void groupLagCountsUndeliveredEntriesAfterTrimming() {
+        StreamStore store = new StreamStore(100, 10);
+        store.add("events", entry("n", 0));
+        store.createGroup("events", "g", true);
+        store.addAll("events", IntStream.range(1, 200).mapToObj(i -> entry("n", i)).toList());
+
+        assertThat(group(store, "events").lag()).isEqualTo(stats(store).length());
+        assertThat(store.readGroup("events", "g", "c", 1_000)).hasSize(stats(store).length());
+    }
+
+    @Test
+    void trimmingDropsTrimmedIdsFromThePendingList() {
+        StreamStore store = new StreamStore(100, 10);
+        store.add("events", entry("n", 0));
+        store.createGroup("events", "g", true);
+        store.addAll("events", IntStream.range(1, 50).mapToObj(i -> entry("n", i)).toList());
+        List<StreamEntry> read = store.readGroup("events", "g", "c", 50);
+        assertThat(group(store, "events").pending()).isEqualTo(50);
+
+        // 111 entries — trimmed back to the newest 100, so the 11 oldest pending ids are gone
+        store.addAll("events", IntStream.range(50, 111).mapToObj(i -> entry("n", i)).toList());
+
+        assertThat(group(store, "events").pending()).isEqualTo(39);
+        assertThat(store.ack("events", "g", List.of(read.get(0).id()))).isZero();
+        assertThat(store.ack("events", "g", List.of(read.get(11).id()))).isEqualTo(1);
+    }
+
+    @Test
+    void refusesNewStreamsPastTheCap() {
+        StreamStore store = new StreamStore(100, 1);
+        store.add("a", entry("n", 1));
+
+        assertThatThrownBy(() -> store.add("b", entry("n", 1))).isInstanceOf(DeliveryFailedException.class);
+        assertThat(store.add("a", entry("n", 2))).isNotNull();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new StreamStore(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StreamStore(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, byte[]> entry(String field, int value) {
+        return Map.of(field, String.valueOf(value).getBytes());
+    }
+
+    private static StreamStats stats(StreamStore store) {
+        return store.stats().get(0);
+    }
+
+    private static StreamStore.GroupStats group(StreamStore store, String stream) {
+        return store.stats().stream().filter(s -> s.stream().equals(stream)).findFirst().orElseThrow().groups().get(0);
+    }
+}